@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.0"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.mcp"
@@ -23,15 +24,31 @@ repositories {
 	mavenCentral()
 }
 
+/*
+ * End-to-end load tests: the server against local database stand-ins, see
+ * the loadTest task.
+ */
+val loadTest: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+	runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+configurations[loadTest.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+configurations[loadTest.annotationProcessorConfigurationName].extendsFrom(configurations.annotationProcessor.get())
+
 extra["springAiVersion"] = "1.0.0"
 
 dependencies {
 	implementation("org.springframework.boot", "spring-boot-starter-webflux")
 	implementation("org.springframework.boot", "spring-boot-starter-actuator")
+	runtimeOnly("io.micrometer", "micrometer-registry-prometheus")
 	implementation("org.springframework.ai", "spring-ai-starter-mcp-server-webflux")
 	
 	implementation("org.springframework.boot", "spring-boot-starter-data-neo4j")
 	implementation("org.springframework.boot", "spring-boot-starter-data-r2dbc")
+	implementation("io.r2dbc", "r2dbc-pool")
 	implementation("io.r2dbc", "r2dbc-postgresql", "0.8.13.RELEASE")
 	implementation("io.asyncer", "r2dbc-mysql", "1.4.0")
 	implementation("org.mariadb", "r2dbc-mariadb", "1.3.0")
@@ -42,6 +59,9 @@ dependencies {
 	testImplementation("org.springframework.boot", "spring-boot-starter-test")
 	testImplementation("io.projectreactor", "reactor-test")
 	testRuntimeOnly("org.junit.platform", "junit-platform-launcher")
+
+	"loadTestImplementation"("io.zonky.test", "embedded-postgres", "2.1.0")
+	"loadTestImplementation"("org.neo4j.test", "neo4j-harness", "5.26.0")
 }
 
 dependencyManagement {
@@ -50,10 +70,94 @@ dependencyManagement {
 	}
 }
 
+jmh {
+	jmhVersion.set("1.37")
+	benchmarkMode.set(listOf("thrpt"))
+	profilers.add("gc")
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+/*
+ * ./gradlew loadTest [-Pload.clients=16] [-Pload.duration=PT60S] [-Pload.warmup=PT10S] [-Pload.rows=100000]
+ *     [-Pload.nodes=10000] [-Pload.relationships-per-node=5] [-Pload.mix.schema=1] [-Pload.mix.read=8]
+ *     [-Pload.mix.write=1] [-Pload.label=...]
+ *
+ * The report goes to build/reports/load-test, labelled with the current commit by default.
+ */
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Runs the server against local database stand-ins under concurrent MCP clients and reports the results."
+	classpath = loadTest.runtimeClasspath
+	mainClass.set("com.mcp.dbs.load.LoadTest")
+	jvmArgs("-Xms1g", "-Xmx1g")
+	systemProperty("load.report-dir", layout.buildDirectory.dir("reports/load-test").get().asFile)
+	val commit = providers.exec {
+		commandLine("git", "rev-parse", "--short", "HEAD")
+		isIgnoreExitValue = true
+	}.standardOutput.asText.map { it.trim() }
+	systemProperty("load.label", commit.getOrElse("").ifEmpty { "local" })
+	project.properties.filterKeys { it.startsWith("load.") }.forEach { (key, value) -> systemProperty(key, value!!) }
+}
+
 tasks.bootRun {
     args("--spring.profiles.active=local")
+}
+
+/*
+ * Startup-optimized mode.
+ *
+ * ./gradlew cdsArchive [-Paot] extracts the boot jar to build/cds/application
+ * and records the classes loaded by a training run, which starts the
+ * application and exits once its context is refreshed, in a class data sharing
+ * archive next to it. The training run and the AOT processing use the
+ * configuration of the build environment (SPRING_R2DBC_URL, SPRING_NEO4J_URI...):
+ * AOT processing evaluates the conditions on the datasources at build time.
+ *
+ * java -XX:SharedArchiveFile=build/cds/application/dbs.jsa [-Dspring.aot.enabled=true] \
+ *     -jar build/cds/application/dbs-0.0.1-SNAPSHOT.jar
+ */
+val aot = providers.gradleProperty("aot").isPresent
+if (aot) {
+	apply(plugin = "org.springframework.boot.aot")
+}
+
+val cdsDirectory = layout.buildDirectory.dir("cds/application")
+val cdsLauncher = javaToolchains.launcherFor(java.toolchain)
+
+val extractBootJar by tasks.registering(Exec::class) {
+	group = "build"
+	description = "Extracts the boot jar in the layout used for class data sharing."
+	val bootJar = tasks.bootJar.flatMap { it.archiveFile }
+	inputs.file(bootJar)
+	outputs.dir(cdsDirectory)
+	doFirst {
+		delete(cdsDirectory)
+		executable(cdsLauncher.get().executablePath.asFile)
+		args("-Djarmode=tools", "-jar", bootJar.get().asFile, "extract", "--destination", cdsDirectory.get().asFile)
+	}
+}
+
+tasks.register<Exec>("cdsArchive") {
+	group = "build"
+	description = "Creates the class data sharing archive of the extracted boot jar from a training run."
+	dependsOn(extractBootJar)
+	val jar = cdsDirectory.map { it.file(tasks.bootJar.get().archiveFileName.get()) }
+	val archive = cdsDirectory.map { it.file("${project.name}.jsa") }
+	outputs.file(archive)
+	doFirst {
+		executable(cdsLauncher.get().executablePath.asFile)
+		args("-XX:ArchiveClassesAtExit=${archive.get().asFile}", "-Dspring.context.exit=onRefresh")
+		if (aot) {
+			args("-Dspring.aot.enabled=true")
+		}
+		args("-jar", jar.get().asFile)
+	}
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.mcp.dbs.converter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReactorConverterBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    private int rows;
+
+    private final ReactorConverter converter = new ReactorConverter();
+
+    private List<Map<String, Object>> result;
+
+    @Setup
+    public void setup() {
+        result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i);
+            row.put("name", "name " + i);
+            row.put("score", i * 0.5d);
+            row.put("active", i % 2 == 0);
+            row.put("created_at", LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i));
+            result.add(row);
+        }
+    }
+
+    @Benchmark
+    public String convertFlux() {
+        return converter.convert(Flux.fromIterable(result), null);
+    }
+
+    @Benchmark
+    public String convertMono() {
+        return converter.convert(Mono.just(result), null);
+    }
+}
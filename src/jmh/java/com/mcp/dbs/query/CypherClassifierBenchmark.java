@@ -0,0 +1,35 @@
+package com.mcp.dbs.query;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CypherClassifierBenchmark {
+
+    private static final String READ_QUERY = "MATCH (p:Person {name: 'Alice'})-[:KNOWS*1..3]->(f:Person) WHERE f.age > 30 RETURN f.name, count(*) AS paths ORDER BY paths DESC";
+
+    @Param({ "1", "100" })
+    private int repetitions;
+
+    private String query;
+
+    @Setup
+    public void setup() {
+        query = (READ_QUERY + " UNION ALL ").repeat(repetitions - 1) + READ_QUERY;
+    }
+
+    @Benchmark
+    public StatementClassification classify() {
+        return StatementClassifier.CYPHER.classify(query);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mcp.dbs.sql.introspection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mcp.dbs.sql.pojo.MySqlSchema;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CatalogIntrospectorBenchmark {
+
+    private static final int COLUMNS_PER_TABLE = 20;
+
+    @State(Scope.Benchmark)
+    public static class CatalogState {
+
+        @Param({ "100", "1000", "10000", "50000" })
+        private int columns;
+
+        private List<CatalogIntrospector.Column> catalog;
+        private List<CatalogIntrospector.Key> keys;
+        private List<CatalogIntrospector.ForeignKey> foreignKeys;
+
+        @Setup
+        public void setup() {
+            catalog = new ArrayList<>(columns);
+            keys = new ArrayList<>();
+            foreignKeys = new ArrayList<>();
+            for (int i = 0; i < columns; i++) {
+                int table = i / COLUMNS_PER_TABLE;
+                int column = i % COLUMNS_PER_TABLE;
+                catalog.add(new CatalogIntrospector.Column("public", "table_" + table, "column_" + column, "integer",
+                        column > 1, null));
+                if (column == 0) {
+                    keys.add(new CatalogIntrospector.Key("public", "table_" + table, "column_0", "PRIMARY KEY",
+                            "table_" + table + "_pkey"));
+                } else if (column == 1 && table > 0) {
+                    foreignKeys.add(new CatalogIntrospector.ForeignKey("public", "table_" + table, "column_1",
+                            "public", "table_" + (table - 1), "column_0"));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public MySqlSchema assemble(CatalogState state) {
+        return CatalogIntrospector.assemble(state.catalog, state.keys, state.foreignKeys, false);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mcp.dbs.sql.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryMapperHelperBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RowState {
+
+        @Param({ "8", "64" })
+        private int columns;
+
+        private StubRow row;
+        private StubRow.StubRowMetadata metadata;
+
+        @Setup
+        public void setup() {
+            List<String> names = new ArrayList<>(columns);
+            Object[] values = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                names.add("column_" + i);
+                values[i] = switch (i % 4) {
+                    case 0 -> (long) i;
+                    case 1 -> "value " + i;
+                    case 2 -> BigDecimal.valueOf(i, 2);
+                    default -> LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i);
+                };
+            }
+            metadata = new StubRow.StubRowMetadata(names);
+            row = new StubRow(metadata, values);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> rowToMap(RowState state) {
+        return QueryMapperHelper.rowToMap(state.row, state.metadata);
+    }
+
+    @Benchmark
+    public Object[] rowToArray(RowState state) {
+        return QueryMapperHelper.rowToArray(state.row, state.metadata);
+    }
+}
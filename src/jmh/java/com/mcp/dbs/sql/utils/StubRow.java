@@ -0,0 +1,97 @@
+package com.mcp.dbs.sql.utils;
+
+import java.util.List;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+
+/**
+ * Minimal in-memory {@link Row} used to benchmark the row mappers without a
+ * driver.
+ */
+class StubRow implements Row {
+
+    private final StubRowMetadata metadata;
+    private final Object[] values;
+
+    StubRow(StubRowMetadata metadata, Object[] values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(values[index]);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(metadata.indexOf(name), type);
+    }
+
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    static class StubRowMetadata implements RowMetadata {
+
+        private final List<StubColumnMetadata> columns;
+
+        StubRowMetadata(List<String> names) {
+            this.columns = names.stream().map(StubColumnMetadata::new).toList();
+        }
+
+        int indexOf(String name) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).getName().equals(name)) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException(name);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return columns.get(indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return columns;
+        }
+
+        public boolean contains(String name) {
+            return columns.stream().anyMatch(column -> column.getName().equals(name));
+        }
+    }
+
+    static class StubColumnMetadata implements ColumnMetadata {
+
+        private final String name;
+
+        StubColumnMetadata(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return R2dbcType.VARCHAR;
+        }
+
+        public Class<?> getJavaType() {
+            return Object.class;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mcp.dbs.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.transport.WebFluxSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drives the MCP endpoint of the server with concurrent simulated clients.
+ * Each client has its own MCP session and calls one tool at a time, picked
+ * at random with the weights of the operation mix, for the warmup and then
+ * for the measured duration.
+ */
+@Slf4j
+class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final List<Operation> operations;
+    private final double[] cumulativeWeights;
+
+    LoadDriver(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.operations = Operation.all().stream()
+                .filter(operation -> config.mix().getOrDefault(operation.kind(), 0) > 0)
+                .toList();
+
+        // the weight of a kind is shared by its operations
+        cumulativeWeights = new double[operations.size()];
+        double total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            Operation.Kind kind = operations.get(i).kind();
+            long sameKind = operations.stream().filter(operation -> operation.kind() == kind).count();
+            total += (double) config.mix().get(kind) / sameKind;
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    LoadReport run() {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+
+        List<McpAsyncClient> clients = Flux.range(0, config.clients())
+                .flatMap(i -> connect())
+                .collectList()
+                .block();
+        try {
+            log.info("Warming up {} clients for {}", clients.size(), config.warmup());
+            drive(clients, config.warmup(), null).block();
+
+            log.info("Measuring {} clients for {}", clients.size(), config.duration());
+            LoadReport report = new LoadReport(config);
+            report.start();
+            drive(clients, config.duration(), report).block();
+            report.stop();
+            return report;
+        } finally {
+            Flux.fromIterable(clients)
+                    .flatMap(McpAsyncClient::closeGracefully)
+                    .onErrorResume(e -> Mono.empty())
+                    .blockLast();
+        }
+    }
+
+    private Mono<McpAsyncClient> connect() {
+        McpAsyncClient client = McpClient.async(WebFluxSseClientTransport.builder(WebClient.builder().baseUrl(baseUrl))
+                .build())
+                .requestTimeout(REQUEST_TIMEOUT)
+                .build();
+        return client.initialize().thenReturn(client);
+    }
+
+    /**
+     * @param report the report recording the calls, or {@code null} during
+     *               the warmup
+     */
+    private Mono<Void> drive(List<McpAsyncClient> clients, Duration duration, LoadReport report) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        return Flux.fromIterable(clients)
+                .flatMap(client -> Mono.defer(() -> call(client, pick(), report))
+                        .repeat(() -> System.nanoTime() < deadline), clients.size())
+                .then();
+    }
+
+    private Mono<Void> call(McpAsyncClient client, Operation operation, LoadReport report) {
+        long start = System.nanoTime();
+        return client.callTool(new McpSchema.CallToolRequest(operation.tool(), operation.arguments().next(config)))
+                .map(result -> !Boolean.TRUE.equals(result.isError()))
+                .onErrorResume(e -> {
+                    log.debug("{} failed: {}", operation.name(), e.getMessage());
+                    return Mono.just(false);
+                })
+                .doOnNext(success -> {
+                    if (report != null) {
+                        report.record(operation.name(), System.nanoTime() - start, success);
+                    }
+                })
+                .then();
+    }
+
+    private Operation pick() {
+        double value = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+}
@@ -0,0 +1,280 @@
+package com.mcp.dbs.load;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mcp.dbs.converter.ReactorConverter;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures a load test run: the latency and errors of each operation, and
+ * the heap and garbage collections of the JVM, which also hosts the server,
+ * the in-process Neo4j and the clients.
+ * <p>
+ * The report is written as JSON, under the label of the run, so that runs of
+ * different commits can be compared.
+ */
+@Slf4j
+class LoadReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final LoadTestConfig config;
+    private final Map<String, Latencies> operations = new ConcurrentHashMap<>();
+    private final Latencies pauses = new Latencies();
+    private final NotificationListener gcListener = this::collected;
+    private Instant startedAt;
+    private long start;
+    private long end;
+    private long heapBefore;
+    private long heapAfter;
+    private long collectionsBefore;
+    private long collectionTimeBefore;
+    private long collections;
+    private long collectionTime;
+
+    LoadReport(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    void start() {
+        System.gc();
+        heapBefore = usedHeap();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        collectionsBefore = collectorTotal(GarbageCollectorMXBean::getCollectionCount);
+        collectionTimeBefore = collectorTotal(GarbageCollectorMXBean::getCollectionTime);
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+            }
+        }
+        startedAt = Instant.now();
+        start = System.nanoTime();
+    }
+
+    void stop() {
+        end = System.nanoTime();
+        heapAfter = usedHeap();
+        collections = collectorTotal(GarbageCollectorMXBean::getCollectionCount) - collectionsBefore;
+        collectionTime = collectorTotal(GarbageCollectorMXBean::getCollectionTime) - collectionTimeBefore;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(gcListener);
+                } catch (Exception e) {
+                    log.debug("Failed to remove the GC listener of {}", collector.getName(), e);
+                }
+            }
+        }
+    }
+
+    void record(String operation, long nanos, boolean success) {
+        operations.computeIfAbsent(operation, k -> new Latencies()).record(nanos, success);
+    }
+
+    /**
+     * Writes the report under its label and as {@code latest.json}.
+     *
+     * @return the report file
+     */
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        byte[] json = ReactorConverter.OBJECT_MAPPER.writer()
+                .with(SerializationFeature.INDENT_OUTPUT)
+                .writeValueAsBytes(toMap());
+        Path file = directory.resolve(config.label() + "-" + FILE_TIMESTAMP.format(startedAt) + ".json");
+        Files.write(file, json);
+        Files.write(directory.resolve("latest.json"), json);
+        return file;
+    }
+
+    void log() {
+        double seconds = seconds();
+        log.info(String.format("%-24s %10s %8s %10s %10s %10s %10s", "operation", "calls", "errors", "ops/s",
+                "p50 ms", "p99 ms", "p99.9 ms"));
+        new TreeMap<>(operations).forEach((name, latencies) -> log.info(String.format(
+                "%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f", name, latencies.count(), latencies.errors(),
+                latencies.count() / seconds, latencies.percentile(0.5), latencies.percentile(0.99),
+                latencies.percentile(0.999))));
+        log.info(String.format("heap %d MB -> %d MB (peak %d MB), %d collections, %d ms in GC, max pause %.2f ms",
+                heapBefore >> 20, heapAfter >> 20, peakHeap() >> 20, collections, collectionTime,
+                pauses.percentile(1)));
+    }
+
+    private Map<String, Object> toMap() {
+        double seconds = seconds();
+        Latencies all = new Latencies();
+        Map<String, Object> byOperation = new TreeMap<>();
+        operations.forEach((name, latencies) -> {
+            all.add(latencies);
+            byOperation.put(name, latencies.toMap(seconds));
+        });
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("clients", config.clients());
+        settings.put("warmup", config.warmup().toString());
+        settings.put("duration", config.duration().toString());
+        settings.put("rows", config.rows());
+        settings.put("nodes", config.nodes());
+        settings.put("relationshipsPerNode", config.relationshipsPerNode());
+        settings.put("mix", config.mix());
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("usedBeforeBytes", heapBefore);
+        heap.put("usedAfterBytes", heapAfter);
+        heap.put("peakBytes", peakHeap());
+        heap.put("maxBytes", Runtime.getRuntime().maxMemory());
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", collections);
+        gc.put("timeMs", collectionTime);
+        gc.put("pauses", pauses.count());
+        gc.put("pauseP50Ms", pauses.percentile(0.5));
+        gc.put("pauseP99Ms", pauses.percentile(0.99));
+        gc.put("pauseMaxMs", pauses.percentile(1));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.label());
+        report.put("startedAt", startedAt.toString());
+        report.put("java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", settings);
+        report.put("total", all.toMap(seconds));
+        report.put("operations", byOperation);
+        report.put("heap", heap);
+        report.put("gc", gc);
+        return report;
+    }
+
+    /**
+     * Records the pauses reported by the collectors; the beans of concurrent
+     * cycles (ZGC, Shenandoah) report cycles rather than pauses and are left
+     * out.
+     */
+    private void collected(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                .from((CompositeData) notification.getUserData());
+        if (!info.getGcName().contains("Cycles")) {
+            pauses.record(info.getGcInfo().getDuration() * 1_000_000L, true);
+        }
+    }
+
+    private double seconds() {
+        return Math.max(1, end - start) / 1e9;
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long peakHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    private static long collectorTotal(ToLongFunction<GarbageCollectorMXBean> value) {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(value)
+                .filter(v -> v > 0)
+                .sum();
+    }
+
+    /**
+     * Latencies in nanoseconds, kept in full so that the percentiles are
+     * exact.
+     */
+    private static class Latencies {
+
+        private long[] values = new long[1024];
+        private int count;
+        private long errors;
+        private long[] sorted;
+
+        synchronized void record(long nanos, boolean success) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+            sorted = null;
+        }
+
+        synchronized void add(Latencies other) {
+            long[] copy;
+            long otherErrors;
+            synchronized (other) {
+                copy = Arrays.copyOf(other.values, other.count);
+                otherErrors = other.errors;
+            }
+            for (long value : copy) {
+                record(value, true);
+            }
+            errors += otherErrors;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        /**
+         * @return the percentile in milliseconds, 0 without values
+         */
+        synchronized double percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (sorted == null) {
+                sorted = Arrays.copyOf(values, count);
+                Arrays.sort(sorted);
+            }
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+
+        Map<String, Object> toMap(double seconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", count());
+            map.put("errors", errors());
+            map.put("throughput", count() / seconds);
+            map.put("p50Ms", percentile(0.5));
+            map.put("p99Ms", percentile(0.99));
+            map.put("p999Ms", percentile(0.999));
+            map.put("maxMs", percentile(1));
+            return map;
+        }
+    }
+}
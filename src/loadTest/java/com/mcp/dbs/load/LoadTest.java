@@ -0,0 +1,45 @@
+package com.mcp.dbs.load;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.mcp.dbs.DbsApplication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Boots the server against local stand-ins of its databases, drives it with
+ * concurrent MCP clients and writes a report of the run.
+ * <p>
+ * Run with {@code ./gradlew loadTest}; the {@code load.*} Gradle properties
+ * configure the run (see {@link LoadTestConfig}), and the server is
+ * configured as usual, for example with environment variables.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (StandIns standIns = new StandIns(config)) {
+            Map<String, Object> properties = new HashMap<>(standIns.properties());
+            properties.put("server.port", 0);
+            properties.put("client.read.enabled", true);
+            properties.put("client.write.enabled", true);
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DbsApplication.class)
+                    .properties(properties)
+                    .run(args)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadReport report = new LoadDriver("http://localhost:" + port, config).run();
+                report.log();
+                Path file = report.write(config.reportDirectory());
+                log.info("Load test report written to {}", file);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mcp.dbs.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from the {@code load.*} system
+ * properties.
+ *
+ * @param clients              the number of concurrent simulated clients
+ * @param warmup               how long the clients run before measuring
+ * @param duration             how long the clients are measured
+ * @param rows                 the number of rows seeded in PostgreSQL
+ * @param nodes                the number of nodes seeded in Neo4j
+ * @param relationshipsPerNode the number of relationships seeded per node
+ * @param mix                  the relative weight of each operation
+ * @param reportDirectory      where the report is written
+ * @param label                identifies the run in the report, typically
+ *                             the commit
+ */
+record LoadTestConfig(int clients, Duration warmup, Duration duration, int rows, int nodes,
+        int relationshipsPerNode, Map<Operation.Kind, Integer> mix, Path reportDirectory, String label) {
+
+    static LoadTestConfig fromSystemProperties() {
+        Map<Operation.Kind, Integer> mix = new LinkedHashMap<>();
+        mix.put(Operation.Kind.SCHEMA, Integer.getInteger("load.mix.schema", 1));
+        mix.put(Operation.Kind.READ, Integer.getInteger("load.mix.read", 8));
+        mix.put(Operation.Kind.WRITE, Integer.getInteger("load.mix.write", 1));
+        return new LoadTestConfig(
+                Integer.getInteger("load.clients", 16),
+                Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                Integer.getInteger("load.rows", 100_000),
+                Integer.getInteger("load.nodes", 10_000),
+                Integer.getInteger("load.relationships-per-node", 5),
+                mix,
+                Path.of(System.getProperty("load.report-dir", "build/reports/load-test")),
+                System.getProperty("load.label", "local"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.mcp.dbs.load;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+import com.mcp.dbs.sql.utils.MySqlConstants;
+
+/**
+ * A tool call of the simulated clients, with arguments drawn at random from
+ * the seeded dataset.
+ */
+record Operation(String name, Kind kind, String tool, ArgumentSource arguments) {
+
+    enum Kind {
+        SCHEMA,
+        READ,
+        WRITE
+    }
+
+    interface ArgumentSource {
+        Map<String, Object> next(LoadTestConfig config);
+    }
+
+    static List<Operation> all() {
+        return List.of(
+                new Operation("sql.schema", Kind.SCHEMA, MySqlConstants.SCHEMA_TOOL, config -> Map.of()),
+                new Operation("neo4j.schema", Kind.SCHEMA, Neo4jConstants.SCHEMA_TOOL, config -> Map.of()),
+                new Operation("sql.read.point", Kind.READ, MySqlConstants.READ_TOOL, config -> Map.of(
+                        "query", "SELECT id, name, category, score, created_at FROM item WHERE id = :id",
+                        "parameters", Map.of("id", random(config.rows())))),
+                new Operation("sql.read.range", Kind.READ, MySqlConstants.READ_TOOL, config -> Map.of(
+                        "query", "SELECT id, name, score FROM item WHERE category = :category ORDER BY score DESC LIMIT 100",
+                        "parameters", Map.of("category", "category " + (random(20) - 1)))),
+                new Operation("neo4j.read.neighbours", Kind.READ, Neo4jConstants.READ_TOOL, config -> Map.of(
+                        "query", "MATCH (p:Person {id: $id})-[:KNOWS]->(f:Person) RETURN p.name AS name, f.name AS friend, f.age AS age",
+                        "parameters", Map.of("id", random(config.nodes())))),
+                new Operation("neo4j.read.paths", Kind.READ, Neo4jConstants.READ_TOOL, config -> Map.of(
+                        "query", "MATCH path = (p:Person {id: $id})-[:KNOWS*2]->(:Person) RETURN path LIMIT 50",
+                        "format", "graph",
+                        "parameters", Map.of("id", random(config.nodes())))),
+                new Operation("sql.write", Kind.WRITE, MySqlConstants.WRITE_TOOL, config -> Map.of(
+                        "query", "UPDATE item SET score = :score WHERE id = :id",
+                        "parameters", Map.of("id", random(config.rows()), "score", random(100)))),
+                new Operation("neo4j.write", Kind.WRITE, Neo4jConstants.WRITE_TOOL, config -> Map.of(
+                        "query", "MATCH (p:Person {id: $id}) SET p.visits = coalesce(p.visits, 0) + 1",
+                        "parameters", Map.of("id", random(config.nodes())))));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(Math.max(1, bound)) + 1;
+    }
+}
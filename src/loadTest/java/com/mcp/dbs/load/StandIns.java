@@ -0,0 +1,109 @@
+package com.mcp.dbs.load;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local stand-ins for the databases: an embedded PostgreSQL server, started
+ * from the binaries bundled with the library, and an in-process Neo4j. Both
+ * are seeded with a dataset of the configured size.
+ */
+@Slf4j
+class StandIns implements AutoCloseable {
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private final EmbeddedPostgres postgres;
+    private final Neo4j neo4j;
+
+    StandIns(LoadTestConfig config) throws IOException, SQLException {
+        log.info("Starting PostgreSQL and Neo4j stand-ins");
+        postgres = EmbeddedPostgres.builder().start();
+        neo4j = Neo4jBuilders.newInProcessBuilder()
+                .withDisabledServer()
+                .build();
+        seedPostgres(config.rows());
+        seedNeo4j(config.nodes(), config.relationshipsPerNode());
+    }
+
+    /**
+     * The properties connecting the server to the stand-ins.
+     */
+    Map<String, Object> properties() {
+        return Map.of(
+                "spring.r2dbc.url", "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                "spring.r2dbc.username", "postgres",
+                "spring.r2dbc.password", "postgres",
+                "spring.neo4j.uri", neo4j.boltURI().toString());
+    }
+
+    private void seedPostgres(int rows) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE item (
+                        id bigint PRIMARY KEY,
+                        name text NOT NULL,
+                        category text NOT NULL,
+                        score double precision NOT NULL,
+                        created_at timestamp NOT NULL
+                    )""");
+            try (PreparedStatement insert = connection.prepareStatement("""
+                    INSERT INTO item
+                    SELECT g, 'item ' || g, 'category ' || (g % 20), random() * 100, now() - g * interval '1 minute'
+                    FROM generate_series(1, ?) g""")) {
+                insert.setInt(1, rows);
+                insert.execute();
+            }
+            statement.execute("CREATE INDEX item_category ON item (category)");
+            statement.execute("ANALYZE item");
+        }
+        log.info("Seeded PostgreSQL with {} rows", rows);
+    }
+
+    /**
+     * Seeded in chunks: the in-process database only runs explicit
+     * transactions, which cannot batch themselves.
+     */
+    private void seedNeo4j(int nodes, int relationshipsPerNode) {
+        GraphDatabaseService database = neo4j.defaultDatabaseService();
+        database.executeTransactionally("CREATE INDEX person_id FOR (p:Person) ON (p.id)");
+        database.executeTransactionally("CALL db.awaitIndexes()");
+        for (int from = 1; from <= nodes; from += SEED_CHUNK) {
+            Map<String, Object> chunk = Map.of("from", from, "to", Math.min(nodes, from + SEED_CHUNK - 1),
+                    "nodes", nodes, "degree", relationshipsPerNode);
+            database.executeTransactionally("""
+                    UNWIND range($from, $to) AS i
+                    CREATE (:Person {id: i, name: 'person ' + i, age: i % 80})
+                    """, chunk);
+        }
+        for (int from = 1; from <= nodes; from += SEED_CHUNK) {
+            Map<String, Object> chunk = Map.of("from", from, "to", Math.min(nodes, from + SEED_CHUNK - 1),
+                    "nodes", nodes, "degree", relationshipsPerNode);
+            database.executeTransactionally("""
+                    MATCH (a:Person) WHERE $from <= a.id <= $to
+                    UNWIND range(1, $degree) AS k
+                    MATCH (b:Person {id: toInteger(rand() * $nodes) + 1})
+                    CREATE (a)-[:KNOWS {since: 2000 + k}]->(b)
+                    """, chunk);
+        }
+        log.info("Seeded Neo4j with {} nodes and {} relationships per node", nodes, relationshipsPerNode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        neo4j.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.mcp.dbs.admission;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.config.AdmissionConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admits the tool invocations of each datasource under the configured limits.
+ * <p>
+ * An invocation first takes a permit of its tool, then one of its datasource;
+ * when all the permits are taken it waits in a bounded queue, and is rejected
+ * at once when the queue is full. Admitted invocations run with the statement
+ * timeout of their tool in the Reactor context, which the SQL connections and
+ * the Neo4j transactions enforce on the server; a statement that has not
+ * produced anything by then is also given up on the client side.
+ * <p>
+ * Meters: {@code dbs.admission.active}, {@code dbs.admission.queued} and
+ * {@code dbs.admission.rejected}, tagged by datasource and tool ({@code all}
+ * for the datasource limit).
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+
+    private static final String ALL_TOOLS = "all";
+
+    private final AdmissionConfig config;
+    private final MeterRegistry registry;
+
+    private final Map<String, Limiter> datasources = new ConcurrentHashMap<>();
+    private final Map<String, Limiter> tools = new ConcurrentHashMap<>();
+
+    public <T> Flux<T> admit(String tool, String datasource, Flux<T> source) {
+        if (!config.isEnabled()) {
+            return source;
+        }
+
+        Duration timeout = config.getStatementTimeout(tool);
+        Flux<T> timed = source;
+        if (timeout.isPositive()) {
+            timed = source
+                    .timeout(Mono.delay(timeout), first -> Mono.never())
+                    .onErrorMap(TimeoutException.class, e -> new IllegalStateException(
+                            "The query did not complete within " + timeout.toMillis() + " ms.", e));
+        }
+        // the timeout is a session setting of pooled connections: always set
+        // it, so that a tool without one does not inherit that of another
+        return timed
+                .contextWrite(StatementTimeout.with(timeout.isPositive() ? timeout : Duration.ZERO))
+                .transform(datasource(datasource)::admit)
+                .transform(tool(tool, datasource)::admit);
+    }
+
+    private Limiter datasource(String datasource) {
+        return datasources.computeIfAbsent(datasource,
+                k -> limiter(datasource, ALL_TOOLS, config.getMaxConcurrent(), config.getMaxQueued()));
+    }
+
+    private Limiter tool(String tool, String datasource) {
+        return tools.computeIfAbsent(tool,
+                k -> limiter(datasource, tool, config.getMaxConcurrent(tool), config.getMaxQueued(tool)));
+    }
+
+    private Limiter limiter(String datasource, String tool, int maxConcurrent, int maxQueued) {
+        Tags tags = Tags.of("datasource", datasource, "tool", tool);
+        Limiter limiter = new Limiter(datasource, maxConcurrent, maxQueued, Counter.builder("dbs.admission.rejected")
+                .description("Tool invocations rejected because the wait queue was full")
+                .tags(tags)
+                .register(registry));
+        Gauge.builder("dbs.admission.active", limiter, Limiter::active)
+                .description("Tool invocations running")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("dbs.admission.queued", limiter, Limiter::queued)
+                .description("Tool invocations waiting for a permit")
+                .tags(tags)
+                .register(registry);
+        return limiter;
+    }
+}
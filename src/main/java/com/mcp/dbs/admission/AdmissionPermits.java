@@ -0,0 +1,49 @@
+package com.mcp.dbs.admission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Admission permits held by a tool invocation, carried in the Reactor
+ * context so that what outlives the invocation while holding a connection
+ * or session, such as an open cursor, keeps them until it is closed.
+ */
+public final class AdmissionPermits {
+
+    private AdmissionPermits() {
+    }
+
+    /**
+     * Keeps the permits of the context, which are otherwise released when the
+     * invocation completes.
+     *
+     * @return releases them, at most once
+     */
+    public static Runnable retain(ContextView context) {
+        List<Permit> permits = context.getOrDefault(AdmissionPermits.class, List.of());
+        permits.forEach(Permit::retain);
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.forEach(Permit::release);
+            }
+        };
+    }
+
+    static Context with(Context context, Permit permit) {
+        List<Permit> permits = new ArrayList<>(context.getOrDefault(AdmissionPermits.class, List.of()));
+        permits.add(permit);
+        return context.put(AdmissionPermits.class, List.copyOf(permits));
+    }
+
+    interface Permit {
+
+        void retain();
+
+        void release();
+    }
+}
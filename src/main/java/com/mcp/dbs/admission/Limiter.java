@@ -0,0 +1,118 @@
+package com.mcp.dbs.admission;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import io.micrometer.core.instrument.Counter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Concurrency limit with a bounded wait queue.
+ * <p>
+ * The permit belongs to the ticket of the admitted publisher rather than to a
+ * signal, and every ticket state change happens under the lock, so a
+ * publisher cancelled while it is queued or just as it is granted a permit
+ * never leaks it. The permit is handed to the publisher through its context
+ * ({@link AdmissionPermits}), and is only released once the publisher and
+ * everything that retained it are done.
+ */
+class Limiter {
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Counter rejected;
+
+    private final Deque<Ticket> queue = new ArrayDeque<>();
+    private int active;
+
+    Limiter(String name, int maxConcurrent, int maxQueued, Counter rejected) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.rejected = rejected;
+    }
+
+    <T> Flux<T> admit(Flux<T> source) {
+        return Flux.defer(() -> {
+            Ticket ticket = new Ticket();
+            boolean running = false;
+            synchronized (this) {
+                if (active < maxConcurrent) {
+                    active++;
+                    ticket.state = RUNNING;
+                    running = true;
+                } else if (queue.size() < maxQueued) {
+                    queue.add(ticket);
+                } else {
+                    rejected.increment();
+                    return Flux.error(new IllegalStateException(
+                            "Too many queries running on " + name + ", try again later."));
+                }
+            }
+
+            Flux<T> run = running ? source : ticket.granted.asMono().thenMany(source);
+            return run.doFinally(signal -> ticket.release())
+                    .contextWrite(context -> AdmissionPermits.with(context, ticket));
+        });
+    }
+
+    synchronized int active() {
+        return active;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    private void leave(Ticket ticket) {
+        Ticket next = null;
+        synchronized (this) {
+            if (ticket.state == QUEUED) {
+                queue.remove(ticket);
+            } else if (ticket.state == RUNNING) {
+                next = queue.poll();
+                if (next != null) {
+                    next.state = RUNNING;
+                } else {
+                    active--;
+                }
+            }
+            ticket.state = DONE;
+        }
+
+        if (next != null) {
+            next.granted.tryEmitEmpty();
+        }
+    }
+
+    private class Ticket implements AdmissionPermits.Permit {
+        private final Sinks.Empty<Void> granted = Sinks.empty();
+        private int state = QUEUED;
+        private int holders = 1;
+
+        @Override
+        public void retain() {
+            synchronized (Limiter.this) {
+                if (state == RUNNING) {
+                    holders++;
+                }
+            }
+        }
+
+        @Override
+        public void release() {
+            synchronized (Limiter.this) {
+                if (--holders > 0) {
+                    return;
+                }
+            }
+            leave(this);
+        }
+    }
+}
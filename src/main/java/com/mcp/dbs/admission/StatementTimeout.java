@@ -0,0 +1,26 @@
+package com.mcp.dbs.admission;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Timeout of the statements run by a tool, carried in the Reactor context
+ * down to the connections and transactions that enforce it on the server.
+ * {@link Duration#ZERO} is no timeout.
+ */
+public final class StatementTimeout {
+
+    private StatementTimeout() {
+    }
+
+    public static Context with(Duration timeout) {
+        return Context.of(StatementTimeout.class, timeout);
+    }
+
+    public static Optional<Duration> of(ContextView context) {
+        return context.getOrEmpty(StatementTimeout.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.mcp.dbs.budget;
+
+import java.util.function.LongSupplier;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Row and byte budget of a single tool result, put in the Reactor context by
+ * the result converter and enforced by {@link ResultBudgets} as the rows are
+ * emitted.
+ * <p>
+ * Bytes are measured on the JSON written so far, so a row is only refused
+ * once the rows before it have used up the budget: the result may exceed
+ * the byte budget by the size of its last row. Output written after the
+ * rows, such as the nodes of a graph result, is charged as it is produced.
+ */
+@Getter
+public class ResultBudget {
+
+    public static final String ROWS = "rows";
+    public static final String BYTES = "bytes";
+
+    @Getter(AccessLevel.NONE)
+    private final LongSupplier written;
+
+    private long maxRows;
+    private long maxBytes;
+    private long rows;
+    @Getter(AccessLevel.NONE)
+    private long charged;
+    private String reason;
+
+    public ResultBudget(LongSupplier written) {
+        this.written = written;
+    }
+
+    /**
+     * Budget of a result collected before it is written, whose bytes are
+     * only those charged to it.
+     */
+    public ResultBudget() {
+        this(() -> 0);
+    }
+
+    public boolean isTruncated() {
+        return reason != null;
+    }
+
+    public long getBytes() {
+        return written.getAsLong();
+    }
+
+    /**
+     * Counts bytes that will be written after the rows against the budget.
+     */
+    public void charge(long bytes) {
+        charged += bytes;
+    }
+
+    void limit(long maxRows, long maxBytes) {
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Counts a row against the budget.
+     *
+     * @return whether the row fits, {@code false} once the budget is used up
+     */
+    boolean admit() {
+        if (maxRows > 0 && rows >= maxRows) {
+            reason = ROWS;
+        } else if (maxBytes > 0 && written.getAsLong() + charged >= maxBytes) {
+            reason = BYTES;
+        } else {
+            rows++;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mcp.dbs.budget;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mcp.dbs.config.ResultBudgetConfig;
+import com.mcp.dbs.converter.ReactorConverter;
+import com.mcp.dbs.query.StatementClassification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * Enforces the row and byte budgets of the tools streaming query results.
+ * <p>
+ * The first row over budget cancels the subscription to the driver, which
+ * stops the query on the server instead of draining it, and the converter
+ * reports the result as truncated. When the query can be limited safely the
+ * row budget is also pushed down into it, so that the database does not
+ * produce more rows than can be returned.
+ * <p>
+ * Meter: {@code dbs.tool.truncated}, tagged by tool and reason.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResultBudgets {
+
+    private final ResultBudgetConfig config;
+    private final MeterRegistry registry;
+
+    /**
+     * Limits the rows of a tool result to its budget. Results that are not
+     * converted by the result converter are not limited.
+     */
+    public <T> Flux<T> limit(String tool, Flux<T> rows) {
+        if (!config.isEnabled()) {
+            return rows;
+        }
+
+        return Flux.deferContextual(context -> context.<ResultBudget>getOrEmpty(ResultBudget.class)
+                .map(budget -> admit(tool, budget, rows))
+                .orElse(rows));
+    }
+
+    /**
+     * Limits the rows of one query of a batch to the budget of the tool.
+     * Batch results are collected before they are written, so each query
+     * has a budget of its own, reported with its result, to which the JSON
+     * size of the rows it admits is charged.
+     */
+    public Flux<Map<String, Object>> limit(String tool, ResultBudget budget, Flux<Map<String, Object>> rows) {
+        if (!config.isEnabled()) {
+            return rows;
+        }
+        return admit(tool, budget, rows).doOnNext(row -> {
+            if (budget.getMaxBytes() > 0) {
+                budget.charge(size(row));
+            }
+        });
+    }
+
+    private <T> Flux<T> admit(String tool, ResultBudget budget, Flux<T> rows) {
+        budget.limit(config.getMaxRows(tool), config.getMaxBytes(tool));
+        return rows.takeWhile(row -> {
+            if (budget.admit()) {
+                return true;
+            }
+            truncated(tool, budget.getReason());
+            return false;
+        });
+    }
+
+    /**
+     * The query with a {@code LIMIT} of one row more than the row budget of
+     * the tool, so that the budget can still tell a truncated result from a
+     * complete one.
+     */
+    public String pushDown(String tool, String query, StatementClassification classification) {
+        long maxRows = config.getMaxRows(tool);
+        if (!config.isEnabled() || !config.isLimitPushdown() || maxRows <= 0) {
+            return query;
+        }
+        return classification.withLimit(query, maxRows + 1);
+    }
+
+    private static long size(Object row) {
+        try {
+            // one more byte for the separator
+            return ReactorConverter.OBJECT_MAPPER.writeValueAsBytes(row).length + 1;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void truncated(String tool, String reason) {
+        Counter.builder("dbs.tool.truncated")
+                .description("Tool results truncated to their row or byte budget")
+                .tag("tool", tool)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,258 @@
+package com.mcp.dbs.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.config.ResultCacheConfig;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Bounded cache of read query results, keyed by datasource, query tokens
+ * (see {@link QueryNormalizer#compact}) and parameter values.
+ * <p>
+ * Results are still streamed to the caller while they are loaded and are only
+ * stored when they fit in the configured row limit. Identical queries issued
+ * while one is running wait for it instead of hitting the database.
+ * A write invalidates every result of its datasource. With table scoping
+ * enabled, tables are tracked per entry so that writes only invalidate what
+ * they name; an empty table set means "unknown" and matches every write.
+ * Scoping is unsafe with cascading foreign keys, triggers and views, whose
+ * tables the statements do not name.
+ */
+@Slf4j
+@Component
+public class QueryResultCache {
+
+    private final ResultCacheConfig config;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, Sinks.One<Optional<List<Map<String, Object>>>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private long bytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    public QueryResultCache(ResultCacheConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+        this.coalesced = requests(registry, "coalesced");
+        this.evictions = Counter.builder("dbs.query.cache.evictions")
+                .description("Read query results evicted from the cache")
+                .register(registry);
+        Gauge.builder("dbs.query.cache.entries", this, QueryResultCache::size)
+                .description("Read query results held in the cache")
+                .register(registry);
+        Gauge.builder("dbs.query.cache.size", this, QueryResultCache::bytes)
+                .description("Estimated heap used by the cached read query results")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public Flux<Map<String, Object>> get(String datasource, QueryNormalizer normalizer, String query,
+            Set<String> tables, Supplier<Flux<Map<String, Object>>> loader) {
+        return get(datasource, normalizer, query, null, tables, loader);
+    }
+
+    public Flux<Map<String, Object>> get(String datasource, QueryNormalizer normalizer, String query,
+            Map<String, Object> parameters, Set<String> tables, Supplier<Flux<Map<String, Object>>> loader) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+
+        return Flux.defer(() -> {
+            Key key = new Key(datasource, normalizer.compact(query), parameters == null ? Map.of() : parameters);
+
+            List<Map<String, Object>> cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return Flux.fromIterable(cached);
+            }
+
+            Sinks.One<Optional<List<Map<String, Object>>>> flight = Sinks.one();
+            Sinks.One<Optional<List<Map<String, Object>>>> leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                coalesced.increment();
+                return leader.asMono()
+                        .flatMapMany(result -> result.<Flux<Map<String, Object>>>map(Flux::fromIterable)
+                                .orElseGet(() -> Flux.defer(loader)));
+            }
+
+            misses.increment();
+            return load(key, tables, flight, loader.get());
+        });
+    }
+
+    public void invalidate(String datasource, Set<String> tables) {
+        generation(datasource).incrementAndGet();
+
+        synchronized (this) {
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry> cached = iterator.next();
+                if (cached.getKey().datasource().equals(datasource)
+                        && (!config.isTableScoped() || cached.getValue().touches(tables))) {
+                    bytes -= cached.getValue().size();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private Flux<Map<String, Object>> load(Key key, Set<String> tables,
+            Sinks.One<Optional<List<Map<String, Object>>>> flight, Flux<Map<String, Object>> source) {
+        long generation = generation(key.datasource()).get();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        AtomicBoolean cacheable = new AtomicBoolean(true);
+
+        return source
+                .doOnNext(row -> {
+                    if (!cacheable.get()) {
+                        return;
+                    }
+                    if (rows.size() < config.getMaxRows()) {
+                        rows.add(row);
+                    } else {
+                        cacheable.set(false);
+                        rows.clear();
+                    }
+                })
+                .doOnComplete(() -> {
+                    List<Map<String, Object>> result = cacheable.get() ? Collections.unmodifiableList(rows) : null;
+                    if (result != null) {
+                        put(key, new Entry(result, tables, estimateSize(result), System.nanoTime()), generation);
+                    }
+                    inFlight.remove(key, flight);
+                    flight.tryEmitValue(Optional.ofNullable(result));
+                })
+                .doOnError(e -> {
+                    inFlight.remove(key, flight);
+                    flight.tryEmitError(e);
+                })
+                .doOnCancel(() -> {
+                    inFlight.remove(key, flight);
+                    flight.tryEmitValue(Optional.empty());
+                });
+    }
+
+    private synchronized List<Map<String, Object>> lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAt() > config.getTtl().toNanos()) {
+            entries.remove(key);
+            bytes -= entry.size();
+            return null;
+        }
+        return entry.rows();
+    }
+
+    private synchronized void put(Key key, Entry entry, long generation) {
+        if (generation(key.datasource()).get() != generation || entry.size() > config.getMaxBytes()) {
+            return;
+        }
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += entry.size();
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > config.getMaxEntries() || bytes > config.getMaxBytes())) {
+            bytes -= eldest.next().size();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long bytes() {
+        return bytes;
+    }
+
+    private AtomicLong generation(String datasource) {
+        return generations.computeIfAbsent(datasource, k -> new AtomicLong());
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("dbs.query.cache.requests")
+                .description("Read queries looked up in the cache")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Rough estimate of the heap retained by a result, good enough to bound
+     * the cache without serializing the rows.
+     */
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 8;
+        }
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof byte[] data) {
+            return 16 + data.length;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += 32 + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 40;
+            for (Object element : collection) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 16;
+        }
+        return 64;
+    }
+
+    private record Key(String datasource, String query, Map<String, Object> parameters) {
+    }
+
+    private record Entry(List<Map<String, Object>> rows, Set<String> tables, long size, long storedAt) {
+
+        boolean touches(Set<String> written) {
+            if (written == null || written.isEmpty() || tables.isEmpty()) {
+                return true;
+            }
+            return tables.stream().anyMatch(written::contains);
+        }
+    }
+}
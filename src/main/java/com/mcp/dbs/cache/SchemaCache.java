@@ -0,0 +1,99 @@
+package com.mcp.dbs.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory snapshot of the schema of a single datasource.
+ * <p>
+ * A snapshot is served as is until its TTL expires; after that the cheap
+ * catalog fingerprint is compared with the one taken when the snapshot was
+ * loaded and the full introspection only runs if they differ. Concurrent
+ * callers during a refresh share the same in-flight load.
+ */
+@Slf4j
+public class SchemaCache<T> {
+
+    private final String datasource;
+    private final boolean enabled;
+    private final long ttlNanos;
+
+    private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>();
+    private final AtomicReference<Mono<T>> inFlight = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public SchemaCache(String datasource, boolean enabled, Duration ttl) {
+        this.datasource = datasource;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Mono<T> get(Mono<T> loader, Mono<String> fingerprint) {
+        if (!enabled) {
+            return loader;
+        }
+
+        return Mono.defer(() -> {
+            Snapshot<T> current = snapshot.get();
+            if (current != null && System.nanoTime() - current.loadedAt() < ttlNanos) {
+                log.debug("Serving cached {} schema", datasource);
+                return Mono.just(current.value());
+            }
+            return refresh(current, loader, fingerprint);
+        });
+    }
+
+    public void invalidate() {
+        log.debug("Invalidating cached {} schema", datasource);
+        generation.incrementAndGet();
+        snapshot.set(null);
+        inFlight.set(null);
+    }
+
+    private Mono<T> refresh(Snapshot<T> current, Mono<T> loader, Mono<String> fingerprint) {
+        Mono<T> existing = inFlight.get();
+        if (existing != null) {
+            return existing;
+        }
+
+        long loadGeneration = generation.get();
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> load = fingerprint
+                .onErrorResume(e -> {
+                    log.warn("Unable to fingerprint {} catalog, reloading schema: {}", datasource, e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty("")
+                .flatMap(print -> {
+                    if (current != null && !print.isEmpty() && print.equals(current.fingerprint())) {
+                        log.debug("{} catalog unchanged, revalidated cached schema", datasource);
+                        store(loadGeneration, current.value(), print);
+                        return Mono.just(current.value());
+                    }
+                    log.debug("Loading {} schema", datasource);
+                    return loader.doOnNext(value -> store(loadGeneration, value, print));
+                })
+                .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                .cache();
+        self.set(load);
+
+        if (!inFlight.compareAndSet(null, load)) {
+            Mono<T> winner = inFlight.get();
+            return winner != null ? winner : load;
+        }
+        return load;
+    }
+
+    private void store(long loadGeneration, T value, String fingerprint) {
+        if (generation.get() == loadGeneration) {
+            snapshot.set(new Snapshot<>(value, fingerprint, System.nanoTime()));
+        }
+    }
+
+    private record Snapshot<T>(T value, String fingerprint, long loadedAt) {
+    }
+}
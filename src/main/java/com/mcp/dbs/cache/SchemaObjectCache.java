@@ -0,0 +1,101 @@
+package com.mcp.dbs.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Descriptions of the individual objects of a schema (tables, labels,
+ * relationship types), loaded on demand and kept until their TTL expires or
+ * the schema changes.
+ * <p>
+ * Unlike {@link SchemaCache} the whole schema is never loaded: a lookup only
+ * loads the objects that are not cached yet, with one call to the loader.
+ * Objects that do not exist are cached as such, and an object may have
+ * several descriptions (a relationship type between several pairs of labels).
+ */
+@Slf4j
+public class SchemaObjectCache<T> {
+
+    private final String datasource;
+    private final boolean enabled;
+    private final long ttlNanos;
+
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public SchemaObjectCache(String datasource, boolean enabled, Duration ttl) {
+        this.datasource = datasource;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * The descriptions of the named objects, in the order of the names.
+     *
+     * @param loader loads the descriptions of a list of objects
+     * @param nameOf the name of the object a description belongs to
+     */
+    public Mono<List<T>> get(List<String> names, Function<List<String>, Flux<T>> loader, Function<T, String> nameOf) {
+        if (!enabled) {
+            return loader.apply(names).collectList();
+        }
+
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Map<String, List<T>> found = new LinkedHashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String name : names) {
+                Entry<T> entry = entries.get(name);
+                if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                    found.put(name, entry.values());
+                } else if (!missing.contains(name)) {
+                    missing.add(name);
+                }
+            }
+            if (missing.isEmpty()) {
+                return Mono.just(ordered(names, found));
+            }
+
+            log.debug("Loading {} {} schema objects", missing.size(), datasource);
+            long loadGeneration = generation.get();
+            return loader.apply(missing)
+                    .collectList()
+                    .map(loaded -> {
+                        Map<String, List<T>> byName = new LinkedHashMap<>();
+                        missing.forEach(name -> byName.put(name, new ArrayList<>()));
+                        loaded.forEach(value -> byName.computeIfAbsent(nameOf.apply(value), k -> new ArrayList<>())
+                                .add(value));
+                        if (generation.get() == loadGeneration) {
+                            byName.forEach((name, values) -> entries.put(name, new Entry<>(values, now)));
+                        }
+                        found.putAll(byName);
+                        return ordered(names, found);
+                    });
+        });
+    }
+
+    public void invalidate() {
+        log.debug("Invalidating cached {} schema objects", datasource);
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private static <T> List<T> ordered(List<String> names, Map<String, List<T>> values) {
+        List<T> result = new ArrayList<>();
+        names.stream().distinct().forEach(name -> result.addAll(values.getOrDefault(name, List.of())));
+        return result;
+    }
+
+    private record Entry<T>(List<T> values, long loadedAt) {
+    }
+}
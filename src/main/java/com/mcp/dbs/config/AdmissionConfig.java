@@ -0,0 +1,76 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+import com.mcp.dbs.sql.utils.MySqlConstants;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Limits of the admission controller. The per-datasource limits apply to all
+ * the tools of a datasource together; each tool can be given its own limits
+ * with {@code client.admission.tool.<tool>.*}, where {@code <tool>} is the
+ * tool name in lower case with dashes, e.g.
+ * {@code client.admission.tool.execute-mysql-read-query.timeout=10s}.
+ * A timeout of 0 is unlimited.
+ */
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionConfig {
+
+    @NonNull
+    private final Environment environment;
+
+    @Getter
+    @Value("${client.admission.enabled:true}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.admission.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Getter
+    @Value("${client.admission.max-queued:64}")
+    private int maxQueued;
+
+    @Getter
+    @Value("${client.admission.statement-timeout:30s}")
+    private Duration statementTimeout;
+
+    /**
+     * Default timeout of the tools exporting a result or paging through it
+     * with a cursor, whose statement runs as long as the whole result is
+     * read.
+     */
+    @Getter
+    @Value("${client.admission.streaming-statement-timeout:30m}")
+    private Duration streamingStatementTimeout;
+
+    public int getMaxConcurrent(String tool) {
+        return environment.getProperty(toolProperty(tool, "max-concurrent"), Integer.class, maxConcurrent);
+    }
+
+    public int getMaxQueued(String tool) {
+        return environment.getProperty(toolProperty(tool, "max-queued"), Integer.class, maxQueued);
+    }
+
+    public Duration getStatementTimeout(String tool) {
+        boolean streaming = MySqlConstants.STREAMING_TOOLS.contains(tool) || Neo4jConstants.STREAMING_TOOLS.contains(tool);
+        return environment.getProperty(toolProperty(tool, "timeout"), Duration.class,
+                streaming ? streamingStatementTimeout : statementTimeout);
+    }
+
+    private static String toolProperty(String tool, String name) {
+        return "client.admission.tool." + tool.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-") + "." + name;
+    }
+}
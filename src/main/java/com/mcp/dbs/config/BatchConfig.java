@@ -0,0 +1,30 @@
+package com.mcp.dbs.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class BatchConfig {
+
+    @Getter
+    @Value("${client.batch.parallelism:4}")
+    private int parallelism;
+
+    @Getter
+    @Value("${client.batch.max-queries:50}")
+    private int maxQueries;
+
+    @Getter
+    @Value("${client.batch.write-chunk-size:500}")
+    private int writeChunkSize;
+
+    @Getter
+    @Value("${client.batch.max-parameter-sets:10000}")
+    private int maxParameterSets;
+}
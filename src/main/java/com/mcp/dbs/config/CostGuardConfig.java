@@ -0,0 +1,68 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.mcp.dbs.guard.GuardAction;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Thresholds of the cost guard, configured per datasource with
+ * {@code client.cost-guard.<datasource>.*}, e.g.
+ * {@code client.cost-guard.mysql.max-cost=100000}. A threshold of 0 is
+ * disabled; the actions are {@code ignore}, {@code warn} or {@code reject}.
+ */
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class CostGuardConfig {
+
+    @NonNull
+    private final Environment environment;
+
+    @Getter
+    @Value("${client.cost-guard.plan-cache-size:1000}")
+    private int planCacheSize;
+
+    @Getter
+    @Value("${client.cost-guard.plan-cache-ttl:10m}")
+    private Duration planCacheTtl;
+
+    public boolean isEnabled(String datasource) {
+        return environment.getProperty(property(datasource, "enabled"), Boolean.class, false);
+    }
+
+    public double getMaxCost(String datasource) {
+        return environment.getProperty(property(datasource, "max-cost"), Double.class, 0d);
+    }
+
+    public double getMaxRows(String datasource) {
+        return environment.getProperty(property(datasource, "max-rows"), Double.class, 0d);
+    }
+
+    /**
+     * The action when the estimated cost or rows exceed their threshold.
+     */
+    public GuardAction getOverThreshold(String datasource) {
+        return GuardAction.of(environment.getProperty(property(datasource, "over-threshold")), GuardAction.REJECT);
+    }
+
+    public GuardAction getFullScan(String datasource) {
+        return GuardAction.of(environment.getProperty(property(datasource, "full-scan")), GuardAction.WARN);
+    }
+
+    public GuardAction getCartesian(String datasource) {
+        return GuardAction.of(environment.getProperty(property(datasource, "cartesian")), GuardAction.REJECT);
+    }
+
+    private static String property(String datasource, String name) {
+        return "client.cost-guard." + datasource + "." + name;
+    }
+}
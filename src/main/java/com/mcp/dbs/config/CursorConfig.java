@@ -0,0 +1,47 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class CursorConfig {
+
+    @Getter
+    @Value("${client.cursor.page-size:100}")
+    private int pageSize;
+
+    @Getter
+    @Value("${client.cursor.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Getter
+    @Value("${client.cursor.fetch-size:500}")
+    private int fetchSize;
+
+    @Getter
+    @Value("${client.cursor.idle-timeout:2m}")
+    private Duration idleTimeout;
+
+    /**
+     * Maximum number of cursors open by a single MCP session.
+     */
+    @Getter
+    @Value("${client.cursor.max-per-client:5}")
+    private int maxPerClient;
+
+    /**
+     * Maximum number of cursors open on a datasource. Each one holds a
+     * pooled connection, so it defaults to half of the R2DBC pool.
+     */
+    @Getter
+    @Value("${client.cursor.max-open:#{${spring.r2dbc.pool.max-size:10} / 2}}")
+    private int maxOpen;
+}
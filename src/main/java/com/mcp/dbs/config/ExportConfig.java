@@ -0,0 +1,38 @@
+package com.mcp.dbs.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class ExportConfig {
+
+    /**
+     * The export tools write to the local file system, so they are only
+     * offered when enabled.
+     */
+    @Getter
+    @Value("${client.export.enabled:false}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.export.directory:${java.io.tmpdir}/dbs-exports}")
+    private String directory;
+
+    @Getter
+    @Value("${client.export.max-rows:10000000}")
+    private long maxRows;
+
+    @Getter
+    @Value("${client.export.buffer-size:65536}")
+    private int bufferSize;
+
+    @Getter
+    @Value("${client.export.preview-rows:5}")
+    private int previewRows;
+}
@@ -0,0 +1,40 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class QueryStatisticsConfig {
+
+    @Getter
+    @Value("${client.query-stats.enabled:true}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.query-stats.max-entries:5000}")
+    private int maxEntries;
+
+    /**
+     * Longer normalized queries are truncated in the statistics; the
+     * fingerprint is computed on the whole query.
+     */
+    @Getter
+    @Value("${client.query-stats.max-query-length:2000}")
+    private int maxQueryLength;
+
+    @Getter
+    @Value("${client.query-stats.slow-threshold:1s}")
+    private Duration slowThreshold;
+
+    @Getter
+    @Value("${client.query-stats.slow-log-size:100}")
+    private int slowLogSize;
+}
@@ -0,0 +1,56 @@
+package com.mcp.dbs.config;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Row and byte budgets of the tools streaming query results. Each tool can be
+ * given its own budgets with {@code client.result-budget.tool.<tool>.*},
+ * where {@code <tool>} is the tool name in lower case with dashes, e.g.
+ * {@code client.result-budget.tool.execute-neo4j-read-query.max-rows=500}.
+ * A budget of 0 is unlimited.
+ */
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class ResultBudgetConfig {
+
+    @NonNull
+    private final Environment environment;
+
+    @Getter
+    @Value("${client.result-budget.enabled:true}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.result-budget.max-rows:10000}")
+    private long maxRows;
+
+    @Getter
+    @Value("${client.result-budget.max-bytes:4194304}")
+    private long maxBytes;
+
+    @Getter
+    @Value("${client.result-budget.limit-pushdown:true}")
+    private boolean limitPushdown;
+
+    public long getMaxRows(String tool) {
+        return environment.getProperty(toolProperty(tool, "max-rows"), Long.class, maxRows);
+    }
+
+    public long getMaxBytes(String tool) {
+        return environment.getProperty(toolProperty(tool, "max-bytes"), Long.class, maxBytes);
+    }
+
+    private static String toolProperty(String tool, String name) {
+        return "client.result-budget.tool." + tool.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-") + "." + name;
+    }
+}
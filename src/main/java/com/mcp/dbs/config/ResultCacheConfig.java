@@ -0,0 +1,49 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class ResultCacheConfig {
+
+    /**
+     * Off by default: cached results do not see the writes made outside of
+     * this server, nor the writes to the tables behind views and functions.
+     */
+    @Getter
+    @Value("${client.result-cache.enabled:false}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.result-cache.ttl:30s}")
+    private Duration ttl;
+
+    @Getter
+    @Value("${client.result-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Getter
+    @Value("${client.result-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Getter
+    @Value("${client.result-cache.max-rows:1000}")
+    private int maxRows;
+
+    /**
+     * Off by default: a write then only invalidates the results that read the
+     * tables it names, which misses the rows changed by cascading foreign
+     * keys and triggers, and the results read through views.
+     */
+    @Getter
+    @Value("${client.result-cache.table-scoped:false}")
+    private boolean tableScoped;
+}
@@ -0,0 +1,24 @@
+package com.mcp.dbs.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class SchemaCacheConfig {
+
+    @Getter
+    @Value("${client.schema-cache.enabled:true}")
+    private boolean enabled;
+
+    @Getter
+    @Value("${client.schema-cache.ttl:5m}")
+    private Duration ttl;
+}
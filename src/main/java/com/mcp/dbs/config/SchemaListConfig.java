@@ -0,0 +1,32 @@
+package com.mcp.dbs.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Configuration
+@RequiredArgsConstructor
+public class SchemaListConfig {
+
+    @Getter
+    @Value("${client.schema-list.page-size:200}")
+    private int pageSize;
+
+    @Getter
+    @Value("${client.schema-list.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * The requested page size, or the default one, capped to the maximum.
+     */
+    public int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return pageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
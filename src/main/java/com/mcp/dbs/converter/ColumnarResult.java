@@ -0,0 +1,97 @@
+package com.mcp.dbs.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Columnar representation of a query result: the column header is written
+ * once, followed by one positional value array per row.
+ * <p>
+ * The header is resolved from the first row (R2DBC row metadata or Neo4j
+ * record keys), so it is only available once the first row has arrived.
+ */
+public class ColumnarResult implements StreamingResult {
+
+    private final Supplier<List<Column>> header;
+    private final Flux<Object[]> rows;
+
+    public ColumnarResult(Supplier<List<Column>> header, Flux<Object[]> rows) {
+        this.header = header;
+        this.rows = rows;
+    }
+
+    @Override
+    public Mono<Void> writeTo(JsonGenerator generator) {
+        return Mono.defer(() -> {
+            RowWriter writer = new RowWriter(generator);
+            return rows.doOnNext(writer::write)
+                    .then(Mono.fromRunnable(writer::finish));
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Column {
+        private String name;
+        private String type;
+    }
+
+    private class RowWriter {
+
+        private final JsonGenerator generator;
+        private ValueEncoders.ColumnEncoder[] encoders;
+
+        RowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void write(Object[] values) {
+            try {
+                if (encoders == null) {
+                    start(header.get());
+                }
+                generator.writeStartArray();
+                for (int i = 0; i < values.length; i++) {
+                    encoders[i].encode(generator, values[i]);
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            try {
+                if (encoders == null) {
+                    start(List.of());
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void start(List<Column> columns) throws IOException {
+            List<Column> resolved = columns == null ? List.of() : columns;
+            generator.writeStartObject();
+            generator.writeFieldName("columns");
+            ReactorConverter.OBJECT_MAPPER.writeValue(generator, resolved);
+            generator.writeArrayFieldStart("rows");
+
+            encoders = new ValueEncoders.ColumnEncoder[resolved.size()];
+            for (int i = 0; i < encoders.length; i++) {
+                encoders[i] = new ValueEncoders.ColumnEncoder();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mcp.dbs.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mcp.dbs.budget.ResultBudget;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Graph representation of a query result: each node and relationship of the
+ * result is written once, under {@code nodes} and {@code relationships}, and
+ * the rows refer to them by id, as {@code {"node": id}},
+ * {@code {"relationship": id}} and {@code {"path": [node, relationship,
+ * node...]}}.
+ * <p>
+ * Rows are written as they arrive, like a {@link ColumnarResult}; the nodes
+ * and relationships of each {@link Row} are added to the graph as the row is
+ * written, so a truncated result only lists those of its rows, and the graph
+ * is written after the last row. They are serialized when first added and
+ * their size charged to the {@link ResultBudget} of the result, so that the
+ * byte budget stops the rows once the graph they refer to is large enough.
+ */
+public class GraphResult implements StreamingResult {
+
+    private final Supplier<List<ColumnarResult.Column>> header;
+    private final Flux<Row> rows;
+
+    public GraphResult(Supplier<List<ColumnarResult.Column>> header, Flux<Row> rows) {
+        this.header = header;
+        this.rows = rows;
+    }
+
+    @Override
+    public Mono<Void> writeTo(JsonGenerator generator) {
+        return Mono.deferContextual(context -> {
+            RowWriter writer = new RowWriter(generator,
+                    new Graph(context.<ResultBudget>getOrEmpty(ResultBudget.class).orElse(null)));
+            return rows.doOnNext(writer::write)
+                    .then(Mono.fromRunnable(writer::finish));
+        });
+    }
+
+    public record Node(String id, List<String> labels, Map<String, Object> properties) {
+    }
+
+    public record Relationship(String id, String type, String start, String end, Map<String, Object> properties) {
+    }
+
+    /**
+     * A row of the result: its values, with references in place of its nodes
+     * and relationships, which are only read when first added to the graph.
+     */
+    public static class Row {
+
+        private final Object[] values;
+        private final Map<String, Supplier<Node>> nodes = new LinkedHashMap<>();
+        private final Map<String, Supplier<Relationship>> relationships = new LinkedHashMap<>();
+
+        public Row(int size) {
+            this.values = new Object[size];
+        }
+
+        public void set(int index, Object value) {
+            values[index] = value;
+        }
+
+        /**
+         * Adds the node to the row and returns the reference to write in its
+         * place.
+         */
+        public Map<String, String> node(String id, Supplier<Node> node) {
+            nodes.putIfAbsent(id, node);
+            return Map.of("node", id);
+        }
+
+        /**
+         * Adds the relationship to the row and returns the reference to write
+         * in its place.
+         */
+        public Map<String, String> relationship(String id, Supplier<Relationship> relationship) {
+            relationships.putIfAbsent(id, relationship);
+            return Map.of("relationship", id);
+        }
+    }
+
+    /**
+     * The distinct nodes and relationships of the written rows, in the order
+     * they first appear, held as JSON.
+     */
+    private static class Graph {
+
+        private final Map<String, String> nodes = new LinkedHashMap<>();
+        private final Map<String, String> relationships = new LinkedHashMap<>();
+        private final ResultBudget budget;
+
+        Graph(ResultBudget budget) {
+            this.budget = budget;
+        }
+
+        void add(Row row) {
+            row.nodes.forEach((id, node) -> nodes.computeIfAbsent(id, k -> serialize(node.get())));
+            row.relationships.forEach((id, relationship) ->
+                    relationships.computeIfAbsent(id, k -> serialize(relationship.get())));
+        }
+
+        private String serialize(Object value) {
+            try {
+                String json = ReactorConverter.OBJECT_MAPPER.writeValueAsString(value);
+                if (budget != null) {
+                    // one more byte for the separator
+                    budget.charge(ReactorConverter.utf8Length(json) + 1);
+                }
+                return json;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private class RowWriter {
+
+        private final JsonGenerator generator;
+        private final Graph graph;
+        private boolean started;
+
+        RowWriter(JsonGenerator generator, Graph graph) {
+            this.generator = generator;
+            this.graph = graph;
+        }
+
+        void write(Row row) {
+            try {
+                if (!started) {
+                    start(header.get());
+                }
+                graph.add(row);
+                ReactorConverter.OBJECT_MAPPER.writeValue(generator, row.values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            try {
+                if (!started) {
+                    start(List.of());
+                }
+                generator.writeEndArray();
+                writeRaw("nodes", graph.nodes.values());
+                writeRaw("relationships", graph.relationships.values());
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRaw(String field, Collection<String> values) throws IOException {
+            generator.writeArrayFieldStart(field);
+            for (String value : values) {
+                generator.writeRawValue(value);
+            }
+            generator.writeEndArray();
+        }
+
+        private void start(List<ColumnarResult.Column> columns) throws IOException {
+            started = true;
+            generator.writeStartObject();
+            generator.writeFieldName("columns");
+            ReactorConverter.OBJECT_MAPPER.writeValue(generator, columns == null ? List.of() : columns);
+            generator.writeArrayFieldStart("rows");
+        }
+    }
+}
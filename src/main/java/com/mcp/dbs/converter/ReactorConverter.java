@@ -1,54 +1,145 @@
 package com.mcp.dbs.converter;
 
-import java.lang.reflect.ParameterizedType;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 
 import org.springframework.ai.tool.execution.ToolCallResultConverter;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mcp.dbs.budget.ResultBudget;
+import com.mcp.dbs.metrics.ToolInvocation;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+/**
+ * Converts the reactive results of the tools into JSON.
+ * <p>
+ * {@link Flux} results are written element by element with an incremental
+ * {@link JsonGenerator} as they arrive from the driver, so rows are never
+ * collected into an intermediate list before being serialized.
+ * <p>
+ * The conversion runs with a {@link ToolInvocation.Slot} in the Reactor
+ * context, so that the tool metrics include the serialization time and the
+ * size of the JSON payload, and with a {@link ResultBudget}: a result cut
+ * short by its budget is wrapped in an object that says it is truncated,
+ * why, and how many rows and bytes it holds, with the rows under
+ * {@code result}.
+ */
 @Component
 public class ReactorConverter implements ToolCallResultConverter {
 
-    private final ObjectMapper objectMapper;
+    /**
+     * Shared mapper: Spring AI instantiates result converters reflectively, so
+     * the mapper cannot be injected and is built once for every instance.
+     */
+    public static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
 
-    public ReactorConverter() {
-        this.objectMapper = new ObjectMapper();
-    }
+    /**
+     * Maximum number of rows requested from the driver ahead of the writer.
+     */
+    private static final int PREFETCH = 256;
 
     @Override
-    @SuppressWarnings("null")
     public String convert(Object result, Type returnType) {
+        StringWriter writer = new StringWriter();
+        ToolInvocation.Slot slot = new ToolInvocation.Slot();
+        String json = null;
+        ResultBudget budget = null;
+
+        try {
+            try (JsonGenerator generator = OBJECT_MAPPER.createGenerator(writer)) {
+                budget = new ResultBudget(() -> writer.getBuffer().length() + generator.getOutputBuffered());
+                Context context = Context.of(ToolInvocation.Slot.class, slot, ResultBudget.class, budget);
+                if (result instanceof Mono<?> mono) {
+                    result = mono.contextWrite(context).block();
+                }
 
-        if (isResultMono(returnType)) {
-            result = ((Mono<?>) result).block();
-        } else {
-            result = ((Flux<?>) result).collectList().block();
+                if (result instanceof StreamingResult streaming) {
+                    streaming.writeTo(generator).contextWrite(context).block();
+                } else if (result instanceof Flux<?> flux) {
+                    writeArray(generator, flux.contextWrite(context));
+                } else {
+                    long start = System.nanoTime();
+                    writeValue(generator, result);
+                    slot.serialized(System.nanoTime() - start);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                throw new RuntimeException("Failed to convert result to JSON", e);
+            }
+
+            json = budget.isTruncated() ? truncated(writer.toString(), budget) : writer.toString();
+            return json;
+        } finally {
+            slot.complete(json == null ? 0 : utf8Length(json));
         }
+    }
 
-        try {
-            return objectMapper.writeValueAsString(result);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to convert result to JSON", e);
+    private void writeArray(JsonGenerator generator, Flux<?> flux) throws IOException {
+        generator.writeStartArray();
+        flux.limitRate(PREFETCH)
+                .doOnNext(element -> writeValue(generator, element))
+                .then()
+                .block();
+        generator.writeEndArray();
+    }
+
+    private static String truncated(String result, ResultBudget budget) {
+        StringWriter writer = new StringWriter(result.length() + 256);
+        try (JsonGenerator generator = OBJECT_MAPPER.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeBooleanField("truncated", true);
+            generator.writeStringField("reason", budget.getReason());
+            generator.writeNumberField("rows", budget.getRows());
+            generator.writeNumberField("bytes", utf8Length(result));
+            generator.writeNumberField("maxRows", budget.getMaxRows());
+            generator.writeNumberField("maxBytes", budget.getMaxBytes());
+            generator.writeStringField("message", "The result exceeds the " + budget.getReason()
+                    + " budget of the tool and was cut short; narrow the query or use the paged read tool.");
+            generator.writeFieldName("result");
+            generator.writeRawValue(result);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return writer.toString();
     }
 
-    private boolean isResultMono(Type returnType) {
-        if (returnType instanceof ParameterizedType) {
-            Type rawType = ((ParameterizedType) returnType).getRawType();
-            if (rawType instanceof Class<?>) {
-                Class<?> rawClass = (Class<?>) rawType;
-                return Mono.class.isAssignableFrom(rawClass);
+    static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
             }
-        } else if (returnType instanceof Class<?>) {
-            Class<?> rawClass = (Class<?>) returnType;
-            return Mono.class.isAssignableFrom(rawClass);
         }
-        return false;
+        return length;
+    }
+
+    private void writeValue(JsonGenerator generator, Object value) {
+        try {
+            OBJECT_MAPPER.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
@@ -0,0 +1,20 @@
+package com.mcp.dbs.converter;
+
+import java.util.Locale;
+
+public enum ResultFormat {
+    ROWS,
+    COLUMNAR,
+    GRAPH;
+
+    public static ResultFormat of(String format) {
+        if (format == null || format.isBlank()) {
+            return ROWS;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported result format: " + format);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.mcp.dbs.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Result that writes its own JSON representation, as its rows arrive, instead
+ * of being serialized by the mapper once complete.
+ */
+public interface StreamingResult {
+
+    Mono<Void> writeTo(JsonGenerator generator);
+}
@@ -0,0 +1,101 @@
+package com.mcp.dbs.converter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.temporal.TemporalAccessor;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Type-specialized writers for single column values, resolved once per column
+ * so that the generic mapper is only involved for types without a dedicated
+ * encoder.
+ */
+public class ValueEncoders {
+
+    @FunctionalInterface
+    public interface ValueEncoder {
+        void encode(JsonGenerator generator, Object value) throws IOException;
+    }
+
+    private static final ValueEncoder INT = (generator, value) -> generator.writeNumber(((Number) value).intValue());
+    private static final ValueEncoder LONG = (generator, value) -> generator.writeNumber(((Number) value).longValue());
+    private static final ValueEncoder DOUBLE = (generator, value) -> generator.writeNumber(((Number) value).doubleValue());
+    private static final ValueEncoder DECIMAL = (generator, value) -> generator.writeNumber((BigDecimal) value);
+    private static final ValueEncoder BIG_INTEGER = (generator, value) -> generator.writeNumber((BigInteger) value);
+    private static final ValueEncoder BOOLEAN = (generator, value) -> generator.writeBoolean((Boolean) value);
+    private static final ValueEncoder TEXT = (generator, value) -> generator.writeString((String) value);
+    private static final ValueEncoder BYTES = (generator, value) -> generator.writeBinary((byte[]) value);
+    private static final ValueEncoder TEXTUAL = (generator, value) -> generator.writeString(value.toString());
+    private static final ValueEncoder BUFFER = (generator, value) -> {
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        generator.writeBinary(bytes);
+    };
+    private static final ValueEncoder GENERIC = (generator, value) -> ReactorConverter.OBJECT_MAPPER.writeValue(generator, value);
+
+    public static ValueEncoder forType(Class<?> type) {
+        if (type == Integer.class || type == Short.class || type == Byte.class) {
+            return INT;
+        }
+        if (type == Long.class) {
+            return LONG;
+        }
+        if (type == Double.class || type == Float.class) {
+            return DOUBLE;
+        }
+        if (type == BigDecimal.class) {
+            return DECIMAL;
+        }
+        if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        }
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (type == String.class) {
+            return TEXT;
+        }
+        if (type == byte[].class) {
+            return BYTES;
+        }
+        if (ByteBuffer.class.isAssignableFrom(type)) {
+            return BUFFER;
+        }
+        // java.time values are written in their ISO-8601 form
+        if (TemporalAccessor.class.isAssignableFrom(type) || type == UUID.class) {
+            return TEXTUAL;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Encoder bound to the type of the first non-null value of a column.
+     * Values of another type fall back to a per-value lookup.
+     */
+    public static class ColumnEncoder {
+
+        private Class<?> type;
+        private ValueEncoder encoder;
+
+        public void encode(JsonGenerator generator, Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+                return;
+            }
+            if (encoder == null) {
+                type = value.getClass();
+                encoder = forType(type);
+            }
+            if (value.getClass() == type) {
+                encoder.encode(generator, value);
+            } else {
+                forType(value.getClass()).encode(generator, value);
+            }
+        }
+    }
+}
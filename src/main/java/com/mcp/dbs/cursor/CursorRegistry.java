@@ -0,0 +1,142 @@
+package com.mcp.dbs.cursor;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.admission.AdmissionPermits;
+import com.mcp.dbs.config.CursorConfig;
+import com.mcp.dbs.pojo.QueryPage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * Keeps track of the open {@link QueryCursor}s, enforcing the per-session
+ * and per-datasource limits and closing the cursors that stay idle longer
+ * than the configured timeout. Cursors belong to the MCP session that opened
+ * them. Each open cursor holds a pooled connection or session, so the
+ * per-datasource limit keeps cursors from exhausting the pool, and the cursor
+ * keeps the admission permits of the tool call that opened it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CursorRegistry {
+
+    @NonNull
+    private final CursorConfig cursorConfig;
+
+    private final Map<String, QueryCursor> cursors = new ConcurrentHashMap<>();
+
+    private Disposable reaper;
+
+    @PostConstruct
+    private void init() {
+        long period = Math.max(1, cursorConfig.getIdleTimeout().toMillis() / 2);
+        reaper = Schedulers.parallel().schedulePeriodically(this::closeIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        reaper.dispose();
+        cursors.values().forEach(this::close);
+    }
+
+    public int getFetchSize() {
+        return cursorConfig.getFetchSize();
+    }
+
+    public Mono<QueryPage> open(String sessionId, String datasource, Flux<Map<String, Object>> rows, Integer pageSize) {
+        return Mono.deferContextual(context -> {
+            QueryCursor cursor;
+
+            synchronized (this) {
+                long open = cursors.values().stream()
+                        .filter(c -> c.getSessionId().equals(sessionId))
+                        .count();
+                if (open >= cursorConfig.getMaxPerClient()) {
+                    return Mono.error(new IllegalStateException("Too many open cursors for this session"
+                            + ", fetch the remaining pages of the open ones or wait for them to expire."));
+                }
+                long openOnDatasource = cursors.values().stream()
+                        .filter(c -> c.getDatasource().equals(datasource))
+                        .count();
+                if (openOnDatasource >= cursorConfig.getMaxOpen()) {
+                    return Mono.error(new IllegalStateException("Too many open cursors on " + datasource
+                            + ", try again later or use a read query with a LIMIT."));
+                }
+                // the rows outlive the tool call: keep its statement timeout
+                // and admission permits for as long as the cursor is open
+                cursor = new QueryCursor(UUID.randomUUID().toString(), sessionId, datasource,
+                        Context.of(context), AdmissionPermits.retain(context));
+                cursors.put(cursor.getId(), cursor);
+            }
+
+            log.debug("Opened cursor {} on {} for session {}", cursor.getId(), datasource, sessionId);
+            rows.limitRate(cursorConfig.getFetchSize()).subscribe(cursor);
+            return page(cursor, pageSize);
+        });
+    }
+
+    public Mono<QueryPage> next(String sessionId, String datasource, String cursorId, Integer pageSize) {
+        return Mono.defer(() -> {
+            QueryCursor cursor = cursorId == null ? null : cursors.get(cursorId);
+            if (cursor == null || !cursor.getSessionId().equals(sessionId) || !cursor.getDatasource().equals(datasource)) {
+                return Mono.error(new IllegalArgumentException(
+                        "Unknown or expired cursor, execute the query again to get a new one."));
+            }
+            return page(cursor, pageSize);
+        });
+    }
+
+    private Mono<QueryPage> page(QueryCursor cursor, Integer pageSize) {
+        return cursor.next(resolvePageSize(pageSize))
+                .map(rows -> {
+                    boolean hasMore = !cursor.isExhausted();
+                    if (!hasMore) {
+                        close(cursor);
+                    }
+                    return new QueryPage(rows, hasMore ? cursor.getId() : null, hasMore);
+                })
+                .doOnError(e -> {
+                    if (cursor.isExhausted()) {
+                        close(cursor);
+                    }
+                });
+    }
+
+    private int resolvePageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return cursorConfig.getPageSize();
+        }
+        return Math.min(pageSize, cursorConfig.getMaxPageSize());
+    }
+
+    private void closeIdle() {
+        long timeout = cursorConfig.getIdleTimeout().toNanos();
+        long now = System.nanoTime();
+        cursors.values().stream()
+                .filter(cursor -> cursor.isIdle() && now - cursor.getLastAccess() > timeout)
+                .forEach(cursor -> {
+                    log.debug("Closing idle cursor {}", cursor.getId());
+                    close(cursor);
+                });
+    }
+
+    private void close(QueryCursor cursor) {
+        cursors.remove(cursor.getId());
+        cursor.dispose();
+    }
+}
@@ -0,0 +1,205 @@
+package com.mcp.dbs.cursor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Subscription;
+
+import lombok.Getter;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+/**
+ * Server-side cursor over a query result.
+ * <p>
+ * The cursor keeps the subscription to the driver open and only requests the
+ * rows needed to fill the page being fetched, so the statement (and its
+ * connection or session) stays suspended between pages.
+ * <p>
+ * The rows are read with the context of the tool call that opened the
+ * cursor, so that they run with its statement timeout, and the admission
+ * permits of that call are kept until the cursor terminates.
+ */
+public class QueryCursor extends BaseSubscriber<Map<String, Object>> {
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final String sessionId;
+
+    @Getter
+    private final String datasource;
+
+    private final Context context;
+
+    private final Runnable release;
+
+    private final Deque<Map<String, Object>> buffer = new ArrayDeque<>();
+
+    private long outstanding;
+    private boolean done;
+    private Throwable error;
+    private MonoSink<List<Map<String, Object>>> pending;
+    private int pendingSize;
+
+    @Getter
+    private volatile long lastAccess = System.nanoTime();
+
+    /**
+     * @param context the context the rows are read with
+     * @param release run once the cursor terminates
+     */
+    public QueryCursor(String id, String sessionId, String datasource, Context context, Runnable release) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.datasource = datasource;
+        this.context = context;
+        this.release = release;
+    }
+
+    public Mono<List<Map<String, Object>>> next(int size) {
+        return Mono.create(sink -> {
+            long missing;
+            List<Map<String, Object>> page = null;
+
+            synchronized (this) {
+                lastAccess = System.nanoTime();
+                if (pending != null) {
+                    sink.error(new IllegalStateException("A page is already being fetched for this cursor."));
+                    return;
+                }
+                if (error != null) {
+                    sink.error(error);
+                    return;
+                }
+                if (done || buffer.size() >= size) {
+                    page = drain(size);
+                    missing = 0;
+                } else {
+                    pending = sink;
+                    pendingSize = size;
+                    missing = size - buffer.size() - outstanding;
+                    if (missing > 0) {
+                        outstanding += missing;
+                    }
+                }
+            }
+
+            if (page != null) {
+                sink.success(page);
+            } else if (missing > 0) {
+                request(missing);
+            }
+        });
+    }
+
+    public synchronized boolean isExhausted() {
+        return done && buffer.isEmpty();
+    }
+
+    public synchronized boolean isIdle() {
+        return pending == null;
+    }
+
+    @Override
+    public Context currentContext() {
+        return context;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+        // rows are requested page by page
+    }
+
+    @Override
+    protected void hookOnNext(Map<String, Object> row) {
+        MonoSink<List<Map<String, Object>>> sink = null;
+        List<Map<String, Object>> page = null;
+
+        synchronized (this) {
+            outstanding--;
+            buffer.add(row);
+            if (pending != null && buffer.size() >= pendingSize) {
+                sink = pending;
+                page = drain(pendingSize);
+                pending = null;
+            }
+        }
+
+        if (sink != null) {
+            sink.success(page);
+        }
+    }
+
+    @Override
+    protected void hookOnComplete() {
+        MonoSink<List<Map<String, Object>>> sink;
+        List<Map<String, Object>> page = null;
+
+        synchronized (this) {
+            done = true;
+            sink = pending;
+            pending = null;
+            if (sink != null) {
+                page = drain(pendingSize);
+            }
+        }
+
+        if (sink != null) {
+            sink.success(page);
+        }
+    }
+
+    @Override
+    protected void hookOnError(Throwable throwable) {
+        MonoSink<List<Map<String, Object>>> sink;
+
+        synchronized (this) {
+            done = true;
+            error = throwable;
+            buffer.clear();
+            sink = pending;
+            pending = null;
+        }
+
+        if (sink != null) {
+            sink.error(throwable);
+        }
+    }
+
+    @Override
+    protected void hookOnCancel() {
+        MonoSink<List<Map<String, Object>>> sink;
+
+        synchronized (this) {
+            done = true;
+            buffer.clear();
+            sink = pending;
+            pending = null;
+        }
+
+        if (sink != null) {
+            sink.error(new IllegalStateException("The cursor has been closed."));
+        }
+    }
+
+    @Override
+    protected void hookFinally(SignalType type) {
+        release.run();
+    }
+
+    private List<Map<String, Object>> drain(int size) {
+        List<Map<String, Object>> page = new ArrayList<>(Math.min(size, buffer.size()));
+        while (page.size() < size && !buffer.isEmpty()) {
+            page.add(buffer.poll());
+        }
+        return page;
+    }
+}
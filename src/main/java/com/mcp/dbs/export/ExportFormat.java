@@ -0,0 +1,35 @@
+package com.mcp.dbs.export;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(".ndjson"),
+    /**
+     * RFC 4180 CSV with a header line, the columns of the first row.
+     */
+    CSV(".csv");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat of(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.mcp.dbs.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mcp.dbs.config.ExportConfig;
+import com.mcp.dbs.converter.ReactorConverter;
+import com.mcp.dbs.pojo.ExportResult;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Streams query results to files of the export directory, so that large
+ * results never go through the tool response.
+ * <p>
+ * Rows are handed from the driver to a bounded-elastic worker through a
+ * bounded queue, encoded into a fixed-size buffer and written to a
+ * {@link FileChannel}, optionally through gzip. A slow disk slows down the
+ * driver instead of buffering rows, and the rows over the row limit cancel
+ * the query. A failed or cancelled export deletes its file.
+ * <p>
+ * File names are generated, never taken from the tool arguments.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResultExporter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Maximum number of rows requested from the driver ahead of the writer.
+     */
+    private static final int PREFETCH = 256;
+
+    private static final ObjectWriter JSON_WRITER = ReactorConverter.OBJECT_MAPPER.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    @NonNull
+    private final ExportConfig exportConfig;
+
+    public Mono<ExportResult> export(String datasource, Flux<Map<String, Object>> rows, ExportFormat format,
+            boolean compressed) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> new Export(file(datasource, format, compressed), format, compressed))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                export -> rows.publishOn(Schedulers.boundedElastic(), PREFETCH)
+                        .takeWhile(export::write)
+                        .then(Mono.fromCallable(export::finish)),
+                export -> Mono.fromRunnable(export::close),
+                (export, e) -> Mono.fromRunnable(export::discard),
+                export -> Mono.fromRunnable(export::discard));
+    }
+
+    private Path file(String datasource, ExportFormat format, boolean compressed) throws IOException {
+        Path directory = Path.of(exportConfig.getDirectory()).toAbsolutePath();
+        Files.createDirectories(directory);
+        String name = datasource + "-" + TIMESTAMP.format(LocalDateTime.now()) + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + format.getExtension() + (compressed ? ".gz" : "");
+        return directory.resolve(name);
+    }
+
+    private class Export {
+
+        private final Path path;
+        private final ExportFormat format;
+        private final boolean compressed;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final RowEncoder encoder;
+        private final List<Map<String, Object>> preview = new ArrayList<>();
+        private long rows;
+        private boolean truncated;
+        private boolean closed;
+
+        Export(Path path, ExportFormat format, boolean compressed) throws IOException {
+            this.path = path;
+            this.format = format;
+            this.compressed = compressed;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            OutputStream stream = Channels.newOutputStream(channel);
+            if (compressed) {
+                stream = new GZIPOutputStream(stream, exportConfig.getBufferSize());
+            }
+            this.out = new BufferedOutputStream(stream, exportConfig.getBufferSize());
+            this.encoder = format == ExportFormat.CSV ? new CsvEncoder(out) : new NdjsonEncoder(out);
+        }
+
+        /**
+         * @return whether the row was written, {@code false} once the row
+         *         limit is reached
+         */
+        boolean write(Map<String, Object> row) {
+            if (rows >= exportConfig.getMaxRows()) {
+                truncated = true;
+                return false;
+            }
+            try {
+                encoder.encode(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (preview.size() < exportConfig.getPreviewRows()) {
+                preview.add(row);
+            }
+            rows++;
+            return true;
+        }
+
+        ExportResult finish() throws IOException {
+            encoder.finish();
+            close();
+            long bytes = Files.size(path);
+            log.info("Exported {} rows ({} bytes) to {}", rows, bytes, path);
+            return new ExportResult(path.toString(), format.name().toLowerCase(Locale.ROOT), compressed, rows, bytes,
+                    truncated, preview);
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close {}", path, e);
+                }
+            }
+        }
+
+        void discard() {
+            try {
+                close();
+            } catch (UncheckedIOException e) {
+                log.debug("Failed to close {}", path, e);
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete the incomplete export {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private interface RowEncoder {
+
+        void encode(Map<String, Object> row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class NdjsonEncoder implements RowEncoder {
+
+        private final JsonGenerator generator;
+
+        NdjsonEncoder(OutputStream out) throws IOException {
+            this.generator = ReactorConverter.OBJECT_MAPPER.createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // rows are separated by the newlines, not by the default space
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void encode(Map<String, Object> row) throws IOException {
+            JSON_WRITER.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * The header is the columns of the first row; values are quoted when
+     * needed, and nested values are written as JSON.
+     */
+    private static class CsvEncoder implements RowEncoder {
+
+        private final Writer writer;
+        private List<String> columns;
+
+        CsvEncoder(OutputStream out) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void encode(Map<String, Object> row) throws IOException {
+            if (columns == null) {
+                columns = List.copyOf(row.keySet());
+                for (int i = 0; i < columns.size(); i++) {
+                    field(i, columns.get(i));
+                }
+                writer.write("\r\n");
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                Object value = row.get(columns.get(i));
+                field(i, value == null ? "" : text(value));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void field(int index, String value) throws IOException {
+            if (index > 0) {
+                writer.write(',');
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static String text(Object value) throws IOException {
+            if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                    || value instanceof Character || value instanceof TemporalAccessor || value instanceof UUID) {
+                return value.toString();
+            }
+            if (value instanceof byte[] bytes) {
+                return Base64.getEncoder().encodeToString(bytes);
+            }
+            return JSON_WRITER.writeValueAsString(value);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.mcp.dbs.guard;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.config.CostGuardConfig;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks the estimated execution plan of a read query before running it, and
+ * rejects or warns about the queries that would cost too much: estimated
+ * cost or rows over a threshold, full scans and cartesian products.
+ * <p>
+ * Plans are cached by the shape of the query (see
+ * {@link QueryNormalizer#planShape}), so a query that only differs from a
+ * previous one in literals that do not bound its rows is not explained again. When the query cannot be explained the check is skipped
+ * and the query runs, where it fails with its own error if it is invalid.
+ * <p>
+ * Meters: {@code dbs.guard.plans}, tagged by datasource and result (hit or
+ * miss), and {@code dbs.guard.verdicts}, tagged by datasource and verdict
+ * (pass, warn or reject).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CostGuard {
+
+    private final CostGuardConfig config;
+    private final MeterRegistry registry;
+
+    private final Map<String, PlanCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Completes empty when the query may run, with an
+     * {@link IllegalArgumentException} when it is rejected.
+     *
+     * @param parameters the parameters the query is explained with
+     * @param explain    the plan of the query
+     */
+    public Mono<Void> check(String datasource, QueryNormalizer normalizer, String query,
+            Map<String, ?> parameters, Supplier<Mono<QueryPlan>> explain) {
+        if (!config.isEnabled(datasource)) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> {
+            PlanCache cache = caches.computeIfAbsent(datasource, PlanCache::new);
+            String shape = normalizer.planShape(query, parameters);
+            QueryPlan cached = cache.get(shape);
+            if (cached != null) {
+                cache.hits.increment();
+                return Mono.just(cached);
+            }
+            cache.misses.increment();
+            return explain.get().doOnNext(plan -> cache.put(shape, plan));
+        })
+                .onErrorResume(e -> {
+                    log.debug("Could not explain the query, skipping the cost guard: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(plan -> verdict(datasource, query, plan));
+    }
+
+    private Mono<Void> verdict(String datasource, String query, QueryPlan plan) {
+        List<String> warnings = new ArrayList<>();
+        List<String> rejections = new ArrayList<>();
+
+        double maxCost = config.getMaxCost(datasource);
+        double maxRows = config.getMaxRows(datasource);
+        if (maxCost > 0 && plan.cost() > maxCost) {
+            add(config.getOverThreshold(datasource), String.format(Locale.ROOT,
+                    "estimated cost %.0f exceeds %.0f", plan.cost(), maxCost), warnings, rejections);
+        }
+        if (maxRows > 0 && plan.rows() > maxRows) {
+            add(config.getOverThreshold(datasource), String.format(Locale.ROOT,
+                    "estimated rows %.0f exceed %.0f", plan.rows(), maxRows), warnings, rejections);
+        }
+        if (!plan.fullScans().isEmpty()) {
+            add(config.getFullScan(datasource), "full scan of " + String.join(", ", plan.fullScans()),
+                    warnings, rejections);
+        }
+        if (plan.cartesian()) {
+            add(config.getCartesian(datasource), "cartesian product", warnings, rejections);
+        }
+        if (!plan.writeOperators().isEmpty()) {
+            rejections.add("the plan writes with " + String.join(", ", plan.writeOperators()));
+        }
+
+        if (!rejections.isEmpty()) {
+            verdicts(datasource, "reject").increment();
+            rejections.addAll(warnings);
+            return Mono.error(new IllegalArgumentException("The query was rejected by the cost guard: "
+                    + String.join("; ", rejections) + ". Make it more selective or add a LIMIT."));
+        }
+        if (!warnings.isEmpty()) {
+            verdicts(datasource, "warn").increment();
+            log.warn("Costly {} query ({}): {}", datasource, String.join("; ", warnings), query);
+        } else {
+            verdicts(datasource, "pass").increment();
+        }
+        return Mono.empty();
+    }
+
+    private static void add(GuardAction action, String finding, List<String> warnings, List<String> rejections) {
+        switch (action) {
+            case WARN -> warnings.add(finding);
+            case REJECT -> rejections.add(finding);
+            default -> {
+            }
+        }
+    }
+
+    private Counter verdicts(String datasource, String verdict) {
+        return Counter.builder("dbs.guard.verdicts")
+                .description("Read queries checked by the cost guard")
+                .tag("datasource", datasource)
+                .tag("verdict", verdict)
+                .register(registry);
+    }
+
+    /**
+     * LRU of the plans of a datasource by query shape, each kept until its
+     * TTL expires.
+     */
+    private class PlanCache {
+
+        private final Map<String, Entry> plans;
+        private final Counter hits;
+        private final Counter misses;
+
+        PlanCache(String datasource) {
+            int size = config.getPlanCacheSize();
+            this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > size;
+                }
+            };
+            this.hits = lookups(datasource, "hit");
+            this.misses = lookups(datasource, "miss");
+        }
+
+        synchronized QueryPlan get(String shape) {
+            Entry entry = plans.get(shape);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.explainedAt() > config.getPlanCacheTtl().toNanos()) {
+                plans.remove(shape);
+                return null;
+            }
+            return entry.plan();
+        }
+
+        synchronized void put(String shape, QueryPlan plan) {
+            if (config.getPlanCacheSize() > 0) {
+                plans.put(shape, new Entry(plan, System.nanoTime()));
+            }
+        }
+
+        private Counter lookups(String datasource, String result) {
+            return Counter.builder("dbs.guard.plans")
+                    .description("Query plans looked up in the plan cache of the cost guard")
+                    .tag("datasource", datasource)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+
+    private record Entry(QueryPlan plan, long explainedAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.mcp.dbs.guard;
+
+import java.util.Locale;
+
+/**
+ * What the cost guard does with a query whose plan crosses a threshold.
+ */
+public enum GuardAction {
+    IGNORE,
+    /**
+     * The query runs, and the finding is logged and counted.
+     */
+    WARN,
+    /**
+     * The query is not run.
+     */
+    REJECT;
+
+    public static GuardAction of(String action, GuardAction defaultAction) {
+        if (action == null || action.isBlank()) {
+            return defaultAction;
+        }
+        try {
+            return valueOf(action.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported cost guard action: " + action);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mcp.dbs.guard;
+
+import java.util.List;
+
+/**
+ * What the cost guard needs from the estimated execution plan of a query.
+ *
+ * @param cost           the estimated cost, in the unit of the database
+ * @param rows           the largest number of rows estimated for a step of
+ *                       the plan
+ * @param fullScans      the tables or labels read entirely
+ * @param cartesian      whether the plan joins inputs without a condition
+ * @param writeOperators the operators of the plan that write, which a read
+ *                       query must not have
+ */
+public record QueryPlan(double cost, double rows, List<String> fullScans, boolean cartesian,
+        List<String> writeOperators) {
+}
@@ -0,0 +1,205 @@
+package com.mcp.dbs.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import com.mcp.dbs.query.QueryNormalizer;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Phase timings of a single tool invocation, recorded by {@link ToolMetrics}
+ * once the invocation and the conversion of its result are complete.
+ * <p>
+ * Rows are mapped by the driver before being emitted and serialized by the
+ * converter while they are emitted, so the database time is what remains
+ * of the time between subscription and completion once both are removed.
+ * The counters are updated by the threads the rows are mapped and emitted
+ * on, several at once for parallel reads.
+ */
+@Getter
+public class ToolInvocation {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+    public static final String CANCELLED = "cancelled";
+
+    private final ToolMetrics metrics;
+    private final String tool;
+    private final String datasource;
+    private final long start = System.nanoTime();
+
+    private long subscribedAt;
+    private long firstRowAt;
+    private long terminatedAt;
+    @Getter(AccessLevel.NONE)
+    private final LongAdder mappingNanos = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder emitNanos = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder serializationNanos = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder rows = new LongAdder();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder bytes = new LongAdder();
+    private String outcome;
+    private QueryNormalizer normalizer;
+    private String statement;
+
+    private boolean deferred;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    ToolInvocation(ToolMetrics metrics, String tool, String datasource) {
+        this.metrics = metrics;
+        this.tool = tool;
+        this.datasource = datasource;
+    }
+
+    /**
+     * Wraps a row mapping function so that the time spent in it is recorded
+     * as mapping time. Rows mapped once the invocation is recorded, such as
+     * the later pages of a cursor it opened, are not timed.
+     */
+    public <T, U, R> BiFunction<T, U, R> timed(BiFunction<T, U, R> mapper) {
+        return (first, second) -> {
+            if (recorded.get()) {
+                return mapper.apply(first, second);
+            }
+            long begin = System.nanoTime();
+            try {
+                return mapper.apply(first, second);
+            } finally {
+                mappingNanos.add(System.nanoTime() - begin);
+            }
+        };
+    }
+
+    /**
+     * Sets the statement executed by the invocation, recorded in the query
+     * statistics with the database time, rows and outcome of the invocation.
+     * Invocations served without executing it, from a cache, leave it unset.
+     */
+    public void executes(QueryNormalizer normalizer, String statement) {
+        this.normalizer = normalizer;
+        this.statement = statement;
+    }
+
+    /**
+     * Records one statement of an invocation executing several of them, such
+     * as a batch, in the query statistics with its own time, rows and
+     * outcome: the time from subscription to termination of the execution.
+     */
+    public <T> Flux<T> executes(QueryNormalizer normalizer, String statement, Flux<T> execution) {
+        return metrics.track(this, normalizer, statement, execution);
+    }
+
+    public void addRows(long count) {
+        rows.add(count);
+    }
+
+    public long getMappingNanos() {
+        return mappingNanos.sum();
+    }
+
+    public long getEmitNanos() {
+        return emitNanos.sum();
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getDbNanos() {
+        long end = terminatedAt == 0 ? System.nanoTime() : terminatedAt;
+        long begin = subscribedAt == 0 ? start : subscribedAt;
+        return Math.max(0, end - begin - getMappingNanos() - getEmitNanos());
+    }
+
+    public long getFirstRowNanos() {
+        return firstRowAt == 0 ? -1 : firstRowAt - (subscribedAt == 0 ? start : subscribedAt);
+    }
+
+    public long getTotalSerializationNanos() {
+        return getEmitNanos() + getSerializationNanos();
+    }
+
+    void subscribed() {
+        subscribedAt = System.nanoTime();
+    }
+
+    void emitted(long nanos, boolean countRow) {
+        if (firstRowAt == 0) {
+            firstRowAt = System.nanoTime() - nanos;
+        }
+        emitNanos.add(nanos);
+        if (countRow) {
+            rows.increment();
+        }
+    }
+
+    void terminated(String outcome) {
+        if (this.outcome == null) {
+            this.outcome = outcome;
+            terminatedAt = System.nanoTime();
+        }
+        if (!deferred) {
+            record();
+        }
+    }
+
+    void complete(long serializationNanos, long bytes) {
+        this.serializationNanos.add(serializationNanos);
+        this.bytes.add(bytes);
+        record();
+    }
+
+    private void record() {
+        if (recorded.compareAndSet(false, true)) {
+            if (outcome == null) {
+                outcome = CANCELLED;
+            }
+            metrics.record(this);
+        }
+    }
+
+    /**
+     * Holder put in the Reactor context by the result converter, so that the
+     * first instrumented publisher it subscribes to leaves the recording to
+     * the converter, which knows the serialization time and payload size.
+     */
+    public static class Slot {
+
+        private ToolInvocation invocation;
+        private long serializationNanos;
+
+        synchronized boolean attach(ToolInvocation candidate) {
+            if (invocation != null) {
+                return false;
+            }
+            invocation = candidate;
+            candidate.deferred = true;
+            return true;
+        }
+
+        public void serialized(long nanos) {
+            serializationNanos += nanos;
+        }
+
+        public synchronized void complete(long bytes) {
+            if (invocation != null) {
+                invocation.complete(serializationNanos, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.mcp.dbs.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.admission.AdmissionController;
+import com.mcp.dbs.query.QueryNormalizer;
+import com.mcp.dbs.stats.QueryStatistics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Records the latency, phase timings, row count and payload size of the tool
+ * invocations, tagged by tool, datasource and outcome:
+ * <ul>
+ * <li>{@code dbs.tool.duration}: whole invocation, conversion included</li>
+ * <li>{@code dbs.tool.db.first.row}: subscription to first row</li>
+ * <li>{@code dbs.tool.db.duration}: time spent waiting for the database</li>
+ * <li>{@code dbs.tool.mapping.duration}: driver rows mapped to values</li>
+ * <li>{@code dbs.tool.serialization.duration}: values written as JSON</li>
+ * <li>{@code dbs.tool.rows} and {@code dbs.tool.payload}: rows returned and
+ * bytes emitted</li>
+ * </ul>
+ * The invocations are run through the {@link AdmissionController}, so that
+ * the rejected and timed out ones are recorded as errors. The statement an
+ * invocation executes is also recorded in the {@link QueryStatistics}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ToolMetrics {
+
+    private final MeterRegistry registry;
+    private final AdmissionController admission;
+    private final QueryStatistics queryStatistics;
+
+    /**
+     * Instruments a tool returning rows, each element counting as one row.
+     */
+    public <T> Flux<T> flux(String tool, String datasource, Function<ToolInvocation, ? extends Publisher<T>> call) {
+        return instrument(tool, datasource, call, true);
+    }
+
+    /**
+     * Instruments a tool returning a single value; the rows it contains can be
+     * reported with {@link ToolInvocation#addRows(long)}.
+     */
+    public <T> Mono<T> mono(String tool, String datasource, Function<ToolInvocation, Mono<T>> call) {
+        return instrument(tool, datasource, call, false).singleOrEmpty();
+    }
+
+    private <T> Flux<T> instrument(String tool, String datasource,
+            Function<ToolInvocation, ? extends Publisher<T>> call, boolean countRows) {
+        return Flux.deferContextual(context -> {
+            ToolInvocation invocation = new ToolInvocation(this, tool, datasource);
+            context.<ToolInvocation.Slot>getOrEmpty(ToolInvocation.Slot.class)
+                    .ifPresent(slot -> slot.attach(invocation));
+
+            Publisher<T> source;
+            try {
+                source = call.apply(invocation);
+            } catch (RuntimeException e) {
+                invocation.terminated(ToolInvocation.ERROR);
+                return Flux.error(e);
+            }
+            return admission.admit(tool, datasource, Flux.from(source))
+                    .transform(Operators.<T, T>lift((scannable, actual) ->
+                            new InstrumentedSubscriber<T>(actual, invocation, countRows)));
+        });
+    }
+
+    void record(ToolInvocation invocation) {
+        Tags tags = Tags.of("tool", invocation.getTool(), "datasource", invocation.getDatasource(),
+                "outcome", invocation.getOutcome());
+
+        timer("dbs.tool.duration", "Tool invocation latency", tags)
+                .record(System.nanoTime() - invocation.getStart(), TimeUnit.NANOSECONDS);
+        if (invocation.getFirstRowNanos() >= 0) {
+            timer("dbs.tool.db.first.row", "Time from query submission to the first row", tags)
+                    .record(invocation.getFirstRowNanos(), TimeUnit.NANOSECONDS);
+        }
+        timer("dbs.tool.db.duration", "Time spent waiting for the database", tags)
+                .record(invocation.getDbNanos(), TimeUnit.NANOSECONDS);
+        timer("dbs.tool.mapping.duration", "Time spent mapping driver rows", tags)
+                .record(invocation.getMappingNanos(), TimeUnit.NANOSECONDS);
+        timer("dbs.tool.serialization.duration", "Time spent writing the result as JSON", tags)
+                .record(invocation.getTotalSerializationNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("dbs.tool.rows")
+                .description("Rows returned by a tool invocation")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(invocation.getRows());
+        DistributionSummary.builder("dbs.tool.payload")
+                .description("Size of the JSON result of a tool invocation")
+                .baseUnit("bytes")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(invocation.getBytes());
+
+        if (invocation.getStatement() != null) {
+            queryStatistics.record(invocation.getDatasource(), invocation.getTool(), invocation.getNormalizer(),
+                    invocation.getStatement(), invocation.getDbNanos(), invocation.getRows(), invocation.getOutcome());
+        }
+    }
+
+    <T> Flux<T> track(ToolInvocation invocation, QueryNormalizer normalizer, String statement, Flux<T> execution) {
+        return queryStatistics.track(invocation.getDatasource(), invocation.getTool(), normalizer, statement,
+                execution);
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Tracks the lifecycle of the tool result and the time its subscriber
+     * spends handling each row, which is where the converter serializes it.
+     */
+    private static class InstrumentedSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final ToolInvocation invocation;
+        private final boolean countRows;
+        private Subscription upstream;
+
+        InstrumentedSubscriber(CoreSubscriber<? super T> actual, ToolInvocation invocation, boolean countRows) {
+            this.actual = actual;
+            this.invocation = invocation;
+            this.countRows = countRows;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (Operators.validate(upstream, subscription)) {
+                upstream = subscription;
+                invocation.subscribed();
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            long begin = System.nanoTime();
+            try {
+                actual.onNext(value);
+            } finally {
+                invocation.emitted(System.nanoTime() - begin, countRows);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            invocation.terminated(ToolInvocation.ERROR);
+            actual.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            invocation.terminated(ToolInvocation.SUCCESS);
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            invocation.terminated(ToolInvocation.CANCELLED);
+            upstream.cancel();
+        }
+    }
+}
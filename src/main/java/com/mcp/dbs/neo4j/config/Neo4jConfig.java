@@ -2,17 +2,23 @@ package com.mcp.dbs.neo4j.config;
 
 import org.neo4j.driver.Driver;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.neo4j.core.ReactiveDatabaseSelectionProvider;
 import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
 import org.springframework.data.neo4j.core.transaction.ReactiveNeo4jTransactionManager;
 import org.springframework.transaction.ReactiveTransactionManager;
 
-import jakarta.annotation.PostConstruct;
+import com.mcp.dbs.cache.SchemaCache;
+import com.mcp.dbs.cache.SchemaObjectCache;
+import com.mcp.dbs.config.SchemaCacheConfig;
+import com.mcp.dbs.neo4j.pojo.Neo4jSchema;
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -28,15 +34,24 @@ public class Neo4jConfig {
     @NonNull
     private final Driver driver;
 
-    @NonNull
-    private final ConfigurableApplicationContext ctx; 
-    
     @NonNull
     private final ReactiveNeo4jClient client;
 
     @Value("${spring.data.neo4j.database:neo4j}")
     private String database;
 
+    @Getter
+    @Value("${client.neo4j.schema.sample-size:1000}")
+    private int schemaSampleSize;
+
+    @Getter
+    @Value("${client.neo4j.schema.concurrency:4}")
+    private int schemaConcurrency;
+
+    @Getter
+    @Value("${client.neo4j.schema.use-procedures:false}")
+    private boolean schemaProcedures;
+
 
     @Bean
     public ReactiveTransactionManager reactiveTransactionManager(
@@ -44,17 +59,35 @@ public class Neo4jConfig {
         return new ReactiveNeo4jTransactionManager(driver, databaseSelectionProvider);
     }
 
-    @PostConstruct
-    private void init() {
+    @Bean
+    public SchemaCache<Neo4jSchema> neo4jSchemaCache(SchemaCacheConfig schemaCacheConfig) {
+        return new SchemaCache<>(Neo4jConstants.DATASOURCE, schemaCacheConfig.isEnabled(),
+                schemaCacheConfig.getTtl());
+    }
+
+    @Bean
+    public SchemaObjectCache<Neo4jSchema.Neo4jNode> neo4jLabelCache(SchemaCacheConfig schemaCacheConfig) {
+        return new SchemaObjectCache<>(Neo4jConstants.DATASOURCE, schemaCacheConfig.isEnabled(),
+                schemaCacheConfig.getTtl());
+    }
+
+    @Bean
+    public SchemaObjectCache<Neo4jSchema.Neo4jEdge> neo4jRelationshipTypeCache(SchemaCacheConfig schemaCacheConfig) {
+        return new SchemaObjectCache<>(Neo4jConstants.DATASOURCE, schemaCacheConfig.isEnabled(),
+                schemaCacheConfig.getTtl());
+    }
+
+    /**
+     * Checks the connection in the background, so that startup does not wait
+     * for the database: readiness is reported by the {@code neo4j} health
+     * indicator once it answers.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void checkConnection() {
         client.query("RETURN 1")
                 .fetch()
                 .one()
-                .doOnError(e -> {
-                    log.error("❌ Error connecting to Neo4j database: {}", database, e);
-                    System.exit(SpringApplication.exit(ctx));
-                })
-                .doOnSuccess(i -> log.info("✅ Successfully connected to Neo4j database: {}", database))
-                .block();
+                .subscribe(i -> log.info("✅ Successfully connected to Neo4j database: {}", database),
+                        e -> log.error("❌ Error connecting to Neo4j database: {}", database, e));
     }
-
 }
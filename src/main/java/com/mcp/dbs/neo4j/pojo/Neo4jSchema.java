@@ -1,6 +1,7 @@
 package com.mcp.dbs.neo4j.pojo;
 
 import java.util.List;
+import java.util.Map;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -17,6 +18,8 @@ public class Neo4jSchema {
     public static class Neo4jNode {
         private String label;
         private List<String> properties;
+        private Map<String, Double> propertyFrequency;
+        private long sampled;
     }
 
     @Getter
@@ -26,5 +29,7 @@ public class Neo4jSchema {
         private List<String> properties;
         private String sourceNodeLabel;
         private String targetNodeLabel;
+        private Map<String, Double> propertyFrequency;
+        private long sampled;
     }
 }
@@ -0,0 +1,144 @@
+package com.mcp.dbs.neo4j.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Service;
+
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the estimated plan of Cypher queries with {@code EXPLAIN}, for the
+ * cost guard, and their measured plan with {@code PROFILE}, for the
+ * profiling tool.
+ * <p>
+ * Neo4j plans have no cost: the estimated rows of all the operators are
+ * summed instead, as an estimate of the work of the query.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.neo4j.uri")
+public class Neo4jExplainer {
+
+    @NonNull
+    private final ReactiveNeo4jClient client;
+
+    @NonNull
+    private final Neo4jTransactions transactions;
+
+    public Mono<QueryPlan> explain(String query, Map<String, Object> parameters) {
+        return transactions.read(client.query("EXPLAIN " + query)
+                .bindAll(parameters)
+                .run())
+                .filter(ResultSummary::hasPlan)
+                .map(summary -> {
+                    Walk walk = new Walk();
+                    walk.visit(summary.plan());
+                    return new QueryPlan(walk.cost, walk.rows, List.copyOf(walk.fullScans), walk.cartesian,
+                            List.copyOf(walk.writes));
+                });
+    }
+
+    /**
+     * Runs the query and returns its plan with the rows and database hits of
+     * each operator. The query runs in a transaction that is always rolled
+     * back, even when it is classified as a read: procedures and functions
+     * can still write. The rollback does not undo what happens outside of
+     * the transaction, so the tools only profile writes in write mode.
+     */
+    public Mono<QueryProfile> profile(String query, Map<String, Object> parameters) {
+        Mono<ResultSummary> profiled = client.query("PROFILE " + query)
+                .bindAll(parameters)
+                .run();
+        return transactions.rolledBack(profiled)
+                .filter(ResultSummary::hasProfile)
+                .map(Neo4jExplainer::profile);
+    }
+
+    static QueryProfile profile(ResultSummary summary) {
+        long available = summary.resultAvailableAfter(TimeUnit.MILLISECONDS);
+        long consumed = summary.resultConsumedAfter(TimeUnit.MILLISECONDS);
+        return QueryProfile.of(planNode(summary.profile()),
+                available < 0 || consumed < 0 ? null : (double) (available + consumed), true);
+    }
+
+    /**
+     * The times of the operators are their own, in nanoseconds, and only
+     * reported by some runtimes; the plan nodes get the time of their
+     * subtree.
+     */
+    private static PlanNode planNode(ProfiledPlan plan) {
+        List<PlanNode> children = plan.children().stream().map(Neo4jExplainer::planNode).toList();
+
+        Double time = null;
+        if (plan.time() > 0 || children.stream().anyMatch(child -> child.getTimeMs() != null)) {
+            time = plan.time() / 1_000_000d
+                    + children.stream().map(PlanNode::getTimeMs).filter(Objects::nonNull)
+                            .mapToDouble(Double::doubleValue).sum();
+        }
+        Value estimated = plan.arguments().get("EstimatedRows");
+        Value details = plan.arguments().get("Details");
+        return new PlanNode(operator(plan), details == null || details.isNull() ? null : details.asString(),
+                estimated == null || estimated.isNull() ? null : estimated.asDouble(), plan.records(), null, time,
+                plan.hasPageCacheStats() ? plan.pageCacheHits() + plan.pageCacheMisses() : null, plan.dbHits(),
+                children);
+    }
+
+    /**
+     * Operators are reported as Name@neo4j.
+     */
+    private static String operator(Plan plan) {
+        String type = plan.operatorType();
+        return type.indexOf('@') >= 0 ? type.substring(0, type.indexOf('@')) : type;
+    }
+
+    private static class Walk {
+
+        private double cost;
+        private double rows;
+        private final Set<String> fullScans = new LinkedHashSet<>();
+        private boolean cartesian;
+        private final Set<String> writes = new LinkedHashSet<>();
+
+        void visit(Plan plan) {
+            String operator = operator(plan);
+
+            Value estimated = plan.arguments().get("EstimatedRows");
+            if (estimated != null && !estimated.isNull()) {
+                cost += estimated.asDouble();
+                rows = Math.max(rows, estimated.asDouble());
+            }
+
+            if (Neo4jConstants.FULL_SCAN_OPERATORS.stream().anyMatch(operator::contains)) {
+                Value details = plan.arguments().get("Details");
+                fullScans.add(details == null || details.isNull() ? operator
+                        : operator + "(" + details.asString() + ")");
+            }
+            if (Neo4jConstants.CARTESIAN_OPERATORS.contains(operator)) {
+                cartesian = true;
+            }
+            if (Neo4jConstants.WRITE_OPERATORS.stream().anyMatch(operator::startsWith)) {
+                writes.add(operator);
+            }
+
+            plan.children().forEach(this::visit);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.mcp.dbs.neo4j.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.driver.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
+import org.springframework.stereotype.Service;
+
+import com.mcp.dbs.neo4j.config.Neo4jConfig;
+import com.mcp.dbs.neo4j.pojo.Neo4jSchema;
+import com.mcp.dbs.pojo.SchemaObject;
+import com.mcp.dbs.utils.NamePattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Infers the Neo4j schema from a bounded sample of nodes per label and of
+ * relationships per type, so that its cost does not grow with the graph.
+ * <p>
+ * When enabled ({@code client.neo4j.schema.use-procedures}),
+ * {@code db.schema.nodeTypeProperties} / {@code db.schema.relTypeProperties}
+ * complete the property lists with properties that the sample did not see.
+ * They scan the whole graph, so they are off by default; frequencies are
+ * always estimated from the sample.
+ * <p>
+ * Labels and relationship types can also be listed with their counts, which
+ * come from the count store, and described individually.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.neo4j.uri")
+public class Neo4jSchemaInference {
+
+    private static final String NODE_SAMPLE_QUERY = """
+            MATCH (n:`%s`) WITH n LIMIT $sample
+            WITH collect(keys(n)) AS keyLists
+            RETURN size(keyLists) AS sampled, keyLists
+            """;
+
+    private static final String EDGE_SAMPLE_QUERY = """
+            MATCH (a)-[r:`%s`]->(b) WITH a, r, b LIMIT $sample
+            WITH labels(a)[0] AS sourceLabel, labels(b)[0] AS targetLabel, collect(keys(r)) AS keyLists
+            RETURN sourceLabel, targetLabel, size(keyLists) AS sampled, keyLists
+            """;
+
+    private static final String NODE_TYPE_PROPERTIES_QUERY = "CALL db.schema.nodeTypeProperties() YIELD nodeLabels, propertyName RETURN nodeLabels, propertyName";
+
+    private static final String REL_TYPE_PROPERTIES_QUERY = "CALL db.schema.relTypeProperties() YIELD relType, propertyName RETURN relType, propertyName";
+
+    private static final String NODE_TYPE_PROPERTIES_OF_QUERY = "CALL db.schema.nodeTypeProperties() YIELD nodeLabels, propertyName WHERE any(label IN nodeLabels WHERE label IN $names) RETURN nodeLabels, propertyName";
+
+    private static final String REL_TYPE_PROPERTIES_OF_QUERY = "CALL db.schema.relTypeProperties() YIELD relType, propertyName WHERE relType IN $names RETURN relType, propertyName";
+
+    private static final String LABELS_QUERY = "CALL db.labels() YIELD label WHERE label =~ $pattern RETURN label ORDER BY label SKIP $offset LIMIT $limit";
+
+    private static final String RELATIONSHIP_TYPES_QUERY = "CALL db.relationshipTypes() YIELD relationshipType WHERE relationshipType =~ $pattern RETURN relationshipType ORDER BY relationshipType SKIP $offset LIMIT $limit";
+
+    private static final String PROPERTY_KEYS_QUERY = "CALL db.propertyKeys() YIELD propertyKey RETURN propertyKey ORDER BY propertyKey";
+
+    private static final String LABEL_COUNT_QUERY = "MATCH (n:`%s`) RETURN count(n)";
+
+    private static final String RELATIONSHIP_TYPE_COUNT_QUERY = "MATCH ()-[r:`%s`]->() RETURN count(r)";
+
+    @NonNull
+    private final ReactiveNeo4jClient client;
+
+    @NonNull
+    private final Neo4jConfig neo4jConfig;
+
+    @NonNull
+    private final Neo4jTransactions transactions;
+
+    public Mono<Neo4jSchema> inferSchema() {
+        return Mono.zip(inferNodes(), inferEdges(), Neo4jSchema::new);
+    }
+
+    public Mono<List<Neo4jSchema.Neo4jNode>> inferNodes() {
+        return declaredProperties(NODE_TYPE_PROPERTIES_QUERY, Map.of(), "nodeLabels")
+                .flatMap(declared -> names("CALL db.labels()", Map.of())
+                        .flatMapSequential(label -> sampleLabel(label, declared.getOrDefault(label, Set.of())),
+                                neo4jConfig.getSchemaConcurrency())
+                        .collectList());
+    }
+
+    public Mono<List<Neo4jSchema.Neo4jEdge>> inferEdges() {
+        return declaredProperties(REL_TYPE_PROPERTIES_QUERY, Map.of(), "relType")
+                .flatMap(declared -> names("CALL db.relationshipTypes()", Map.of())
+                        .flatMapSequential(type -> sampleType(type, declared.getOrDefault(type, Set.of()))
+                                .flatMapIterable(edges -> edges),
+                                neo4jConfig.getSchemaConcurrency())
+                        .collectList());
+    }
+
+    /**
+     * Labels or relationship types whose name matches the pattern, with the
+     * number of nodes or relationships they have.
+     *
+     * @param pattern a {@link NamePattern}, or {@code null} for all of them
+     */
+    public Flux<SchemaObject> list(boolean relationships, String pattern, int offset, int limit) {
+        String regex = pattern == null || pattern.isBlank() ? ".*" : NamePattern.toRegex(pattern.trim());
+        return names(relationships ? RELATIONSHIP_TYPES_QUERY : LABELS_QUERY,
+                Map.of("pattern", regex, "offset", offset, "limit", limit))
+                .flatMapSequential(name -> transactions.read(client
+                        .query(String.format(relationships ? RELATIONSHIP_TYPE_COUNT_QUERY : LABEL_COUNT_QUERY,
+                                escape(name)))
+                        .fetchAs(Long.class)
+                        .one())
+                        .map(count -> new SchemaObject(name, relationships ? "RELATIONSHIP" : "LABEL", count)),
+                        neo4jConfig.getSchemaConcurrency());
+    }
+
+    /**
+     * Fingerprint of the graph schema: the labels and relationship types with
+     * their counts, and the property keys. Counts come from the count store,
+     * so it stays cheap, and they change whenever nodes or relationships are
+     * created or deleted, which is when a label or type usually gains or loses
+     * properties; properties set on existing entities are only seen once the
+     * cached schema expires.
+     */
+    public Mono<String> fingerprint() {
+        return Mono.zip(list(false, null, 0, Integer.MAX_VALUE).collectList(),
+                list(true, null, 0, Integer.MAX_VALUE).collectList(),
+                names(PROPERTY_KEYS_QUERY, Map.of()).collectList())
+                .map(catalog -> {
+                    StringBuilder fingerprint = new StringBuilder();
+                    catalog.getT1().forEach(label -> fingerprint.append(label.getName()).append(':')
+                            .append(label.getCount()).append(','));
+                    fingerprint.append('|');
+                    catalog.getT2().forEach(type -> fingerprint.append(type.getName()).append(':')
+                            .append(type.getCount()).append(','));
+                    fingerprint.append('|');
+                    catalog.getT3().forEach(key -> fingerprint.append(key).append(','));
+                    return fingerprint.toString();
+                });
+    }
+
+    /**
+     * The named labels; labels without nodes are left out.
+     */
+    public Flux<Neo4jSchema.Neo4jNode> describeLabels(List<String> labels) {
+        if (labels.isEmpty()) {
+            return Flux.empty();
+        }
+        return declaredProperties(NODE_TYPE_PROPERTIES_OF_QUERY, Map.of("names", labels), "nodeLabels")
+                .flatMapMany(declared -> Flux.fromIterable(labels)
+                        .flatMapSequential(label -> sampleLabel(label, declared.getOrDefault(label, Set.of())),
+                                neo4jConfig.getSchemaConcurrency()))
+                .filter(node -> node.getSampled() > 0);
+    }
+
+    /**
+     * The named relationship types, one edge per pair of source and target
+     * labels found in the sample.
+     */
+    public Flux<Neo4jSchema.Neo4jEdge> describeTypes(List<String> types) {
+        if (types.isEmpty()) {
+            return Flux.empty();
+        }
+        // relTypeProperties reports types as :`TYPE`
+        List<String> names = types.stream().map(type -> ":`" + escape(type) + "`").toList();
+        return declaredProperties(REL_TYPE_PROPERTIES_OF_QUERY, Map.of("names", names), "relType")
+                .flatMapMany(declared -> Flux.fromIterable(types)
+                        .flatMapSequential(type -> sampleType(type, declared.getOrDefault(type, Set.of()))
+                                .flatMapIterable(edges -> edges),
+                                neo4jConfig.getSchemaConcurrency()));
+    }
+
+    /**
+     * Labels or relationship types, collected before sampling each of them in
+     * its own transaction: a transaction cannot run concurrent queries.
+     */
+    private Flux<String> names(String query, Map<String, Object> parameters) {
+        return transactions.read(client.query(query)
+                .bindAll(parameters)
+                .fetchAs(String.class)
+                .all()
+                .collectList())
+                .flatMapIterable(names -> names);
+    }
+
+    private Mono<Neo4jSchema.Neo4jNode> sampleLabel(String label, Set<String> declared) {
+        return transactions.read(client.query(String.format(NODE_SAMPLE_QUERY, escape(label)))
+                .bind(neo4jConfig.getSchemaSampleSize()).to("sample")
+                .fetchAs(Neo4jSchema.Neo4jNode.class)
+                .mappedBy((it, record) -> {
+                    long sampled = record.get("sampled").asLong();
+                    Map<String, Double> frequency = frequencies(keyLists(record.get("keyLists")), sampled, declared);
+                    return new Neo4jSchema.Neo4jNode(label, new ArrayList<>(frequency.keySet()), frequency, sampled);
+                })
+                .one());
+    }
+
+    private Mono<List<Neo4jSchema.Neo4jEdge>> sampleType(String type, Set<String> declared) {
+        return transactions.read(client.query(String.format(EDGE_SAMPLE_QUERY, escape(type)))
+                .bind(neo4jConfig.getSchemaSampleSize()).to("sample")
+                .fetchAs(Neo4jSchema.Neo4jEdge.class)
+                .mappedBy((it, record) -> {
+                    long sampled = record.get("sampled").asLong();
+                    Map<String, Double> frequency = frequencies(keyLists(record.get("keyLists")), sampled, declared);
+                    return new Neo4jSchema.Neo4jEdge(type, new ArrayList<>(frequency.keySet()),
+                            asNullableString(record.get("sourceLabel")), asNullableString(record.get("targetLabel")),
+                            frequency, sampled);
+                })
+                .all()
+                .collectList());
+    }
+
+    /**
+     * Property names per label or relationship type as reported by the
+     * {@code db.schema.*TypeProperties} procedures, or an empty map when they
+     * are disabled or not available on the server.
+     */
+    private Mono<Map<String, Set<String>>> declaredProperties(String query, Map<String, Object> parameters,
+            String typeColumn) {
+        if (!neo4jConfig.isSchemaProcedures()) {
+            return Mono.just(Map.of());
+        }
+
+        return transactions.read(client.query(query)
+                .bindAll(parameters)
+                .fetch()
+                .all())
+                .collect(HashMap<String, Set<String>>::new, (declared, row) -> {
+                    Object propertyName = row.get("propertyName");
+                    if (propertyName == null) {
+                        return;
+                    }
+                    for (String type : typeNames(row.get(typeColumn))) {
+                        declared.computeIfAbsent(type, k -> new LinkedHashSet<>()).add(propertyName.toString());
+                    }
+                })
+                .<Map<String, Set<String>>>map(declared -> declared)
+                .onErrorResume(e -> {
+                    log.warn("Schema procedures not available, falling back to sampling only: {}", e.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    private static List<String> typeNames(Object value) {
+        if (value instanceof List<?> labels) {
+            return labels.stream().map(Object::toString).toList();
+        }
+        if (value == null) {
+            return List.of();
+        }
+        // relTypeProperties reports types as :`TYPE`
+        String type = value.toString();
+        if (type.startsWith(":")) {
+            type = type.substring(1);
+        }
+        if (type.startsWith("`") && type.endsWith("`") && type.length() > 1) {
+            type = type.substring(1, type.length() - 1).replace("``", "`");
+        }
+        return List.of(type);
+    }
+
+    private static List<List<String>> keyLists(Value value) {
+        return value.asList(keys -> keys.asList(Value::asString));
+    }
+
+    private static Map<String, Double> frequencies(List<List<String>> keyLists, long sampled, Set<String> declared) {
+        Map<String, Long> counts = new HashMap<>();
+        for (List<String> keys : keyLists) {
+            for (String key : keys) {
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+
+        Map<String, Double> frequency = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> frequency.put(entry.getKey(), sampled == 0 ? 0d : (double) entry.getValue() / sampled));
+        declared.forEach(key -> frequency.putIfAbsent(key, 0d));
+        return frequency;
+    }
+
+    private static String asNullableString(Value value) {
+        return value.isNull() ? null : value.asString();
+    }
+
+    private static String escape(String name) {
+        return name.replace("`", "``");
+    }
+}
@@ -1,11 +1,18 @@
 package com.mcp.dbs.neo4j.service;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
-import org.neo4j.driver.Value;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.neo4j.driver.types.TypeSystem;
+import org.reactivestreams.Publisher;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.annotation.Tool;
@@ -15,9 +22,43 @@ import org.springframework.data.neo4j.core.ReactiveNeo4jClient;
 import org.springframework.stereotype.Service;
 
 import com.mcp.dbs.DBTool;
+import com.mcp.dbs.budget.ResultBudget;
+import com.mcp.dbs.budget.ResultBudgets;
+import com.mcp.dbs.cache.QueryResultCache;
+import com.mcp.dbs.cache.SchemaCache;
+import com.mcp.dbs.cache.SchemaObjectCache;
+import com.mcp.dbs.converter.ColumnarResult;
+import com.mcp.dbs.converter.GraphResult;
 import com.mcp.dbs.converter.ReactorConverter;
+import com.mcp.dbs.converter.ResultFormat;
+import com.mcp.dbs.config.BatchConfig;
 import com.mcp.dbs.config.ClientConfig;
+import com.mcp.dbs.config.ExportConfig;
+import com.mcp.dbs.config.SchemaListConfig;
+import com.mcp.dbs.cursor.CursorRegistry;
+import com.mcp.dbs.export.ExportFormat;
+import com.mcp.dbs.export.ResultExporter;
+import com.mcp.dbs.guard.CostGuard;
+import com.mcp.dbs.metrics.ToolInvocation;
+import com.mcp.dbs.metrics.ToolMetrics;
 import com.mcp.dbs.neo4j.pojo.Neo4jSchema;
+import com.mcp.dbs.neo4j.utils.GraphValues;
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+import com.mcp.dbs.pojo.BatchQueryResult;
+import com.mcp.dbs.pojo.BatchWriteResult;
+import com.mcp.dbs.pojo.CommitMode;
+import com.mcp.dbs.pojo.ExportResult;
+import com.mcp.dbs.pojo.QueryPage;
+import com.mcp.dbs.pojo.QueryProfile;
+import com.mcp.dbs.pojo.QueryStatisticsReport;
+import com.mcp.dbs.pojo.SchemaListing;
+import com.mcp.dbs.query.QueryNormalizer;
+import com.mcp.dbs.query.StatementClassification;
+import com.mcp.dbs.query.StatementClassifier;
+import com.mcp.dbs.query.StatementKind;
+import com.mcp.dbs.stats.QueryStatistics;
+import com.mcp.dbs.stats.StatisticsOrder;
+import com.mcp.dbs.utils.ToolContextHelper;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +78,54 @@ public class Neo4jToolImpl implements DBTool {
     @NonNull
     private final ClientConfig clientConfig;
 
+    @NonNull
+    private final SchemaCache<Neo4jSchema> schemaCache;
+
+    @NonNull
+    private final Neo4jSchemaInference schemaInference;
+
+    @NonNull
+    private final CursorRegistry cursorRegistry;
+
+    @NonNull
+    private final QueryResultCache resultCache;
+
+    @NonNull
+    private final ToolMetrics toolMetrics;
+
+    @NonNull
+    private final Neo4jTransactions transactions;
+
+    @NonNull
+    private final BatchConfig batchConfig;
+
+    @NonNull
+    private final SchemaObjectCache<Neo4jSchema.Neo4jNode> labelCache;
+
+    @NonNull
+    private final SchemaObjectCache<Neo4jSchema.Neo4jEdge> relationshipTypeCache;
+
+    @NonNull
+    private final SchemaListConfig schemaListConfig;
+
+    @NonNull
+    private final ResultBudgets resultBudgets;
+
+    @NonNull
+    private final CostGuard costGuard;
+
+    @NonNull
+    private final ExportConfig exportConfig;
+
+    @NonNull
+    private final ResultExporter resultExporter;
+
+    @NonNull
+    private final Neo4jExplainer explainer;
+
+    @NonNull
+    private final QueryStatistics queryStatistics;
+
     @Override
     public List<ToolCallback> getTools() {
         log.debug("Loading Neo4j Tools...");
@@ -45,105 +134,489 @@ public class Neo4jToolImpl implements DBTool {
 
         if (!clientConfig.isReadMode()) {
             log.debug("Read mode is disabled, filtering out read tools");
-            tools.removeIf(tool -> tool.getToolDefinition().name().equalsIgnoreCase("Execute Neo4j read query"));
+            tools.removeIf(tool -> Neo4jConstants.READ_TOOLS.contains(tool.getToolDefinition().name()));
+        }
+
+        if (!exportConfig.isEnabled()) {
+            log.debug("Export is disabled, filtering out the export tool");
+            tools.removeIf(tool -> Neo4jConstants.EXPORT_TOOL.equals(tool.getToolDefinition().name()));
+        }
+
+        if (!queryStatistics.isEnabled()) {
+            log.debug("Query statistics are disabled, filtering out the statistics tool");
+            tools.removeIf(tool -> Neo4jConstants.STATISTICS_TOOL.equals(tool.getToolDefinition().name()));
         }
 
         if (!clientConfig.isWriteMode()) {
             log.debug("Write mode is disabled, filtering out write tools");
-            tools.removeIf(tool -> tool.getToolDefinition().name().equalsIgnoreCase("Execute Neo4j write query"));
+            tools.removeIf(tool -> Neo4jConstants.WRITE_TOOLS.contains(tool.getToolDefinition().name()));
         }
 
         log.info("Loaded {} Neo4j tools", tools.size());
         return tools;
     }
 
-    @Tool(name = "Get Neo4j schema", description = """
+    @Tool(name = Neo4jConstants.SCHEMA_TOOL, description = """
             Get the structure of the Neo4j database schema, including nodes and edges.
             Returns a list of nodes with their labels and properties, and edges with their names, properties, and source/target node labels.
+            The schema is inferred from a sample of the graph: each property comes with the fraction of sampled nodes/edges that have it.
             """, resultConverter = ReactorConverter.class)
     private Mono<Neo4jSchema> getSchemaStructure() {
         log.info("Fetching Neo4j schema structure...");
-        return Mono.zip(getNodes(), getEdges(), Neo4jSchema::new);
+        return toolMetrics.mono(Neo4jConstants.SCHEMA_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> schemaCache.get(schemaInference.inferSchema(), getSchemaFingerprint()));
     }
 
-    @Tool(name = "Execute Neo4j read query", description = "Executes a read query on the Neo4j database and returns the result as a map.", resultConverter = ReactorConverter.class)
-    private Flux<Map<String, Object>> execReadQuery(
-            @ToolParam(description = "The Cypher query to execute") String query) {
+    @Tool(name = Neo4jConstants.LIST_LABELS_TOOL, description = """
+            List the node labels or the relationship types of the Neo4j database, with their number of nodes or relationships.
+            Use it to find the labels and types worth describing instead of fetching the whole schema.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<SchemaListing> listLabels(
+            @ToolParam(description = "What to list: 'labels' (default) or 'relationships'", required = false) String kind,
+            @ToolParam(description = "A pattern the names must match: * matches any characters, ? a single character, case-insensitive", required = false) String pattern,
+            @ToolParam(description = "The number of labels or types to skip", required = false) Integer offset,
+            @ToolParam(description = "The maximum number of labels or types to return", required = false) Integer limit) {
+        log.info("Listing {} matching: {}", kind, pattern);
+        boolean relationships = "relationships".equalsIgnoreCase(kind == null ? null : kind.trim());
+        int skip = offset == null ? 0 : Math.max(0, offset);
+        int size = schemaListConfig.pageSize(limit);
+
+        return toolMetrics.mono(Neo4jConstants.LIST_LABELS_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> schemaInference.list(relationships, pattern, skip, size + 1)
+                        .collectList()
+                        .map(objects -> SchemaListing.of(objects, skip, size))
+                        .doOnNext(listing -> invocation.addRows(listing.getObjects().size())));
+    }
+
+    @Tool(name = Neo4jConstants.DESCRIBE_LABELS_TOOL, description = """
+            Get the structure of some node labels and relationship types of the Neo4j database.
+            Returns the same nodes and edges as the schema tool, restricted to the given labels and types.
+            Labels and types that do not exist are left out of the result.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<Neo4jSchema> describeLabels(
+            @ToolParam(description = "The node labels, as returned by \"List Neo4j labels\"", required = false) List<String> labels,
+            @ToolParam(description = "The relationship types, as returned by \"List Neo4j labels\" with kind 'relationships'", required = false) List<String> relationshipTypes) {
+        log.info("Describing labels {} and relationship types {}", labels, relationshipTypes);
+        List<String> nodeNames = labels == null ? List.of() : labels;
+        List<String> edgeNames = relationshipTypes == null ? List.of() : relationshipTypes;
+
+        return toolMetrics.mono(Neo4jConstants.DESCRIBE_LABELS_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> Mono.zip(
+                        labelCache.get(nodeNames, schemaInference::describeLabels, Neo4jSchema.Neo4jNode::getLabel),
+                        relationshipTypeCache.get(edgeNames, schemaInference::describeTypes,
+                                Neo4jSchema.Neo4jEdge::getName),
+                        Neo4jSchema::new)
+                        .doOnNext(schema -> invocation.addRows(schema.getNodes().size() + schema.getEdges().size())));
+    }
+
+    @Tool(name = Neo4jConstants.READ_TOOL, description = "Executes a read query on the Neo4j database and returns the result as a map.", resultConverter = ReactorConverter.class)
+    private Publisher<?> execReadQuery(
+            @ToolParam(description = "The Cypher query to execute") String query,
+            @ToolParam(description = "The result format: 'rows' (default) returns one map per record, 'columnar' returns the record keys once followed by one value array per record, 'graph' returns one value array per record in which nodes, relationships and paths refer by id to the distinct nodes and relationships listed once after the records", required = false) String format,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as $name in the query", required = false) Map<String, Object> parameters) {
         log.info("Executing read query: {}", query);
         if (!clientConfig.isReadMode()) {
             throw new IllegalStateException("Read mode is not enabled in the configuration.");
         }
-        if (isWriteQuery(query)) {
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (classification.isWrite()) {
             throw new IllegalArgumentException(
                     "The provided query is a write query, but this method only supports read queries.");
         }
-        return client.query(query)
-                .fetch()
-                .all();
+
+        String limited = resultBudgets.pushDown(Neo4jConstants.READ_TOOL, query, classification);
+        ResultFormat resultFormat = ResultFormat.of(format);
+        if (resultFormat == ResultFormat.GRAPH) {
+            AtomicReference<List<ColumnarResult.Column>> header = new AtomicReference<>();
+            Flux<GraphResult.Row> records = toolMetrics.flux(Neo4jConstants.READ_TOOL, Neo4jConstants.DATASOURCE, invocation -> {
+                invocation.executes(QueryNormalizer.CYPHER, query);
+                return guard(limited, classification, parameters)
+                        .thenMany(resultBudgets.limit(Neo4jConstants.READ_TOOL, transactions.read(client.query(limited)
+                                .bindAll(parameters(parameters))
+                                .fetchAs(GraphResult.Row.class)
+                                .mappedBy(invocation.timed((TypeSystem types, Record record) -> {
+                                    if (header.get() == null) {
+                                        header.set(record.keys().stream()
+                                                .map(key -> new ColumnarResult.Column(key, null))
+                                                .toList());
+                                    }
+                                    return GraphValues.toRow(types, record);
+                                }))
+                                .all())));
+            });
+            return Mono.just(new GraphResult(header::get, records));
+        }
+        if (resultFormat == ResultFormat.COLUMNAR) {
+            AtomicReference<List<ColumnarResult.Column>> header = new AtomicReference<>();
+            Flux<Object[]> records = toolMetrics.flux(Neo4jConstants.READ_TOOL, Neo4jConstants.DATASOURCE, invocation -> {
+                invocation.executes(QueryNormalizer.CYPHER, query);
+                return guard(limited, classification, parameters)
+                        .thenMany(resultBudgets.limit(Neo4jConstants.READ_TOOL, transactions.read(client.query(limited)
+                                .bindAll(parameters(parameters))
+                                .fetchAs(Object[].class)
+                                .mappedBy(invocation.timed((TypeSystem it, Record record) -> {
+                                    if (header.get() == null) {
+                                        header.set(record.keys().stream()
+                                                .map(key -> new ColumnarResult.Column(key, null))
+                                                .toList());
+                                    }
+                                    Object[] values = new Object[record.size()];
+                                    for (int i = 0; i < values.length; i++) {
+                                        values[i] = record.get(i).asObject();
+                                    }
+                                    return values;
+                                }))
+                                .all())));
+            });
+            return Mono.just(new ColumnarResult(header::get, records));
+        }
+
+        return toolMetrics.flux(Neo4jConstants.READ_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> guard(limited, classification, parameters)
+                        .thenMany(resultBudgets.limit(Neo4jConstants.READ_TOOL, resultCache.get(
+                                Neo4jConstants.DATASOURCE, QueryNormalizer.CYPHER, limited, parameters, Set.of(),
+                                () -> {
+                                    invocation.executes(QueryNormalizer.CYPHER, query);
+                                    return transactions.read(client.query(limited)
+                                            .bindAll(parameters(parameters))
+                                            .fetch()
+                                            .all());
+                                }))));
     }
 
-    @Tool(name = "Execute Neo4j write query", description = "Executes a write query on the Neo4j database and returns the result as a map.", resultConverter = ReactorConverter.class)
+    @Tool(name = Neo4jConstants.PAGED_READ_TOOL, description = """
+            Executes a read query on the Neo4j database and returns only the first page of the result.
+            When more records are available the page contains a cursor: pass it to "Fetch Neo4j query page" to get the next page without executing the query again.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryPage> execPagedReadQuery(
+            @ToolParam(description = "The Cypher query to execute") String query,
+            @ToolParam(description = "The number of records per page", required = false) Integer pageSize,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as $name in the query", required = false) Map<String, Object> parameters,
+            ToolContext toolContext) {
+        log.info("Executing paged read query: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.");
+        }
+
+        return toolMetrics.mono(Neo4jConstants.PAGED_READ_TOOL, Neo4jConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.CYPHER, query);
+            // The reactive driver pulls records in batches driven by the cursor demand
+            Flux<Map<String, Object>> records = transactions.read(client.query(query)
+                    .bindAll(parameters(parameters))
+                    .fetch()
+                    .all());
+            return guard(query, classification, parameters)
+                    .then(cursorRegistry.open(ToolContextHelper.sessionId(toolContext), Neo4jConstants.DATASOURCE,
+                            records, pageSize))
+                    .doOnNext(page -> invocation.addRows(page.getRows().size()));
+        });
+    }
+
+    @Tool(name = Neo4jConstants.FETCH_PAGE_TOOL, description = "Returns the next page of a query started with \"Execute Neo4j paged read query\".", resultConverter = ReactorConverter.class)
+    private Mono<QueryPage> fetchQueryPage(
+            @ToolParam(description = "The cursor returned with the previous page") String cursor,
+            @ToolParam(description = "The number of records per page", required = false) Integer pageSize,
+            ToolContext toolContext) {
+        log.info("Fetching next page of cursor: {}", cursor);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+
+        return toolMetrics.mono(Neo4jConstants.FETCH_PAGE_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> cursorRegistry.next(ToolContextHelper.sessionId(toolContext), Neo4jConstants.DATASOURCE,
+                        cursor, pageSize)
+                        .doOnNext(page -> invocation.addRows(page.getRows().size())));
+    }
+
+    @Tool(name = Neo4jConstants.BATCH_READ_TOOL, description = """
+            Executes several independent read queries on the Neo4j database in one call and returns the result of each of them, in order.
+            A failing query does not stop the others: its result contains the error instead of the records.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<List<BatchQueryResult>> execBatchReadQuery(
+            @ToolParam(description = "The Cypher queries to execute") List<String> queries,
+            @ToolParam(description = "The values of the named parameters of each query, in the order of the queries, referenced as $name in the queries", required = false) List<Map<String, Object>> parameters) {
+        log.info("Executing batch of {} read queries", queries.size());
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        if (queries.size() > batchConfig.getMaxQueries()) {
+            throw new IllegalArgumentException(
+                    "A batch cannot contain more than " + batchConfig.getMaxQueries() + " queries.");
+        }
+        if (parameters != null && parameters.size() != queries.size()) {
+            throw new IllegalArgumentException("The batch has " + queries.size() + " queries but "
+                    + parameters.size() + " parameter sets.");
+        }
+
+        // Each query runs in its own read transaction, so on its own session
+        return toolMetrics.mono(Neo4jConstants.BATCH_READ_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> Flux.range(0, queries.size())
+                        .flatMapSequential(index -> batchRead(invocation, index, queries.get(index),
+                                parameters == null ? null : parameters.get(index)), batchConfig.getParallelism())
+                        .doOnNext(result -> invocation.addRows(result.getRows() == null ? 0 : result.getRows().size()))
+                        .collectList());
+    }
+
+    private Mono<BatchQueryResult> batchRead(ToolInvocation invocation, int index, String query,
+            Map<String, Object> parameters) {
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (classification.isWrite()) {
+            return Mono.just(BatchQueryResult.failure(index, query, new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.")));
+        }
+
+        String limited = resultBudgets.pushDown(Neo4jConstants.BATCH_READ_TOOL, query, classification);
+        ResultBudget budget = new ResultBudget();
+        return guard(limited, classification, parameters)
+                .thenMany(resultBudgets.limit(Neo4jConstants.BATCH_READ_TOOL, budget, resultCache.get(
+                        Neo4jConstants.DATASOURCE, QueryNormalizer.CYPHER, limited, parameters, Set.of(),
+                        () -> invocation.executes(QueryNormalizer.CYPHER, query, transactions.read(client.query(limited)
+                                .bindAll(parameters(parameters))
+                                .fetch()
+                                .all())))))
+                .collectList()
+                .map(rows -> BatchQueryResult.success(index, query, rows, budget.getReason()))
+                .onErrorResume(e -> Mono.just(BatchQueryResult.failure(index, query, e)));
+    }
+
+    /**
+     * Checks the plan of a read query with the cost guard before it runs.
+     * Commands that cannot be explained are not checked.
+     */
+    private Mono<Void> guard(String query, StatementClassification classification, Map<String, Object> parameters) {
+        String leading = classification.leadingKeyword();
+        if ("EXPLAIN".equals(leading) || "PROFILE".equals(leading) || "SHOW".equals(leading)) {
+            return Mono.empty();
+        }
+        return costGuard.check(Neo4jConstants.DATASOURCE, QueryNormalizer.CYPHER, query, parameters,
+                () -> explainer.explain(query, parameters(parameters)));
+    }
+
+    @Tool(name = Neo4jConstants.EXPORT_TOOL, description = """
+            Executes a read query on the Neo4j database and streams all of its result to a file of the export directory of the server, instead of returning it.
+            Returns the path of the file, its number of rows and size in bytes, and a preview of the first rows. Use it when the full result is needed for further processing.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<ExportResult> exportQuery(
+            @ToolParam(description = "The Cypher query to execute") String query,
+            @ToolParam(description = "The file format: 'ndjson' (default) writes one JSON object per line, 'csv' writes a header line followed by one line per row", required = false) String format,
+            @ToolParam(description = "Whether to compress the file with gzip", required = false) Boolean compress,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as $name in the query", required = false) Map<String, Object> parameters) {
+        log.info("Exporting query result: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        if (!exportConfig.isEnabled()) {
+            throw new IllegalStateException("Export is not enabled in the configuration.");
+        }
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.");
+        }
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return toolMetrics.mono(Neo4jConstants.EXPORT_TOOL, Neo4jConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.CYPHER, query);
+            Flux<Map<String, Object>> records = transactions.read(client.query(query)
+                    .bindAll(parameters(parameters))
+                    .fetch()
+                    .all());
+            return guard(query, classification, parameters)
+                    .then(resultExporter.export(Neo4jConstants.DATASOURCE, records, exportFormat,
+                            Boolean.TRUE.equals(compress)))
+                    .doOnNext(export -> invocation.addRows(export.getRows()));
+        });
+    }
+
+    @Tool(name = Neo4jConstants.PROFILE_TOOL, description = """
+            Executes a query on the Neo4j database with PROFILE and returns its execution plan as a tree: the operator of each step with its estimated and actual rows, its database hits and, when the runtime reports them, its time and page cache accesses.
+            The hottest steps, the ones taking the largest share of the time or of the database hits, are listed first. The records of the query are not returned.
+            The query runs in a transaction that is always rolled back. Queries that write can only be profiled when write mode is enabled.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryProfile> profileQuery(
+            @ToolParam(description = "The Cypher query to profile") String query,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as $name in the query", required = false) Map<String, Object> parameters) {
+        log.info("Profiling query: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        String leading = classification.leadingKeyword();
+        if ("EXPLAIN".equals(leading) || "PROFILE".equals(leading) || "SHOW".equals(leading)
+                || classification.has(StatementKind.DDL)) {
+            throw new IllegalArgumentException("Commands and schema changes cannot be profiled.");
+        }
+        // these commit their own transactions, or act outside of them, which the rollback would not undo
+        if (classification.autoCommit() || classification.has(StatementKind.OTHER)
+                || classification.has(StatementKind.PROCEDURE) && classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "Queries committing their own transactions, administration commands and write procedures cannot be profiled.");
+        }
+        if (classification.isWrite() && !clientConfig.isWriteMode()) {
+            throw new IllegalStateException("Write mode is not enabled in the configuration, queries that write cannot be profiled.");
+        }
+
+        return toolMetrics.mono(Neo4jConstants.PROFILE_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> explainer.profile(query, parameters(parameters)));
+    }
+
+    @Tool(name = Neo4jConstants.STATISTICS_TOOL, description = """
+            Returns the execution statistics of the queries run on the Neo4j database by this server, grouped by fingerprint: queries differing only in their literals, which are replaced with ?, share the same statistics.
+            For each of them: the number of calls, errors and records, and the total, mean, minimum and maximum time. The latest queries slower than the slow query threshold can be included.
+            Use it to find the queries worth optimizing, then "Profile Neo4j query" to see where their time goes.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryStatisticsReport> getQueryStatistics(
+            @ToolParam(description = "The order of the queries, largest first: 'total_time' (default), 'mean_time', 'max_time', 'calls', 'rows' or 'errors'", required = false) String order,
+            @ToolParam(description = "The maximum number of queries to return, 20 by default", required = false) Integer limit,
+            @ToolParam(description = "Whether to include the latest slow queries, true by default", required = false) Boolean slowQueries) {
+        log.info("Fetching query statistics ordered by: {}", order);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        StatisticsOrder statisticsOrder = StatisticsOrder.of(order);
+
+        return toolMetrics.mono(Neo4jConstants.STATISTICS_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> Mono.fromSupplier(() -> queryStatistics.report(Neo4jConstants.DATASOURCE,
+                        statisticsOrder, limit == null ? 20 : limit, !Boolean.FALSE.equals(slowQueries)))
+                        .doOnNext(report -> invocation.addRows(report.getStatements().size())));
+    }
+
+    @Tool(name = Neo4jConstants.WRITE_TOOL, description = "Executes a write query on the Neo4j database and returns the result as a map.", resultConverter = ReactorConverter.class)
     private Flux<Map<String, Object>> execWriteQuery(
-            @ToolParam(description = "The Cypher query to execute") String query) {
+            @ToolParam(description = "The Cypher query to execute") String query,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as $name in the query", required = false) Map<String, Object> parameters) {
         log.info("Executing write query: {}", query);
         if (!clientConfig.isWriteMode()) {
             throw new IllegalStateException("Write mode is not enabled in the configuration.");
         }
-        if (isReadQuery(query) && !clientConfig.isReadMode()) {
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (classification.isRead() && !clientConfig.isReadMode()) {
             throw new IllegalStateException("Read mode is not enabled in the configuration.");
         }
-        return client.query(query)
-                .fetch()
-                .all();
+        // The schema is inferred from the data, so any write may change it
+        return toolMetrics.flux(Neo4jConstants.WRITE_TOOL, Neo4jConstants.DATASOURCE,
+                invocation -> {
+                    invocation.executes(QueryNormalizer.CYPHER, query);
+                    Flux<Map<String, Object>> records = client.query(query)
+                            .bindAll(parameters(parameters))
+                            .fetch()
+                            .all();
+                    // CALL { } IN TRANSACTIONS and PERIODIC COMMIT only run in auto-commit transactions
+                    return classification.autoCommit() ? records : transactions.write(records);
+                })
+                .doFinally(signal -> {
+                    resultCache.invalidate(Neo4jConstants.DATASOURCE, Set.of());
+                    schemaCache.invalidate();
+                    labelCache.invalidate();
+                    relationshipTypeCache.invalidate();
+                });
     }
 
-    private boolean isWriteQuery(String cypherQuery) {
-        if (cypherQuery == null)
-            return false;
+    @Tool(name = Neo4jConstants.BATCH_WRITE_TOOL, description = """
+            Executes a write query on the Neo4j database for each set of parameters, in transactions, and returns the update counters.
+            The parameter sets are unwound as `row`, so the query refers to them as row.name, for example: CREATE (:Person {name: row.name, age: row.age}).
+            The parameter sets are executed in chunks; with commit mode 'all' (default) the whole batch is rolled back if any of them fails,
+            with commit mode 'chunk' each chunk is committed on its own and the errors of the failed chunks are reported.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<BatchWriteResult> execBatchWriteQuery(
+            @ToolParam(description = "The Cypher query to execute for each row") String query,
+            @ToolParam(description = "The parameter sets, one map of property name to value per row") List<Map<String, Object>> parameters,
+            @ToolParam(description = "The commit mode: 'all' (default) or 'chunk'", required = false) String commitMode) {
+        log.info("Executing batch write query with {} parameter sets: {}", parameters.size(), query);
+        if (!clientConfig.isWriteMode()) {
+            throw new IllegalStateException("Write mode is not enabled in the configuration.");
+        }
+        if (parameters.size() > batchConfig.getMaxParameterSets()) {
+            throw new IllegalArgumentException(
+                    "A batch cannot contain more than " + batchConfig.getMaxParameterSets() + " parameter sets.");
+        }
+
+        StatementClassification classification = StatementClassifier.CYPHER.classify(query);
+        if (!classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a read query, but this method only supports write queries.");
+        }
+        if (classification.autoCommit()) {
+            throw new IllegalArgumentException(
+                    "Queries committing their own transactions cannot be batched, use \"" + Neo4jConstants.WRITE_TOOL + "\".");
+        }
+
+        CommitMode mode = CommitMode.of(commitMode);
+        int chunkSize = batchConfig.getWriteChunkSize();
+        int chunks = (parameters.size() + chunkSize - 1) / chunkSize;
+        // One round-trip per chunk: the chunk is unwound by the server
+        String statement = "UNWIND $rows AS row\n" + query;
 
-        String regex = "(?i)\\b(CREATE|MERGE|SET|DELETE|REMOVE|DROP|LOAD CSV|CALL.*apoc\\..*create)\\b";
-        return cypherQuery.matches("(?s).*" + regex + ".*");
+        return toolMetrics.mono(Neo4jConstants.BATCH_WRITE_TOOL, Neo4jConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.CYPHER, statement);
+            Flux<List<Map<String, Object>>> chunked = Flux.fromIterable(parameters).buffer(chunkSize);
+            Mono<BatchWriteResult> result;
+            if (mode == CommitMode.ALL) {
+                result = transactions.write(chunked.concatMap(chunk -> writeChunk(statement, chunk))
+                        .reduceWith(LinkedHashMap<String, Long>::new, (total, counters) -> {
+                            counters.forEach((name, count) -> total.merge(name, count, Long::sum));
+                            return total;
+                        }))
+                        .map(counters -> BatchWriteResult.committed(parameters.size(), chunks, affected(counters), counters))
+                        .onErrorResume(e -> Mono.just(BatchWriteResult.rolledBack(parameters.size(), chunks, e)));
+            } else {
+                result = chunked.index()
+                        .concatMap(chunk -> transactions.write(writeChunk(statement, chunk.getT2()))
+                                .map(counters -> BatchWriteResult.Chunk.committed(chunk.getT1().intValue(),
+                                        affected(counters), counters))
+                                .onErrorResume(e -> Mono.just(BatchWriteResult.Chunk.failed(chunk.getT1().intValue(), e))))
+                        .collectList()
+                        .map(outcomes -> BatchWriteResult.of(mode, parameters.size(), outcomes));
+            }
+            return result.doOnNext(batch -> invocation.addRows(batch.getAffected()));
+        })
+                .doFinally(signal -> {
+                    resultCache.invalidate(Neo4jConstants.DATASOURCE, Set.of());
+                    schemaCache.invalidate();
+                    labelCache.invalidate();
+                    relationshipTypeCache.invalidate();
+                });
     }
 
-    private boolean isReadQuery(String cypherQuery) {
-        return !isWriteQuery(cypherQuery);
+    private Mono<Map<String, Long>> writeChunk(String statement, List<Map<String, Object>> chunk) {
+        return client.query(statement)
+                .bind(chunk).to("rows")
+                .run()
+                .map(summary -> {
+                    SummaryCounters counters = summary.counters();
+                    Map<String, Long> values = new LinkedHashMap<>();
+                    values.put("nodesCreated", (long) counters.nodesCreated());
+                    values.put("nodesDeleted", (long) counters.nodesDeleted());
+                    values.put("relationshipsCreated", (long) counters.relationshipsCreated());
+                    values.put("relationshipsDeleted", (long) counters.relationshipsDeleted());
+                    values.put("propertiesSet", (long) counters.propertiesSet());
+                    values.put("labelsAdded", (long) counters.labelsAdded());
+                    values.put("labelsRemoved", (long) counters.labelsRemoved());
+                    return values;
+                });
     }
 
-    private Mono<List<Neo4jSchema.Neo4jNode>> getNodes() {
+    /**
+     * Nodes and relationships created or deleted and properties set: what a
+     * row count would be for a table.
+     */
+    private static long affected(Map<String, Long> counters) {
+        return counters.getOrDefault("nodesCreated", 0L) + counters.getOrDefault("nodesDeleted", 0L)
+                + counters.getOrDefault("relationshipsCreated", 0L) + counters.getOrDefault("relationshipsDeleted", 0L)
+                + counters.getOrDefault("propertiesSet", 0L);
+    }
 
-        return client.query("CALL db.labels()")
-                .fetchAs(String.class)
-                .all()
-                .flatMap(label -> {
-                    String query = String.format("MATCH (n:`%s`) RETURN DISTINCT keys(n) AS props", label);
-                    return client
-                            .query(query)
-                            .fetchAs(Neo4jSchema.Neo4jNode.class)
-                            .mappedBy((it, record) -> {
-                                List<String> properties = record.get("props").asList(Value::asString);
-                                return new Neo4jSchema.Neo4jNode(label, properties);
-                            })
-                            .all();
-                })
-                .collectList();
-    }
-
-    private Mono<List<Neo4jSchema.Neo4jEdge>> getEdges() {
-
-        return client
-                .query("MATCH (a)-[r]->(b) " +
-                        "WITH type(r) as relType, keys(r) as relProp, labels(a)[0] as sourceLabel, labels(b)[0] as targetLabel "
-                        +
-                        "RETURN DISTINCT relType, relProp, sourceLabel, targetLabel")
-                .fetchAs(Neo4jSchema.Neo4jEdge.class)
-                .mappedBy((it, record) -> {
-                    String name = record.get("relType").asString();
-                    List<String> properties = record.get("relProp").asList(Value::asString);
-                    String sourceLabel = record.get("sourceLabel").asString();
-                    String targetLabel = record.get("targetLabel").asString();
-                    return new Neo4jSchema.Neo4jEdge(name, properties, sourceLabel, targetLabel);
-                })
-                .all()
-                .collectList();
+    private static Map<String, Object> parameters(Map<String, Object> parameters) {
+        return parameters == null ? Map.of() : parameters;
+    }
+
+    private Mono<String> getSchemaFingerprint() {
+        return schemaInference.fingerprint();
     }
 }
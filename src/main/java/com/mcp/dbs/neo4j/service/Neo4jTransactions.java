@@ -0,0 +1,89 @@
+package com.mcp.dbs.neo4j.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import com.mcp.dbs.admission.StatementTimeout;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Runs Cypher queries in read or write transactions of the Neo4j transaction
+ * manager.
+ * <p>
+ * Read transactions open sessions in read access mode, so that cluster
+ * routing sends them to followers and read replicas; the server also rejects
+ * any write they attempt. The bookmarks of committed write transactions are
+ * kept by the transaction manager and passed to the following transactions,
+ * so a read always sees the writes made before it.
+ * <p>
+ * The {@link StatementTimeout} of the Reactor context becomes the timeout of
+ * the transaction, after which the server terminates it.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.neo4j.uri")
+public class Neo4jTransactions {
+
+    private final ReactiveTransactionManager transactionManager;
+    private final Map<Definition, TransactionalOperator> operators = new ConcurrentHashMap<>();
+
+    public Neo4jTransactions(ReactiveTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public <T> Flux<T> read(Flux<T> records) {
+        return Flux.deferContextual(context -> operator(true, context).transactional(records));
+    }
+
+    public <T> Mono<T> read(Mono<T> value) {
+        return Mono.deferContextual(context -> operator(true, context).transactional(value));
+    }
+
+    public <T> Flux<T> write(Flux<T> records) {
+        return Flux.deferContextual(context -> operator(false, context).transactional(records));
+    }
+
+    public <T> Mono<T> write(Mono<T> value) {
+        return Mono.deferContextual(context -> operator(false, context).transactional(value));
+    }
+
+    /**
+     * Runs the query in a write transaction that is always rolled back, so
+     * that whatever it changes is never committed.
+     */
+    public <T> Mono<T> rolledBack(Mono<T> value) {
+        return Mono.deferContextual(context -> operator(false, context)
+                .execute(status -> {
+                    status.setRollbackOnly();
+                    return value;
+                })
+                .singleOrEmpty());
+    }
+
+    private TransactionalOperator operator(boolean readOnly, ContextView context) {
+        // transaction timeouts are in seconds
+        int timeout = StatementTimeout.of(context)
+                .filter(Duration::isPositive)
+                .map(duration -> (int) Math.max(1, (duration.toMillis() + 999) / 1000))
+                .orElse(TransactionDefinition.TIMEOUT_DEFAULT);
+        return operators.computeIfAbsent(new Definition(readOnly, timeout), key -> {
+            DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+            definition.setReadOnly(readOnly);
+            definition.setTimeout(timeout);
+            return TransactionalOperator.create(transactionManager, definition);
+        });
+    }
+
+    private record Definition(boolean readOnly, int timeout) {
+    }
+}
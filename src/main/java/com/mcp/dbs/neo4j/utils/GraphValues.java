@@ -0,0 +1,76 @@
+package com.mcp.dbs.neo4j.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Path;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.driver.types.TypeSystem;
+
+import com.mcp.dbs.converter.GraphResult;
+
+/**
+ * Maps Neo4j records to the rows of a {@link GraphResult}: nodes,
+ * relationships and paths, also inside lists and maps, are added to the row
+ * and replaced by references to the graph.
+ */
+public class GraphValues {
+
+    public static GraphResult.Row toRow(TypeSystem types, Record record) {
+        GraphResult.Row row = new GraphResult.Row(record.size());
+        for (int i = 0; i < record.size(); i++) {
+            row.set(i, toValue(types, record.get(i), row));
+        }
+        return row;
+    }
+
+    private static Object toValue(TypeSystem types, Value value, GraphResult.Row row) {
+        if (types.NODE().isTypeOf(value)) {
+            return node(value.asNode(), row);
+        }
+        if (types.RELATIONSHIP().isTypeOf(value)) {
+            return relationship(value.asRelationship(), row);
+        }
+        if (types.PATH().isTypeOf(value)) {
+            Path path = value.asPath();
+            List<String> ids = new ArrayList<>();
+            ids.add(path.start().elementId());
+            node(path.start(), row);
+            for (Path.Segment segment : path) {
+                relationship(segment.relationship(), row);
+                node(segment.end(), row);
+                ids.add(segment.relationship().elementId());
+                ids.add(segment.end().elementId());
+            }
+            return Map.of("path", ids);
+        }
+        if (types.LIST().isTypeOf(value)) {
+            return value.asList(element -> toValue(types, element, row));
+        }
+        if (types.MAP().isTypeOf(value)) {
+            return value.asMap(entry -> toValue(types, entry, row));
+        }
+        return value.asObject();
+    }
+
+    private static Object node(Node node, GraphResult.Row row) {
+        return row.node(node.elementId(), () -> new GraphResult.Node(node.elementId(),
+                toList(node.labels()), node.asMap()));
+    }
+
+    private static Object relationship(Relationship relationship, GraphResult.Row row) {
+        return row.relationship(relationship.elementId(), () -> new GraphResult.Relationship(
+                relationship.elementId(), relationship.type(), relationship.startNodeElementId(),
+                relationship.endNodeElementId(), relationship.asMap()));
+    }
+
+    private static List<String> toList(Iterable<String> labels) {
+        List<String> list = new ArrayList<>();
+        labels.forEach(list::add);
+        return list;
+    }
+}
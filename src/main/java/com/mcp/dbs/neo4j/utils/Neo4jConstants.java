@@ -1,16 +1,94 @@
 package com.mcp.dbs.neo4j.utils;
 
 import java.util.List;
+import java.util.Set;
 
 public class Neo4jConstants {
+    public static final String DATASOURCE = "neo4j";
+
+    public static final String SCHEMA_TOOL = "Get Neo4j schema";
+    public static final String LIST_LABELS_TOOL = "List Neo4j labels";
+    public static final String DESCRIBE_LABELS_TOOL = "Describe Neo4j labels";
+    public static final String READ_TOOL = "Execute Neo4j read query";
+    public static final String WRITE_TOOL = "Execute Neo4j write query";
+    public static final String PAGED_READ_TOOL = "Execute Neo4j paged read query";
+    public static final String FETCH_PAGE_TOOL = "Fetch Neo4j query page";
+    public static final String BATCH_READ_TOOL = "Execute Neo4j batch read query";
+    public static final String BATCH_WRITE_TOOL = "Execute Neo4j batch write query";
+    public static final String PROFILE_TOOL = "Profile Neo4j query";
+    public static final String EXPORT_TOOL = "Export Neo4j query result";
+    public static final String STATISTICS_TOOL = "Get Neo4j query statistics";
+
+    public static final Set<String> READ_TOOLS = Set.of(READ_TOOL, PAGED_READ_TOOL, FETCH_PAGE_TOOL, BATCH_READ_TOOL,
+            PROFILE_TOOL, EXPORT_TOOL, STATISTICS_TOOL);
+    public static final Set<String> WRITE_TOOLS = Set.of(WRITE_TOOL, BATCH_WRITE_TOOL);
+    /** Tools whose statement keeps running after the call returns, to a file or through a cursor. */
+    public static final Set<String> STREAMING_TOOLS = Set.of(PAGED_READ_TOOL, FETCH_PAGE_TOOL, EXPORT_TOOL);
+
+    /*
+     * Keyword tables of the statement classifier.
+     */
+    public static final List<String> READ_KEYWORDS = List.of(
+        "MATCH", "OPTIONAL", "RETURN", "WITH", "UNWIND", "UNION", "SHOW", "USE", "EXPLAIN", "PROFILE"
+    );
+
+    public static final List<String> DML_KEYWORDS = List.of(
+        "CREATE", "MERGE", "SET", "DELETE", "DETACH", "REMOVE", "FOREACH", "LOAD"
+    );
+
+    public static final List<String> DDL_KEYWORDS = List.of(
+        "DROP", "ALTER", "RENAME", "GRANT", "DENY", "REVOKE", "TERMINATE"
+    );
+
+    public static final List<String> PROCEDURE_KEYWORDS = List.of(
+        "CALL"
+    );
+
+    /**
+     * Words that turn {@code CREATE} into a schema or administration command.
+     */
+    public static final List<String> SCHEMA_OBJECT_KEYWORDS = List.of(
+        "INDEX", "CONSTRAINT", "DATABASE", "ALIAS", "USER", "ROLE", "COMPOSITE", "OR", "RANGE", "TEXT",
+        "POINT", "LOOKUP", "FULLTEXT", "VECTOR", "BTREE"
+    );
+
+    public static final List<String> CLAUSE_KEYWORDS = List.of(
+        "AS", "WHERE", "ORDER", "SKIP", "LIMIT", "IN", "TRANSACTIONS", "USING", "PERIODIC", "COMMIT"
+    );
+
+    /**
+     * Prefixes of the execution plan operators that write to the graph.
+     */
     public static final List<String> WRITE_OPERATORS = List.of(
-        "CreateNode",
-        "CreateRelationship",
-        "Merge",
-        "SetProperty",
-        "DeleteEntity",
-        "RemoveProperty",
-        "RemoveLabels",
-        "Drop"
+        "Create", "Merge", "Set", "Remove", "Delete", "DetachDelete", "Drop", "Foreach"
+    );
+
+    /**
+     * Execution plan operators reading all the nodes or relationships, or all
+     * of a label or type.
+     */
+    public static final List<String> FULL_SCAN_OPERATORS = List.of(
+        "AllNodesScan", "NodeByLabelScan", "DirectedAllRelationshipsScan", "UndirectedAllRelationshipsScan",
+        "DirectedRelationshipTypeScan", "UndirectedRelationshipTypeScan"
+    );
+
+    public static final List<String> CARTESIAN_OPERATORS = List.of(
+        "CartesianProduct"
+    );
+
+    /**
+     * Procedures known to only read, the ones a read query can call. Names
+     * are compared case-insensitively; any other procedure is a write.
+     */
+    public static final List<String> READ_PROCEDURES = List.of(
+        "db.labels", "db.relationshipTypes", "db.propertyKeys", "db.info", "db.ping",
+        "db.schema.visualization", "db.schema.nodeTypeProperties", "db.schema.relTypeProperties",
+        "db.index.fulltext.queryNodes", "db.index.fulltext.queryRelationships",
+        "db.index.vector.queryNodes", "db.index.vector.queryRelationships",
+        "dbms.components", "dbms.info",
+        "apoc.help", "apoc.meta.data", "apoc.meta.schema", "apoc.meta.stats", "apoc.meta.graph",
+        "apoc.meta.nodeTypeProperties", "apoc.meta.relTypeProperties",
+        "apoc.path.expand", "apoc.path.expandConfig", "apoc.path.subgraphNodes", "apoc.path.subgraphAll",
+        "apoc.path.spanningTree"
     );
 }
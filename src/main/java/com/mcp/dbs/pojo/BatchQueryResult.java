@@ -0,0 +1,39 @@
+package com.mcp.dbs.pojo;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of one query of a batch: its rows, or the error that made it fail.
+ * Rows cut short by the budget of the tool are flagged as truncated, with
+ * the budget that was used up.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchQueryResult {
+    private int index;
+    private String query;
+    private List<Map<String, Object>> rows;
+    private Boolean truncated;
+    private String reason;
+    private String error;
+
+    /**
+     * @param reason the budget that cut the rows short, {@code null} when
+     *               they are complete
+     */
+    public static BatchQueryResult success(int index, String query, List<Map<String, Object>> rows, String reason) {
+        return new BatchQueryResult(index, query, rows, reason == null ? null : true, reason, null);
+    }
+
+    public static BatchQueryResult failure(int index, String query, Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return new BatchQueryResult(index, query, null, null, null, message);
+    }
+}
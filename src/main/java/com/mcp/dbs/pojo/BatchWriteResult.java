@@ -0,0 +1,84 @@
+package com.mcp.dbs.pojo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Aggregated outcome of a batched write: the number of parameter sets and
+ * chunks, the rows (or graph entities) affected by the committed chunks and
+ * the errors of the chunks that were rolled back.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BatchWriteResult {
+    private CommitMode commitMode;
+    private int parameterSets;
+    private int chunks;
+    private int committedChunks;
+    private long affected;
+    private Map<String, Long> counters;
+    private List<ChunkError> errors;
+
+    public static BatchWriteResult of(CommitMode commitMode, int parameterSets, List<Chunk> chunks) {
+        int committed = 0;
+        long affected = 0;
+        Map<String, Long> counters = new LinkedHashMap<>();
+        List<ChunkError> errors = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            if (chunk.error() != null) {
+                errors.add(new ChunkError(chunk.index(), chunk.error()));
+                continue;
+            }
+            committed++;
+            affected += chunk.affected();
+            chunk.counters().forEach((name, count) -> counters.merge(name, count, Long::sum));
+        }
+        return new BatchWriteResult(commitMode, parameterSets, chunks.size(), committed, affected, counters, errors);
+    }
+
+    /**
+     * Outcome of a whole batch committed in one transaction.
+     */
+    public static BatchWriteResult committed(int parameterSets, int chunks, long affected, Map<String, Long> counters) {
+        return new BatchWriteResult(CommitMode.ALL, parameterSets, chunks, chunks, affected, counters, List.of());
+    }
+
+    /**
+     * Outcome of a whole batch rolled back by a failure.
+     */
+    public static BatchWriteResult rolledBack(int parameterSets, int chunks, Throwable error) {
+        return new BatchWriteResult(CommitMode.ALL, parameterSets, chunks, 0, 0, Map.of(),
+                List.of(new ChunkError(null, message(error))));
+    }
+
+    public static String message(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    /**
+     * Outcome of one chunk: the rows it affected and, for graphs, the update
+     * counters, or the error that rolled it back.
+     */
+    public record Chunk(int index, long affected, Map<String, Long> counters, String error) {
+
+        public static Chunk committed(int index, long affected, Map<String, Long> counters) {
+            return new Chunk(index, affected, counters, null);
+        }
+
+        public static Chunk failed(int index, Throwable error) {
+            return new Chunk(index, 0, Map.of(), message(error));
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ChunkError(Integer chunk, String error) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.mcp.dbs.pojo;
+
+import java.util.Locale;
+
+/**
+ * How the chunks of a batched write are committed.
+ */
+public enum CommitMode {
+    /**
+     * All the chunks in one transaction: the batch is applied entirely or not
+     * at all.
+     */
+    ALL,
+    /**
+     * Each chunk in its own transaction: a failing chunk is rolled back and
+     * the following ones are still applied.
+     */
+    CHUNK;
+
+    public static CommitMode of(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return ALL;
+        }
+        try {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported commit mode: " + mode);
+        }
+    }
+}
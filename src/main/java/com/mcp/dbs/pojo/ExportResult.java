@@ -0,0 +1,19 @@
+package com.mcp.dbs.pojo;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ExportResult {
+    private String path;
+    private String format;
+    private boolean compressed;
+    private long rows;
+    private long bytes;
+    private boolean truncated;
+    private List<Map<String, Object>> preview;
+}
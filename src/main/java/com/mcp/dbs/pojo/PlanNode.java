@@ -0,0 +1,58 @@
+package com.mcp.dbs.pojo;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+
+/**
+ * An operator of a profiled execution plan, with what the database estimated
+ * and what it measured. The measures a database does not report are left
+ * out.
+ * <p>
+ * Times are in milliseconds and include the time of the children;
+ * {@code selfTimeMs} does not. {@code share} is the fraction of the self
+ * time, or of the database hits when there are no times, spent in this
+ * operator.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlanNode {
+    private int id;
+    private final String operator;
+    private final String details;
+    private final Double estimatedRows;
+    private final Long actualRows;
+    private final Long loops;
+    private final Double timeMs;
+    private Double selfTimeMs;
+    private final Long buffers;
+    private final Long dbHits;
+    private Double share;
+    private Boolean hot;
+    private final List<PlanNode> children;
+
+    public PlanNode(String operator, String details, Double estimatedRows, Long actualRows, Long loops,
+            Double timeMs, Long buffers, Long dbHits, List<PlanNode> children) {
+        this.operator = operator;
+        this.details = details;
+        this.estimatedRows = estimatedRows;
+        this.actualRows = actualRows;
+        this.loops = loops;
+        this.timeMs = timeMs;
+        this.buffers = buffers;
+        this.dbHits = dbHits;
+        this.children = children;
+    }
+
+    void measured(int id, Double selfTimeMs) {
+        this.id = id;
+        this.selfTimeMs = selfTimeMs;
+    }
+
+    void share(double share, boolean hot) {
+        this.share = share;
+        this.hot = hot ? Boolean.TRUE : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mcp.dbs.pojo;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QueryPage {
+    private List<Map<String, Object>> rows;
+    private String cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,85 @@
+package com.mcp.dbs.pojo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A profiled execution plan, and its hottest operators: the ones taking the
+ * largest shares of the self time, or of the database hits, most expensive
+ * first.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueryProfile {
+
+    private static final int MAX_HOTSPOTS = 3;
+    private static final double MIN_HOT_SHARE = 0.1;
+
+    private Double executionTimeMs;
+    private boolean rolledBack;
+    private List<Hotspot> hotspots;
+    private PlanNode plan;
+
+    /**
+     * Numbers the operators, derives their self time and highlights the
+     * hottest ones.
+     *
+     * @param rolledBack whether the statement modified data that was rolled
+     *                   back after profiling
+     */
+    public static QueryProfile of(PlanNode plan, Double executionTimeMs, boolean rolledBack) {
+        List<PlanNode> nodes = new ArrayList<>();
+        number(plan, nodes);
+
+        boolean timed = nodes.stream().anyMatch(node -> node.getSelfTimeMs() != null);
+        double total = nodes.stream().mapToDouble(node -> measure(node, timed)).sum();
+        List<PlanNode> hottest = nodes.stream()
+                .filter(node -> total > 0 && measure(node, timed) / total >= MIN_HOT_SHARE)
+                .sorted(Comparator.comparingDouble((PlanNode node) -> measure(node, timed)).reversed())
+                .limit(MAX_HOTSPOTS)
+                .toList();
+        if (total > 0) {
+            nodes.forEach(node -> node.share(measure(node, timed) / total, hottest.contains(node)));
+        }
+
+        List<Hotspot> hotspots = hottest.stream()
+                .map(node -> new Hotspot(node.getId(), node.getOperator(), node.getDetails(), node.getShare()))
+                .toList();
+        return new QueryProfile(executionTimeMs, rolledBack, hotspots, plan);
+    }
+
+    private static void number(PlanNode node, List<PlanNode> nodes) {
+        Double selfTime = node.getTimeMs();
+        if (selfTime != null) {
+            for (PlanNode child : node.getChildren()) {
+                if (child.getTimeMs() != null) {
+                    selfTime -= child.getTimeMs();
+                }
+            }
+            selfTime = Math.max(0, selfTime);
+        }
+        node.measured(nodes.size(), selfTime);
+        nodes.add(node);
+        node.getChildren().forEach(child -> number(child, nodes));
+    }
+
+    private static double measure(PlanNode node, boolean timed) {
+        // not a ternary: Double and Long operands would be unboxed
+        Number measure = node.getDbHits();
+        if (timed) {
+            measure = node.getSelfTimeMs();
+        }
+        return measure == null ? 0 : measure.doubleValue();
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Hotspot(int id, String operator, String details, double share) {
+    }
+}
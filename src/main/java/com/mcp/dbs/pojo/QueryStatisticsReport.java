@@ -0,0 +1,17 @@
+package com.mcp.dbs.pojo;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class QueryStatisticsReport {
+    private Instant since;
+    private int fingerprints;
+    private long evicted;
+    private List<StatementStatistics> statements;
+    private List<SlowQuery> slowQueries;
+}
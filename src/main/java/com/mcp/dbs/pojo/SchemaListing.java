@@ -0,0 +1,26 @@
+package com.mcp.dbs.pojo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A page of the objects of a schema; the next page starts at
+ * {@code offset + objects.size()}.
+ */
+@Getter
+@AllArgsConstructor
+public class SchemaListing {
+    private List<SchemaObject> objects;
+    private int offset;
+    private boolean hasMore;
+
+    /**
+     * @param objects the objects of the page, plus one when there are more
+     */
+    public static SchemaListing of(List<SchemaObject> objects, int offset, int limit) {
+        boolean hasMore = objects.size() > limit;
+        return new SchemaListing(hasMore ? objects.subList(0, limit) : objects, offset, hasMore);
+    }
+}
@@ -0,0 +1,18 @@
+package com.mcp.dbs.pojo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A table, label or relationship type, with its (estimated) row count.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SchemaObject {
+    private String name;
+    private String type;
+    private Long count;
+}
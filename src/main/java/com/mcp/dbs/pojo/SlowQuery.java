@@ -0,0 +1,23 @@
+package com.mcp.dbs.pojo;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An execution slower than the slow query threshold. The query is the
+ * normalized one, so that no literal value ends up in the log.
+ */
+@Getter
+@AllArgsConstructor
+public class SlowQuery {
+    private Instant timestamp;
+    private String datasource;
+    private String tool;
+    private String fingerprint;
+    private String query;
+    private double timeMs;
+    private long rows;
+    private String outcome;
+}
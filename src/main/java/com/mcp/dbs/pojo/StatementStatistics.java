@@ -0,0 +1,27 @@
+package com.mcp.dbs.pojo;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Aggregated executions of the queries sharing a fingerprint, that is the
+ * same text once literals are replaced with {@code ?}.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementStatistics {
+    private String fingerprint;
+    private String datasource;
+    private String query;
+    private long calls;
+    private long errors;
+    private long rows;
+    private double totalTimeMs;
+    private double meanTimeMs;
+    private double minTimeMs;
+    private double maxTimeMs;
+    private Instant firstSeen;
+    private Instant lastSeen;
+}
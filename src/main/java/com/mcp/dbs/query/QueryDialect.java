@@ -0,0 +1,6 @@
+package com.mcp.dbs.query;
+
+public enum QueryDialect {
+    SQL,
+    CYPHER
+}
@@ -0,0 +1,311 @@
+package com.mcp.dbs.query;
+
+/**
+ * Single-pass, allocation-free tokenizer for SQL and Cypher statements.
+ * <p>
+ * The lexer only distinguishes what the classifiers need: words, quoted
+ * identifiers, literals, parameters and single-character symbols. Comments
+ * and whitespace are skipped. Token boundaries are exposed as offsets into
+ * the query text so that callers only allocate when they need a token's text.
+ * <p>
+ * Some SQL constructs are lexed differently by PostgreSQL and MySQL/MariaDB
+ * (backslash escapes, nested comments, dollar quoting, {@code --} without a
+ * trailing space). The default behaviour follows PostgreSQL; each
+ * {@code VARIANT_*} flag switches one of them to the MySQL behaviour, and
+ * {@link #getAmbiguities()} reports which of them actually affected the text.
+ */
+public class QueryLexer {
+
+    public enum Token {
+        WORD,
+        QUOTED,
+        STRING,
+        NUMBER,
+        PARAMETER,
+        SYMBOL,
+        END
+    }
+
+    public static final int VARIANT_BACKSLASH_ESCAPES = 1;
+    public static final int VARIANT_FLAT_COMMENTS = 2;
+    public static final int VARIANT_NO_DOLLAR_QUOTES = 4;
+    public static final int VARIANT_STRICT_DASH_COMMENTS = 8;
+    public static final int VARIANTS = 16;
+
+    private final String text;
+    private final int length;
+    private final QueryDialect dialect;
+    private final int variant;
+
+    private int position;
+    private int start;
+    private int end;
+    private Token token;
+    private int ambiguities;
+
+    public QueryLexer(String text, QueryDialect dialect) {
+        this(text, dialect, 0);
+    }
+
+    public QueryLexer(String text, QueryDialect dialect, int variant) {
+        this.text = text;
+        this.length = text.length();
+        this.dialect = dialect;
+        this.variant = variant;
+    }
+
+    public Token next() {
+        skipWhitespaceAndComments();
+        start = position;
+
+        if (position >= length) {
+            end = position;
+            return token = Token.END;
+        }
+
+        char c = text.charAt(position);
+        if (c == '\'') {
+            scanString('\'');
+            token = Token.STRING;
+        } else if (c == '"') {
+            if (dialect == QueryDialect.CYPHER) {
+                scanString('"');
+                token = Token.STRING;
+            } else {
+                scanQuoted('"');
+                token = Token.QUOTED;
+            }
+        } else if (c == '`') {
+            scanQuoted('`');
+            token = Token.QUOTED;
+        } else if (c == '$') {
+            token = scanDollar();
+        } else if (Character.isDigit(c)) {
+            scanNumber();
+            token = Token.NUMBER;
+        } else if (isWordStart(c)) {
+            scanWord();
+            token = Token.WORD;
+        } else {
+            position++;
+            token = Token.SYMBOL;
+        }
+
+        end = position;
+        return token;
+    }
+
+    public Token getToken() {
+        return token;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int getAmbiguities() {
+        return ambiguities;
+    }
+
+    public char symbol() {
+        return text.charAt(start);
+    }
+
+    public String text() {
+        return text.substring(start, end);
+    }
+
+    /**
+     * Text of a quoted identifier without its quotes.
+     */
+    public String unquoted() {
+        if (token != Token.QUOTED || end - start < 2) {
+            return text();
+        }
+        char quote = text.charAt(start);
+        return text.substring(start + 1, end - 1).replace(String.valueOf(quote) + quote, String.valueOf(quote));
+    }
+
+    public boolean is(String keyword) {
+        return token == Token.WORD && end - start == keyword.length()
+                && text.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    /**
+     * First non-whitespace character after the current token, or 0 at the
+     * end of the text.
+     */
+    public char peek() {
+        int i = position;
+        while (i < length && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i < length ? text.charAt(i) : 0;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < length) {
+            char c = text.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '-' && dialect == QueryDialect.SQL && charAt(position + 1) == '-') {
+                char after = charAt(position + 2);
+                if (after != 0 && !Character.isWhitespace(after)) {
+                    // MySQL only treats "-- " as a comment
+                    ambiguities |= VARIANT_STRICT_DASH_COMMENTS;
+                    if ((variant & VARIANT_STRICT_DASH_COMMENTS) != 0) {
+                        return;
+                    }
+                }
+                skipLine();
+            } else if (c == '/' && dialect == QueryDialect.CYPHER && charAt(position + 1) == '/') {
+                skipLine();
+            } else if (c == '/' && charAt(position + 1) == '*') {
+                if (dialect == QueryDialect.SQL && charAt(position + 2) == '!') {
+                    // MySQL executes the content of /*! ... */ comments
+                    position += 3;
+                } else {
+                    skipBlockComment();
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipLine() {
+        while (position < length && text.charAt(position) != '\n') {
+            position++;
+        }
+    }
+
+    private void skipBlockComment() {
+        position += 2;
+        int depth = 1;
+        while (position < length && depth > 0) {
+            char c = text.charAt(position);
+            if (c == '/' && charAt(position + 1) == '*') {
+                if (dialect == QueryDialect.SQL) {
+                    // PostgreSQL nests block comments, MySQL does not
+                    ambiguities |= VARIANT_FLAT_COMMENTS;
+                    if ((variant & VARIANT_FLAT_COMMENTS) == 0) {
+                        depth++;
+                    }
+                }
+                position += 2;
+            } else if (c == '*' && charAt(position + 1) == '/') {
+                depth--;
+                position += 2;
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private void scanString(char quote) {
+        boolean backslashEscapes = dialect == QueryDialect.CYPHER || (variant & VARIANT_BACKSLASH_ESCAPES) != 0;
+        position++;
+        while (position < length) {
+            char c = text.charAt(position);
+            if (c == '\\') {
+                if (dialect == QueryDialect.SQL) {
+                    ambiguities |= VARIANT_BACKSLASH_ESCAPES;
+                }
+                position += backslashEscapes ? 2 : 1;
+            } else if (c == quote) {
+                if (charAt(position + 1) == quote) {
+                    position += 2;
+                } else {
+                    position++;
+                    return;
+                }
+            } else {
+                position++;
+            }
+        }
+        position = Math.min(position, length);
+    }
+
+    private void scanQuoted(char quote) {
+        position++;
+        while (position < length) {
+            if (text.charAt(position) == quote) {
+                if (charAt(position + 1) == quote) {
+                    position += 2;
+                } else {
+                    position++;
+                    return;
+                }
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private Token scanDollar() {
+        int next = position + 1;
+        if (next < length && Character.isDigit(text.charAt(next))) {
+            position = next;
+            while (position < length && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            return Token.PARAMETER;
+        }
+
+        if (dialect == QueryDialect.SQL) {
+            int tagEnd = next;
+            while (tagEnd < length && isWordPart(text.charAt(tagEnd)) && text.charAt(tagEnd) != '$') {
+                tagEnd++;
+            }
+            if (tagEnd < length && text.charAt(tagEnd) == '$') {
+                // PostgreSQL dollar-quoted string, $tag$ is an identifier in MySQL
+                ambiguities |= VARIANT_NO_DOLLAR_QUOTES;
+                if ((variant & VARIANT_NO_DOLLAR_QUOTES) == 0) {
+                    String tag = text.substring(position, tagEnd + 1);
+                    int close = text.indexOf(tag, tagEnd + 1);
+                    position = close < 0 ? length : close + tag.length();
+                    return Token.STRING;
+                }
+            }
+        }
+
+        position = next;
+        while (position < length && isWordPart(text.charAt(position))) {
+            position++;
+        }
+        return Token.PARAMETER;
+    }
+
+    private void scanNumber() {
+        while (position < length) {
+            char c = text.charAt(position);
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void scanWord() {
+        while (position < length && isWordPart(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || (c == '$' && dialect == QueryDialect.SQL);
+    }
+
+    private char charAt(int index) {
+        return index < length ? text.charAt(index) : 0;
+    }
+}
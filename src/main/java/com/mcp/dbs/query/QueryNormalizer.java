@@ -0,0 +1,180 @@
+package com.mcp.dbs.query;
+
+import java.util.Map;
+
+/**
+ * Reduces a query to its shape: comments and whitespace are dropped and
+ * string and number literals are replaced with {@code ?}, so that queries
+ * differing only in their literals share the same text.
+ * <p>
+ * A SQL query that lexes differently on PostgreSQL and MySQL (see
+ * {@link QueryLexer}) is lexed under every variant it depends on instead:
+ * the characters that are part of a literal under any of them are masked,
+ * and only those that are code under all of them are kept, so that no
+ * literal is left in its shape whichever way the database reads it.
+ */
+public class QueryNormalizer {
+
+    public static final QueryNormalizer SQL = new QueryNormalizer(QueryDialect.SQL);
+    public static final QueryNormalizer CYPHER = new QueryNormalizer(QueryDialect.CYPHER);
+
+    private final QueryDialect dialect;
+
+    private QueryNormalizer(QueryDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public String normalize(String query) {
+        QueryLexer lexer = new QueryLexer(query, dialect);
+        StringBuilder shape = new StringBuilder(query.length());
+        for (QueryLexer.Token token = lexer.next(); token != QueryLexer.Token.END; token = lexer.next()) {
+            if (!shape.isEmpty()) {
+                shape.append(' ');
+            }
+            if (token == QueryLexer.Token.STRING || token == QueryLexer.Token.NUMBER) {
+                shape.append('?');
+            } else {
+                shape.append(query, lexer.getStart(), lexer.getEnd());
+            }
+        }
+        return lexer.getAmbiguities() == 0 ? shape.toString() : mask(query, lexer.getAmbiguities());
+    }
+
+    /**
+     * Shape of a query for caching its plan: like {@link #normalize(String)},
+     * but the literals that bound the rows, and so the estimates of the plan,
+     * are kept: those of {@code LIMIT}, {@code OFFSET}, {@code FETCH FIRST},
+     * {@code SKIP} and {@code TOP}, and the operands of range comparisons
+     * ({@code <}, {@code >}, {@code BETWEEN}). Parameters in these positions
+     * are followed by their value. An ambiguous SQL query is kept whole, with
+     * all of its parameters.
+     */
+    public String planShape(String query, Map<String, ?> parameters) {
+        Map<String, ?> values = parameters == null ? Map.of() : parameters;
+        QueryLexer lexer = new QueryLexer(query, dialect);
+        StringBuilder shape = new StringBuilder(query.length());
+        boolean bounding = false;
+        boolean limit = false;
+        boolean between = false;
+        boolean list = false;
+        int colon = -1;
+
+        for (QueryLexer.Token token = lexer.next(); token != QueryLexer.Token.END; token = lexer.next()) {
+            if (!shape.isEmpty()) {
+                shape.append(' ');
+            }
+            // :name, a named SQL parameter
+            boolean parameter = token == QueryLexer.Token.PARAMETER
+                    || token == QueryLexer.Token.WORD && colon >= 0 && colon + 1 == lexer.getStart();
+            colon = -1;
+
+            if (parameter || token == QueryLexer.Token.STRING || token == QueryLexer.Token.NUMBER) {
+                if (bounding) {
+                    shape.append(query, lexer.getStart(), lexer.getEnd());
+                    if (parameter) {
+                        String name = token == QueryLexer.Token.PARAMETER ? lexer.text().substring(1) : lexer.text();
+                        shape.append('=').append(values.get(name));
+                    }
+                } else {
+                    shape.append(parameter ? query.substring(lexer.getStart(), lexer.getEnd()) : "?");
+                }
+                list = bounding && limit;
+                between = bounding && between;
+                bounding = false;
+                limit = false;
+                continue;
+            }
+
+            shape.append(query, lexer.getStart(), lexer.getEnd());
+            if (token == QueryLexer.Token.SYMBOL) {
+                char symbol = lexer.symbol();
+                if (symbol == ':') {
+                    colon = lexer.getStart();
+                } else if (symbol == '<' || symbol == '>' || symbol == ',' && list) {
+                    bounding = true;
+                } else if (symbol != '=' && symbol != '-' && symbol != '+') {
+                    bounding = false;
+                }
+                list = false;
+            } else {
+                limit = lexer.is("LIMIT");
+                bounding = limit || lexer.is("OFFSET") || lexer.is("SKIP") || lexer.is("TOP")
+                        || lexer.is("FIRST") || lexer.is("NEXT") || lexer.is("BETWEEN")
+                        || lexer.is("AND") && between;
+                between = lexer.is("BETWEEN");
+                list = false;
+            }
+        }
+        return lexer.getAmbiguities() == 0 ? shape.toString() : query + " " + values;
+    }
+
+    /**
+     * Shape of an ambiguous query: runs of characters that are part of a
+     * literal under some variant become {@code ?}, and runs of those outside
+     * of a token under some variant, such as comments, a single space.
+     */
+    private String mask(String query, int ambiguities) {
+        boolean[] literal = new boolean[query.length()];
+        int[] code = new int[query.length()];
+        int variants = 0;
+
+        boolean[] done = new boolean[QueryLexer.VARIANTS];
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int variant = 0; variant < QueryLexer.VARIANTS; variant++) {
+                if (!done[variant] && (variant & ~ambiguities) == 0) {
+                    done[variant] = true;
+                    progress = true;
+                    variants++;
+                    QueryLexer lexer = new QueryLexer(query, dialect, variant);
+                    for (QueryLexer.Token token = lexer.next(); token != QueryLexer.Token.END; token = lexer.next()) {
+                        boolean masked = token == QueryLexer.Token.STRING || token == QueryLexer.Token.NUMBER;
+                        for (int i = lexer.getStart(); i < lexer.getEnd(); i++) {
+                            if (masked) {
+                                literal[i] = true;
+                            } else {
+                                code[i]++;
+                            }
+                        }
+                    }
+                    ambiguities |= lexer.getAmbiguities();
+                }
+            }
+        }
+
+        StringBuilder shape = new StringBuilder(query.length());
+        char last = ' ';
+        for (int i = 0; i < query.length(); i++) {
+            char c = literal[i] ? '?' : code[i] == variants ? query.charAt(i) : ' ';
+            if ((c == '?' || c == ' ') && c == last) {
+                continue;
+            }
+            shape.append(c);
+            last = c;
+        }
+        return shape.toString().strip();
+    }
+
+    /**
+     * Reduces a query to its tokens separated by single spaces, literals and
+     * quoted identifiers kept verbatim, so that queries differing only in
+     * whitespace, comments and trailing semicolons share the same text. An
+     * ambiguous SQL query is returned unchanged.
+     */
+    public String compact(String query) {
+        QueryLexer lexer = new QueryLexer(query, dialect);
+        StringBuilder compact = new StringBuilder(query.length());
+        int end = 0;
+        for (QueryLexer.Token token = lexer.next(); token != QueryLexer.Token.END; token = lexer.next()) {
+            if (!compact.isEmpty()) {
+                compact.append(' ');
+            }
+            compact.append(query, lexer.getStart(), lexer.getEnd());
+            if (token != QueryLexer.Token.SYMBOL || lexer.symbol() != ';') {
+                end = compact.length();
+            }
+        }
+        return lexer.getAmbiguities() == 0 ? compact.substring(0, end) : query;
+    }
+}
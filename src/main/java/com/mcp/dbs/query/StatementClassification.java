@@ -0,0 +1,58 @@
+package com.mcp.dbs.query;
+
+import java.util.Set;
+
+/**
+ * Result of {@link StatementClassifier#classify(String)}.
+ *
+ * @param kinds          the kinds of statement found anywhere in the query
+ * @param mutating       whether the query may write to the database
+ * @param leadingKeyword the first keyword of the first statement, upper case
+ * @param statements     the number of statements separated by {@code ;}
+ * @param returning      whether the query has a {@code RETURNING} clause
+ * @param autoCommit     whether the query manages its own transactions
+ *                       ({@code CALL ... IN TRANSACTIONS}, {@code USING
+ *                       PERIODIC COMMIT}) and must run in auto-commit mode
+ * @param tables         the unqualified, lower case names of the tables read
+ *                       or written, empty for Cypher
+ * @param limitAt        the offset after the last token of a single read
+ *                       statement that has no top-level {@code LIMIT} and
+ *                       can be given one there, or -1
+ */
+public record StatementClassification(Set<StatementKind> kinds, boolean mutating, String leadingKeyword,
+        int statements, boolean returning, boolean autoCommit, Set<String> tables, int limitAt) {
+
+    public boolean isWrite() {
+        return mutating;
+    }
+
+    public boolean isRead() {
+        return !mutating;
+    }
+
+    public boolean has(StatementKind kind) {
+        return kinds.contains(kind);
+    }
+
+    /**
+     * Whether this is a single {@code INSERT}, {@code UPDATE} or {@code DELETE}
+     * that does not return its rows yet.
+     */
+    public boolean isReturningCandidate() {
+        return statements == 1 && !returning
+                && ("INSERT".equals(leadingKeyword) || "UPDATE".equals(leadingKeyword)
+                        || "DELETE".equals(leadingKeyword));
+    }
+
+    /**
+     * The query with a top-level {@code LIMIT} clause, or the query unchanged
+     * when it cannot safely be limited. Trailing comments and semicolons are
+     * dropped along the way.
+     */
+    public String withLimit(String query, long limit) {
+        if (limitAt < 0) {
+            return query;
+        }
+        return query.substring(0, limitAt) + " LIMIT " + limit;
+    }
+}
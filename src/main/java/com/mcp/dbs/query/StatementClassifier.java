@@ -0,0 +1,552 @@
+package com.mcp.dbs.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.mcp.dbs.neo4j.utils.Neo4jConstants;
+import com.mcp.dbs.sql.utils.MySqlConstants;
+
+/**
+ * Classifies SQL and Cypher queries in a single pass over the tokens of
+ * {@link QueryLexer}, so keywords inside literals, comments, quoted
+ * identifiers, property accesses, parameters and aliases are ignored.
+ * <p>
+ * The classification fails closed: a query is a read only when every one of
+ * its statements starts with a read keyword, contains no write keyword and
+ * no locking clause, and only calls procedures known to read. Anything else,
+ * including statements the classifier does not know, is a write.
+ * <p>
+ * When a SQL query lexes differently on PostgreSQL and MySQL (see
+ * {@link QueryLexer}), every interpretation is classified and the results
+ * are merged, so hiding a write statement behind a dialect-specific quoting
+ * rule makes the query a write, not a read.
+ */
+public class StatementClassifier {
+
+    public static final StatementClassifier SQL = new StatementClassifier(QueryDialect.SQL);
+    public static final StatementClassifier CYPHER = new StatementClassifier(QueryDialect.CYPHER);
+
+    private static final StatementClassification EMPTY = new StatementClassification(
+            Collections.emptySet(), false, null, 0, false, false, Collections.emptySet(), -1);
+
+    private final QueryDialect dialect;
+    private final KeywordTable keywords;
+    private final Map<String, StatementKind> kinds = new HashMap<>();
+    private final Map<String, StatementKind> leadingKinds = new HashMap<>();
+    private final KeywordTable schemaObjects;
+    private final Set<String> readProcedures;
+
+    private StatementClassifier(QueryDialect dialect) {
+        this.dialect = dialect;
+
+        List<String> all = new ArrayList<>();
+        if (dialect == QueryDialect.SQL) {
+            register(kinds, StatementKind.READ, MySqlConstants.READ_KEYWORDS, all);
+            register(kinds, StatementKind.DML, MySqlConstants.DML_KEYWORDS, all);
+            register(kinds, StatementKind.DDL, MySqlConstants.DDL_KEYWORDS, all);
+            register(leadingKinds, StatementKind.DML, MySqlConstants.LEADING_DML_KEYWORDS, all);
+            register(leadingKinds, StatementKind.DDL, MySqlConstants.LEADING_DDL_KEYWORDS, all);
+            register(leadingKinds, StatementKind.PROCEDURE, MySqlConstants.PROCEDURE_KEYWORDS, all);
+            all.addAll(MySqlConstants.CLAUSE_KEYWORDS);
+            this.schemaObjects = new KeywordTable(List.of());
+            this.readProcedures = Set.of();
+        } else {
+            register(kinds, StatementKind.READ, Neo4jConstants.READ_KEYWORDS, all);
+            register(kinds, StatementKind.DML, Neo4jConstants.DML_KEYWORDS, all);
+            register(kinds, StatementKind.DDL, Neo4jConstants.DDL_KEYWORDS, all);
+            register(kinds, StatementKind.PROCEDURE, Neo4jConstants.PROCEDURE_KEYWORDS, all);
+            all.addAll(Neo4jConstants.CLAUSE_KEYWORDS);
+            this.schemaObjects = new KeywordTable(Neo4jConstants.SCHEMA_OBJECT_KEYWORDS);
+            this.readProcedures = new HashSet<>();
+            Neo4jConstants.READ_PROCEDURES.forEach(name -> readProcedures.add(name.toLowerCase(Locale.ROOT)));
+        }
+        this.keywords = new KeywordTable(all);
+    }
+
+    public StatementClassification classify(String query) {
+        if (query == null) {
+            return EMPTY;
+        }
+
+        Scan scan = new Scan(query, 0);
+        int ambiguities = scan.run();
+        if (ambiguities == 0) {
+            return scan.toClassification();
+        }
+
+        boolean[] done = new boolean[QueryLexer.VARIANTS];
+        done[0] = true;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int variant = 1; variant < QueryLexer.VARIANTS; variant++) {
+                if (!done[variant] && (variant & ~ambiguities) == 0) {
+                    done[variant] = true;
+                    Scan alternative = new Scan(query, variant);
+                    ambiguities |= alternative.run();
+                    scan.merge(alternative);
+                    progress = true;
+                }
+            }
+        }
+        return scan.toClassification();
+    }
+
+    private static void register(Map<String, StatementKind> target, StatementKind kind, List<String> words,
+            List<String> all) {
+        words.forEach(word -> target.put(word, kind));
+        all.addAll(words);
+    }
+
+    private enum TableState {
+        NONE,
+        EXPECT,
+        NAME,
+        PART,
+        AFTER
+    }
+
+    /**
+     * State of one pass over the query.
+     */
+    private final class Scan {
+
+        private final String query;
+        private final QueryLexer lexer;
+
+        private final Set<StatementKind> found = EnumSet.noneOf(StatementKind.class);
+        private Set<String> tables;
+        private boolean mutating;
+        private String leadingKeyword;
+        private int statements;
+        private boolean returning;
+        private boolean autoCommit;
+
+        private int depth;
+        private boolean inStatement;
+        private boolean statementStart = true;
+        private String leading;
+        private String previousKeyword;
+        private char previousSymbol;
+        private boolean previousName;
+
+        private boolean leadingPending;
+        private String lockPending;
+        private boolean createPending;
+        private boolean callPending;
+        private int callStart = -1;
+        private int callEnd;
+
+        private TableState tableState = TableState.NONE;
+        private String tableName;
+
+        private int lastEnd;
+        private boolean limited;
+        private boolean returnLast;
+
+        Scan(String query, int variant) {
+            this.query = query;
+            this.lexer = new QueryLexer(query, dialect, variant);
+        }
+
+        int run() {
+            for (QueryLexer.Token token = lexer.next(); ; token = lexer.next()) {
+                if (token != QueryLexer.Token.END
+                        && (token != QueryLexer.Token.SYMBOL || lexer.symbol() != ';')) {
+                    lastEnd = lexer.getEnd();
+                }
+                if (lockPending != null) {
+                    if ("FOR".equals(lockPending) ? lexer.is("UPDATE") || lexer.is("SHARE") || lexer.is("NO")
+                            || lexer.is("KEY") : lexer.is("IN")) {
+                        // SELECT ... FOR UPDATE, FOR [NO KEY | KEY] SHARE, LOCK IN SHARE MODE
+                        add(StatementKind.OTHER);
+                    }
+                    lockPending = null;
+                }
+                if (createPending) {
+                    createPending = false;
+                    boolean schema = token == QueryLexer.Token.WORD && schemaObjects.lookup(lexer) != null;
+                    add(schema ? StatementKind.DDL : StatementKind.DML);
+                }
+                if (callPending) {
+                    if (token == QueryLexer.Token.WORD || token == QueryLexer.Token.QUOTED
+                            || (token == QueryLexer.Token.SYMBOL && lexer.symbol() == '.')) {
+                        if (callStart < 0) {
+                            callStart = lexer.getStart();
+                        }
+                        callEnd = lexer.getEnd();
+                        continue;
+                    }
+                    callPending = false;
+                    resolveProcedure();
+                }
+
+                if (token == QueryLexer.Token.END) {
+                    if (leadingPending) {
+                        leading(null);
+                    }
+                    if (tableState == TableState.NAME || tableState == TableState.PART) {
+                        addTable();
+                    }
+                    return lexer.getAmbiguities();
+                }
+
+                String keyword = token == QueryLexer.Token.WORD ? keywords.lookup(lexer) : null;
+                if (!inStatement && !(token == QueryLexer.Token.SYMBOL && lexer.symbol() == ';')) {
+                    inStatement = true;
+                    statements++;
+                    leadingPending = true;
+                }
+                // the statement of (SELECT ...) UNION (SELECT ...) starts after the parentheses
+                if (leadingPending && !(token == QueryLexer.Token.SYMBOL && lexer.symbol() == '(')) {
+                    leadingPending = false;
+                    leading(keyword);
+                }
+
+                if (tableState != TableState.NONE && table(token, keyword)) {
+                    previousKeyword = null;
+                    previousSymbol = token == QueryLexer.Token.SYMBOL ? lexer.symbol() : 0;
+                    previousName = token != QueryLexer.Token.SYMBOL;
+                    statementStart = false;
+                    continue;
+                }
+
+                if (token == QueryLexer.Token.SYMBOL) {
+                    symbol(lexer.symbol());
+                } else if (keyword != null && !isIdentifier()) {
+                    keyword(keyword);
+                } else {
+                    previousKeyword = null;
+                    previousSymbol = 0;
+                    previousName = token == QueryLexer.Token.QUOTED
+                            || (token == QueryLexer.Token.WORD && keyword == null);
+                    statementStart = false;
+                }
+            }
+        }
+
+        /**
+         * Records the leading keyword of a statement; a statement that does
+         * not start with a known keyword is not known to be a read.
+         */
+        private void leading(String keyword) {
+            leading = keyword != null ? keyword : "";
+            if (statements == 1) {
+                leadingKeyword = keyword;
+            }
+            if (kinds.get(leading) == null && leadingKinds.get(leading) == null) {
+                add(StatementKind.OTHER);
+            }
+        }
+
+        private void symbol(char symbol) {
+            switch (symbol) {
+                case '(', '[', '{' -> depth++;
+                case ')', ']', '}' -> depth = Math.max(0, depth - 1);
+                default -> {
+                }
+            }
+
+            if (symbol == ';' && depth == 0) {
+                inStatement = false;
+                statementStart = true;
+                leading = null;
+            } else if (symbol == '(') {
+                // a sub-statement, unless the parenthesis opens a function call or a column list
+                statementStart = !previousName;
+            } else {
+                // the statement of a CTE or of EXPLAIN (options) follows the parenthesis
+                statementStart = symbol == ')' && depth == 0 && ("WITH".equals(leading) || "EXPLAIN".equals(leading));
+            }
+            previousKeyword = null;
+            previousSymbol = symbol;
+            previousName = false;
+        }
+
+        private void keyword(String keyword) {
+            StatementKind kind = kinds.get(keyword);
+            if (kind == null && statementStart) {
+                kind = leadingKinds.get(keyword);
+            }
+
+            if (dialect == QueryDialect.SQL) {
+                kind = sqlKeyword(keyword, kind);
+            } else if (kind == StatementKind.PROCEDURE) {
+                char next = lexer.peek();
+                if (next != '{' && next != '(') {
+                    callPending = true;
+                    callStart = -1;
+                }
+                kind = null;
+            } else if ("CREATE".equals(keyword)) {
+                createPending = true;
+                kind = null;
+            } else if (("TRANSACTIONS".equals(keyword) && "IN".equals(previousKeyword))
+                    || ("COMMIT".equals(keyword) && "PERIODIC".equals(previousKeyword))) {
+                autoCommit = true;
+            }
+
+            if (kind != null) {
+                add(kind);
+            }
+            if (depth == 0) {
+                limitClause(keyword);
+            }
+
+            statementStart = statementStart && ("EXPLAIN".equals(keyword) || "ANALYZE".equals(keyword)
+                    || "VERBOSE".equals(keyword));
+            previousKeyword = keyword;
+            previousSymbol = 0;
+            previousName = false;
+        }
+
+        private StatementKind sqlKeyword(String keyword, StatementKind kind) {
+            switch (keyword) {
+                case "UPDATE" -> {
+                    // SELECT ... FOR [NO KEY] UPDATE, ON UPDATE CASCADE, ON DUPLICATE KEY UPDATE
+                    if ("FOR".equals(previousKeyword) || "KEY".equals(previousKeyword)
+                            || "ON".equals(previousKeyword)) {
+                        return null;
+                    }
+                    tableState = TableState.EXPECT;
+                }
+                case "INTO" -> {
+                    tableState = TableState.EXPECT;
+                    // SELECT ... INTO creates a table or writes a file
+                    if ("SELECT".equals(leading) || "WITH".equals(leading)) {
+                        return StatementKind.DML;
+                    }
+                }
+                case "FROM", "JOIN", "TABLE" -> tableState = TableState.EXPECT;
+                case "FOR", "LOCK" -> lockPending = keyword;
+                case "INSERT", "DELETE", "REPLACE", "MERGE", "TRUNCATE", "COPY" -> {
+                    if (kind != null) {
+                        tableState = TableState.EXPECT;
+                    }
+                }
+                case "RETURNING" -> returning = true;
+                default -> {
+                }
+            }
+            return kind;
+        }
+
+        /**
+         * Tracks the top-level clauses that prevent appending a {@code LIMIT}:
+         * an existing limit, a locking clause or {@code INTO} in SQL, and in
+         * Cypher anything but {@code ORDER BY} and {@code SKIP} after the last
+         * {@code RETURN}.
+         */
+        private void limitClause(String keyword) {
+            if (dialect == QueryDialect.SQL) {
+                switch (keyword) {
+                    case "LIMIT", "FETCH", "OFFSET", "FOR", "LOCK", "INTO" -> limited = true;
+                    default -> {
+                    }
+                }
+                return;
+            }
+
+            switch (keyword) {
+                case "RETURN" -> returnLast = true;
+                case "ORDER", "SKIP", "AS", "IN" -> {
+                }
+                case "LIMIT", "UNION" -> {
+                    limited = true;
+                    returnLast = false;
+                }
+                default -> returnLast = false;
+            }
+        }
+
+        private int limitAt() {
+            if (mutating || statements != 1 || limited || leadingKeyword == null) {
+                return -1;
+            }
+            if (dialect == QueryDialect.SQL) {
+                return "SELECT".equals(leadingKeyword) || "WITH".equals(leadingKeyword) ? lastEnd : -1;
+            }
+            boolean command = "EXPLAIN".equals(leadingKeyword) || "PROFILE".equals(leadingKeyword)
+                    || "SHOW".equals(leadingKeyword);
+            return returnLast && !command ? lastEnd : -1;
+        }
+
+        /**
+         * Whether the current word is used as an identifier rather than as a
+         * keyword: qualified names, parameters, labels, aliases, map keys and
+         * SQL function calls.
+         */
+        private boolean isIdentifier() {
+            if (previousSymbol == '.' || previousSymbol == ':' || "AS".equals(previousKeyword)) {
+                return true;
+            }
+            char next = lexer.peek();
+            return dialect == QueryDialect.SQL ? next == '(' : next == ':';
+        }
+
+        /**
+         * Tracks the table names following FROM, JOIN, INTO, TABLE and the DML
+         * keywords, including comma separated lists with aliases.
+         *
+         * @return whether the token was consumed as part of a table reference
+         */
+        private boolean table(QueryLexer.Token token, String keyword) {
+            boolean word = token == QueryLexer.Token.WORD || token == QueryLexer.Token.QUOTED;
+            boolean symbol = token == QueryLexer.Token.SYMBOL;
+
+            switch (tableState) {
+                case EXPECT -> {
+                    if ("IF".equals(keyword) || "NOT".equals(keyword) || "EXISTS".equals(keyword)
+                            || "ONLY".equals(keyword)) {
+                        return true;
+                    }
+                    if (word && keyword == null) {
+                        tableName = name();
+                        tableState = TableState.NAME;
+                        return true;
+                    }
+                    tableState = TableState.NONE;
+                    return false;
+                }
+                case NAME -> {
+                    if (symbol && lexer.symbol() == '.') {
+                        tableState = TableState.PART;
+                        return true;
+                    }
+                    addTable();
+                    tableState = TableState.AFTER;
+                    return afterTable(token, keyword);
+                }
+                case PART -> {
+                    if (word) {
+                        tableName = name();
+                        tableState = TableState.NAME;
+                        return true;
+                    }
+                    addTable();
+                    tableState = TableState.NONE;
+                    return false;
+                }
+                case AFTER -> {
+                    return afterTable(token, keyword);
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private boolean afterTable(QueryLexer.Token token, String keyword) {
+            if (token == QueryLexer.Token.SYMBOL && lexer.symbol() == ',') {
+                tableState = TableState.EXPECT;
+                return true;
+            }
+            if ((token == QueryLexer.Token.WORD && (keyword == null || "AS".equals(keyword)))
+                    || token == QueryLexer.Token.QUOTED) {
+                return true;
+            }
+            tableState = TableState.NONE;
+            return false;
+        }
+
+        private String name() {
+            return (lexer.getToken() == QueryLexer.Token.QUOTED ? lexer.unquoted() : lexer.text())
+                    .toLowerCase(Locale.ROOT);
+        }
+
+        private void addTable() {
+            if (tables == null) {
+                tables = new HashSet<>();
+            }
+            tables.add(tableName);
+        }
+
+        /**
+         * Only the procedures of {@link Neo4jConstants#READ_PROCEDURES} are
+         * known to read; any other procedure may write.
+         */
+        private void resolveProcedure() {
+            found.add(StatementKind.PROCEDURE);
+            if (callStart < 0 || !readProcedures.contains(query.substring(callStart, callEnd).toLowerCase(Locale.ROOT))) {
+                mutating = true;
+            }
+        }
+
+        private void add(StatementKind kind) {
+            found.add(kind);
+            if (kind != StatementKind.READ) {
+                mutating = true;
+            }
+        }
+
+        void merge(Scan other) {
+            found.addAll(other.found);
+            mutating |= other.mutating;
+            returning |= other.returning;
+            autoCommit |= other.autoCommit;
+            statements = Math.max(statements, other.statements);
+            limited |= other.limited;
+            returnLast &= other.returnLast;
+            if (lastEnd != other.lastEnd) {
+                // the interpretations disagree on where the statement ends
+                limited = true;
+            }
+            if (other.tables != null) {
+                if (tables == null) {
+                    tables = new HashSet<>();
+                }
+                tables.addAll(other.tables);
+            }
+        }
+
+        StatementClassification toClassification() {
+            return new StatementClassification(Collections.unmodifiableSet(found), mutating, leadingKeyword,
+                    statements, returning, autoCommit, tables == null ? Collections.emptySet() : Collections.unmodifiableSet(tables),
+                    limitAt());
+        }
+    }
+
+    /**
+     * Case-insensitive keyword lookup bucketed by length, matching the token
+     * in place instead of extracting its text.
+     */
+    private static final class KeywordTable {
+
+        private final String[][] buckets;
+
+        KeywordTable(Collection<String> keywords) {
+            int longest = keywords.stream().mapToInt(String::length).max().orElse(0);
+            List<List<String>> byLength = new ArrayList<>();
+            for (int i = 0; i <= longest; i++) {
+                byLength.add(new ArrayList<>());
+            }
+            keywords.stream().distinct().forEach(keyword -> byLength.get(keyword.length()).add(keyword));
+
+            this.buckets = new String[longest + 1][];
+            for (int i = 0; i <= longest; i++) {
+                buckets[i] = byLength.get(i).toArray(String[]::new);
+            }
+        }
+
+        String lookup(QueryLexer lexer) {
+            int length = lexer.getEnd() - lexer.getStart();
+            if (length >= buckets.length) {
+                return null;
+            }
+            for (String keyword : buckets[length]) {
+                if (lexer.is(keyword)) {
+                    return keyword;
+                }
+            }
+            return null;
+        }
+    }
+}
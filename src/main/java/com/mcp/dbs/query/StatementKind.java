@@ -0,0 +1,15 @@
+package com.mcp.dbs.query;
+
+public enum StatementKind {
+    READ,
+    DML,
+    DDL,
+    PROCEDURE,
+    /**
+     * Statements the classifier does not know to be reads: session and
+     * server commands, transaction control, locking reads and procedures
+     * that are not known to only read. They may take effect outside of a
+     * transaction and are handled as writes.
+     */
+    OTHER
+}
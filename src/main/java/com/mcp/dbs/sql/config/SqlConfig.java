@@ -1,18 +1,29 @@
 package com.mcp.dbs.sql.config;
 
+import java.time.Duration;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.StringUtils;
 
-import io.r2dbc.spi.ConnectionFactory;
+import com.mcp.dbs.cache.SchemaCache;
+import com.mcp.dbs.cache.SchemaObjectCache;
+import com.mcp.dbs.config.SchemaCacheConfig;
+import com.mcp.dbs.sql.connection.MeteredConnectionFactory;
+import com.mcp.dbs.sql.introspection.CatalogIntrospector;
+import com.mcp.dbs.sql.pojo.MySqlSchema;
+import com.mcp.dbs.sql.utils.MySqlConstants;
 
-import jakarta.annotation.PostConstruct;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 @Slf4j
 @Setter
@@ -25,28 +36,61 @@ public class SqlConfig {
     private String dbUrl;
     
     @NonNull
-    private final ConnectionFactory connectionFactory;
-
-
-    @PostConstruct
-    private void init() {
-         Mono.from(connectionFactory.create())
-            .flatMap(connection ->
-                Flux.from(connection.createStatement("SELECT 1").execute())
-                    .flatMap(result -> result.map((row, meta) -> row.get(0, Integer.class)))
-                    .single()
-                    .doFinally(signal -> connection.close())
-            )
-            .doOnNext(result -> {
-                if (result == 1) {
-                    log.info("✅ Database connection verified via SELECT 1.");
-                } else {
-                    throw new IllegalStateException("❌ Unexpected result from SELECT 1: " + result);
-                }
-            })
-            .doOnError(error -> {
-                throw new RuntimeException("❌ Error verifying database connection: " + error.getMessage(), error);
-            })
-            .block();
+    private final MeteredConnectionFactory connectionFactory;
+
+    @Getter
+    @Value("${client.sql.schemas:}")
+    private List<String> schemas;
+
+    @Getter
+    @Value("${client.sql.replicas:}")
+    private List<String> replicas;
+
+    @Getter
+    @Value("${client.sql.replica.max-failures:3}")
+    private int replicaMaxFailures;
+
+    @Getter
+    @Value("${client.sql.replica.ejection-time:30s}")
+    private Duration replicaEjectionTime;
+
+    @Getter
+    @Value("${client.sql.replica.health-check-interval:10s}")
+    private Duration replicaHealthCheckInterval;
+
+
+    @Bean
+    public SchemaCache<MySqlSchema> mySqlSchemaCache(SchemaCacheConfig schemaCacheConfig) {
+        return new SchemaCache<>(MySqlConstants.DATASOURCE, schemaCacheConfig.isEnabled(),
+                schemaCacheConfig.getTtl());
+    }
+
+    @Bean
+    public SchemaObjectCache<MySqlSchema.MySqlTable> mySqlTableCache(SchemaCacheConfig schemaCacheConfig) {
+        return new SchemaObjectCache<>(MySqlConstants.DATASOURCE, schemaCacheConfig.isEnabled(),
+                schemaCacheConfig.getTtl());
+    }
+
+    /**
+     * Introspects the catalog of the database the driver connects to.
+     */
+    @Bean
+    public CatalogIntrospector catalogIntrospector() {
+        String product = connectionFactory.getMetadata().getName();
+        log.info("Using the {} catalog introspector", product);
+        return CatalogIntrospector.forProduct(product,
+                schemas.stream().filter(StringUtils::hasText).map(String::trim).toList());
+    }
+
+    /**
+     * Opens the initial connections of the pool in the background, so that
+     * startup does not wait for the database: readiness is reported by the
+     * {@code r2dbc} health indicator once it answers.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmup() {
+        connectionFactory.warmup()
+                .subscribe(connections -> log.info("✅ Database connection pool warmed up with {} connections.", connections),
+                        error -> log.error("❌ Error warming up the database connection pool: {}", error.getMessage(), error));
     }
 }
@@ -0,0 +1,138 @@
+package com.mcp.dbs.sql.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import com.mcp.dbs.sql.connection.MeteredConnectionFactory;
+import com.mcp.dbs.sql.connection.ReplicaRouter;
+import com.mcp.dbs.sql.utils.MySqlConstants;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pools the connections of the R2DBC datasource.
+ * <p>
+ * The pool is configured with the standard {@code spring.r2dbc.pool.*}
+ * properties (initial/max size, min idle, validation query, max idle time,
+ * max life time, max acquire time...), and replaces the connection factory
+ * that Spring Boot would otherwise create. Read replicas listed in
+ * {@code client.sql.replicas} get their own pools.
+ * <p>
+ * The drivers keep a cache of prepared statements per connection, sized with
+ * {@code client.sql.prepared-statement-cache-size}, so that parameterized
+ * statements are parsed and planned once per connection. MySQL and MariaDB
+ * only prepare statements on the server when asked to, which is enabled here
+ * unless the URL or the driver options set it.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.r2dbc.url")
+public class SqlPoolConfig {
+
+    private static final Map<String, List<String>> PREPARED_STATEMENT_OPTIONS = Map.of(
+            "postgresql", List.of("preparedStatementCacheQueries"),
+            "postgres", List.of("preparedStatementCacheQueries"),
+            "mysql", List.of("useServerPrepareStatement", "prepareCacheSize"),
+            "mariadb", List.of("useServerPrepStmts", "prepareCacheSize"));
+
+    /*
+     * Not in SqlConfig, which depends on the connection factory
+     */
+    @Value("${client.sql.prepared-statement-cache-size:256}")
+    private int preparedStatementCacheSize;
+
+    @Bean(destroyMethod = "dispose")
+    public MeteredConnectionFactory connectionFactory(R2dbcProperties properties, MeterRegistry registry) {
+        log.info("Creating R2DBC connection pool (initial size {}, max size {})", properties.getPool().getInitialSize(),
+                properties.getPool().getMaxSize());
+        return new MeteredConnectionFactory(createPool(properties, properties.getUrl(), MySqlConstants.DATASOURCE),
+                MySqlConstants.DATASOURCE, preparedStatementCacheSize, registry);
+    }
+
+    /**
+     * Read replicas of the datasource, each with its own pool configured like
+     * the primary one. The pool metrics of the primary are bound by Spring
+     * Boot, the ones of the replicas are bound here.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ReplicaRouter replicaRouter(R2dbcProperties properties, MeterRegistry registry, DatabaseClient primary,
+            SqlConfig sqlConfig) {
+        List<ReplicaRouter.Replica> replicas = new ArrayList<>();
+        List<String> urls = sqlConfig.getReplicas().stream().filter(StringUtils::hasText).toList();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = MySqlConstants.DATASOURCE + "-replica-" + i;
+            ConnectionPool pool = createPool(properties, urls.get(i).trim(), name);
+            new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(registry);
+            replicas.add(new ReplicaRouter.Replica(name,
+                    new MeteredConnectionFactory(pool, name, preparedStatementCacheSize, registry)));
+        }
+
+        log.info("Routing SQL reads to {} read replicas", replicas.size());
+        return new ReplicaRouter(primary, replicas, sqlConfig.getReplicaMaxFailures(),
+                sqlConfig.getReplicaEjectionTime(), sqlConfig.getReplicaHealthCheckInterval(), registry);
+    }
+
+    private ConnectionPool createPool(R2dbcProperties properties, String url, String name) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(properties.getUsername())) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        properties.getProperties().forEach((key, value) -> options.option(Option.valueOf(key), value));
+        preparedStatementOptions(options);
+
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name(name);
+
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getInitialSize()).to(builder::initialSize);
+        map.from(pool.getMaxSize()).to(builder::maxSize);
+        map.from(pool.getMinIdle()).to(builder::minIdle);
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getMaxValidationTime()).to(builder::maxValidationTime);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+        map.from(pool.getValidationQuery()).when(StringUtils::hasText).to(builder::validationQuery);
+
+        return new ConnectionPool(builder.build());
+    }
+
+    private void preparedStatementOptions(ConnectionFactoryOptions.Builder options) {
+        ConnectionFactoryOptions configured = options.build();
+        Object driver = configured.getValue(ConnectionFactoryOptions.DRIVER);
+        List<String> names = driver == null ? null : PREPARED_STATEMENT_OPTIONS.get(driver.toString());
+        // options set in the URL or in spring.r2dbc.properties win
+        if (names == null || names.stream().anyMatch(name -> configured.hasOption(Option.valueOf(name)))) {
+            return;
+        }
+
+        if (names.size() > 1) {
+            options.option(Option.valueOf(names.get(0)), preparedStatementCacheSize > 0);
+        }
+        options.option(Option.valueOf(names.get(names.size() - 1)), preparedStatementCacheSize);
+    }
+}
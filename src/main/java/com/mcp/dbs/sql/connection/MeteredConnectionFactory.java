@@ -0,0 +1,90 @@
+package com.mcp.dbs.sql.connection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConnectionFactory} backed by a {@link ConnectionPool} that records
+ * how long each acquisition waits for a connection, and how often the
+ * statements it executes find their prepared statement in the cache of the
+ * connection.
+ * <p>
+ * The pool is exposed through {@link Wrapped} so that the actuator still
+ * publishes its {@code r2dbc.pool.*} gauges (acquired, idle, pending...).
+ */
+public class MeteredConnectionFactory implements ConnectionFactory, Wrapped<ConnectionPool>, Disposable {
+
+    private final ConnectionPool pool;
+    private final Timer acquired;
+    private final Timer failed;
+    private final PreparedStatementTracker preparedStatements;
+    private final StatementTimeouts statementTimeouts = new StatementTimeouts();
+
+    public MeteredConnectionFactory(ConnectionPool pool, String datasource, int preparedStatementCacheSize,
+            MeterRegistry registry) {
+        this.pool = pool;
+        this.preparedStatements = new PreparedStatementTracker(datasource, preparedStatementCacheSize, registry);
+        this.acquired = acquireTimer(registry, datasource, "success");
+        this.failed = acquireTimer(registry, datasource, "error");
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return pool.create()
+                    .doOnSuccess(connection -> acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .map(connection -> new TrackedConnection(connection, preparedStatements, statementTimeouts));
+        });
+    }
+
+    /**
+     * Opens the initial connections of the pool.
+     *
+     * @return the number of connections created
+     */
+    public Mono<Integer> warmup() {
+        return pool.warmup();
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return pool.getMetadata();
+    }
+
+    @Override
+    public ConnectionPool unwrap() {
+        return pool;
+    }
+
+    @Override
+    public void dispose() {
+        pool.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return pool.isDisposed();
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry, String datasource, String outcome) {
+        return Timer.builder("dbs.r2dbc.pool.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tag("datasource", datasource)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
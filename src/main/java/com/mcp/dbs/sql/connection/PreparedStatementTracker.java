@@ -0,0 +1,66 @@
+package com.mcp.dbs.sql.connection;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Connection;
+
+/**
+ * Mirrors the prepared statement cache that the driver keeps for each
+ * connection, to report its hit rate as {@code dbs.sql.statement.cache.requests}.
+ * <p>
+ * Only statements executed with bound parameters are prepared by the
+ * drivers; the others are sent as plain text and are not counted. Each
+ * physical connection has its own LRU of the statement texts, the same size
+ * as the driver cache, which lives as long as the connection itself.
+ */
+public class PreparedStatementTracker {
+
+    private final int size;
+    private final Map<Connection, Map<String, Boolean>> prepared = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Counter hits;
+    private final Counter misses;
+
+    public PreparedStatementTracker(String datasource, int size, MeterRegistry registry) {
+        this.size = size;
+        this.hits = requests(registry, datasource, "hit");
+        this.misses = requests(registry, datasource, "miss");
+    }
+
+    /**
+     * @param connection the physical connection
+     */
+    void executed(Connection connection, String sql) {
+        if (size <= 0) {
+            return;
+        }
+
+        Map<String, Boolean> statements = prepared.computeIfAbsent(connection, k -> lru(size));
+        boolean hit;
+        synchronized (statements) {
+            hit = statements.put(sql, Boolean.TRUE) != null;
+        }
+        (hit ? hits : misses).increment();
+    }
+
+    private static Map<String, Boolean> lru(int size) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > size;
+            }
+        };
+    }
+
+    private static Counter requests(MeterRegistry registry, String datasource, String result) {
+        return Counter.builder("dbs.sql.statement.cache.requests")
+                .description("Parameterized statements looked up in the prepared statement cache of the connection")
+                .tag("datasource", datasource)
+                .tag("result", result)
+                .register(registry);
+    }
+}
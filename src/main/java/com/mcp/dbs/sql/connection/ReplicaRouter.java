@@ -0,0 +1,202 @@
+package com.mcp.dbs.sql.connection;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Routes read queries to the read replicas of the R2DBC datasource, while
+ * writes keep going to the primary.
+ * <p>
+ * Each read goes to the healthy replica with the fewest outstanding queries.
+ * A replica is ejected after too many consecutive connection failures and
+ * readmitted once a periodic {@code SELECT 1} probe succeeds again; reads
+ * fall back to the primary when no replica is available, or when the
+ * connection to a replica fails before it returns any row. Statements that
+ * time out are neither counted as failures nor run again on the primary.
+ */
+@Slf4j
+public class ReplicaRouter implements Disposable {
+
+    @Getter
+    private final DatabaseClient primary;
+
+    private final List<Replica> replicas;
+    private final int maxFailures;
+    private final Duration ejectionTime;
+    private final Disposable healthCheck;
+
+    public ReplicaRouter(DatabaseClient primary, List<Replica> replicas, int maxFailures, Duration ejectionTime,
+            Duration healthCheckInterval, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxFailures = maxFailures;
+        this.ejectionTime = ejectionTime;
+
+        for (Replica replica : this.replicas) {
+            Gauge.builder("dbs.sql.replica.outstanding", replica.outstanding, AtomicInteger::get)
+                    .description("Queries running on the read replica")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("dbs.sql.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether the read replica receives queries")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+
+        this.healthCheck = this.replicas.isEmpty() ? null
+                : Flux.interval(healthCheckInterval, healthCheckInterval)
+                        .onBackpressureDrop()
+                        .concatMap(tick -> Flux.fromIterable(this.replicas)
+                                .flatMap(replica -> probe(replica, healthCheckInterval)))
+                        .subscribe();
+    }
+
+    public <T> Flux<T> read(Function<DatabaseClient, ? extends Publisher<T>> query) {
+        return Flux.defer(() -> {
+            Replica replica = select();
+            if (replica == null) {
+                return Flux.from(query.apply(primary));
+            }
+
+            AtomicBoolean emitted = new AtomicBoolean();
+            replica.outstanding.incrementAndGet();
+            return Flux.from(query.apply(replica.getClient()))
+                    .doOnNext(row -> emitted.set(true))
+                    .doOnComplete(replica::succeeded)
+                    .doFinally(signal -> replica.outstanding.decrementAndGet())
+                    .onErrorResume(e -> isConnectionFailure(e), e -> {
+                        failed(replica, e);
+                        return emitted.get() ? Flux.error(e) : Flux.from(query.apply(primary));
+                    });
+        });
+    }
+
+    public <T> Mono<T> readOne(Function<DatabaseClient, Mono<T>> query) {
+        return read(query).singleOrEmpty();
+    }
+
+    @Override
+    public void dispose() {
+        if (healthCheck != null) {
+            healthCheck.dispose();
+        }
+        replicas.forEach(replica -> replica.getConnectionFactory().dispose());
+    }
+
+    private Replica select() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+
+        // start at a random replica so that ties do not always go to the first one
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        Replica selected = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((offset + i) % size);
+            if (candidate.isHealthy()
+                    && (selected == null || candidate.outstanding.get() < selected.outstanding.get())) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private Mono<Void> probe(Replica replica, Duration timeout) {
+        return replica.getClient().sql("SELECT 1")
+                .map(row -> 1)
+                .first()
+                .timeout(timeout)
+                .doOnSuccess(result -> {
+                    if (!replica.isHealthy()) {
+                        log.info("Read replica {} is healthy again", replica.getName());
+                    }
+                    replica.succeeded();
+                    replica.ejectedUntil = 0;
+                })
+                .onErrorResume(e -> {
+                    failed(replica, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void failed(Replica replica, Throwable error) {
+        if (replica.failures.incrementAndGet() >= maxFailures) {
+            if (replica.isHealthy()) {
+                log.warn("Ejecting read replica {} for {}: {}", replica.getName(), ejectionTime, error.getMessage());
+            }
+            replica.ejectedUntil = System.nanoTime() + ejectionTime.toNanos();
+        }
+    }
+
+    /**
+     * Whether the error comes from the connection to the replica rather than
+     * from the statement. A statement that timed out is not: it would time
+     * out on the primary just as well, and says nothing of the replica.
+     */
+    private static boolean isConnectionFailure(Throwable error) {
+        boolean connection = false;
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof QueryTimeoutException || e instanceof R2dbcTimeoutException
+                    || e instanceof TimeoutException) {
+                return false;
+            }
+            if (e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessResourceException
+                    || e instanceof R2dbcNonTransientResourceException || e instanceof R2dbcTransientResourceException
+                    || e instanceof IOException) {
+                connection = true;
+            }
+        }
+        return connection;
+    }
+
+    @Getter
+    public static class Replica {
+
+        private final String name;
+        private final MeteredConnectionFactory connectionFactory;
+        private final DatabaseClient client;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        public Replica(String name, MeteredConnectionFactory connectionFactory) {
+            this.name = name;
+            this.connectionFactory = connectionFactory;
+            this.client = DatabaseClient.create(connectionFactory);
+        }
+
+        boolean isHealthy() {
+            return ejectedUntil == 0 || System.nanoTime() - ejectedUntil > 0;
+        }
+
+        void succeeded() {
+            failures.set(0);
+        }
+    }
+}
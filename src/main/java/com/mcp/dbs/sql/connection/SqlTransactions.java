@@ -0,0 +1,48 @@
+package com.mcp.dbs.sql.connection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs statements of the primary database in transactions.
+ * <p>
+ * The transaction manager is private to this class: the only
+ * {@code ReactiveTransactionManager} bean of the application may be the Neo4j
+ * one, and Spring Boot does not create an R2DBC one next to it. The
+ * {@code DatabaseClient} shares the connection factory, so its statements
+ * join the transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.r2dbc.url")
+public class SqlTransactions {
+
+    private final TransactionalOperator write;
+
+    public SqlTransactions(MeteredConnectionFactory connectionFactory) {
+        this.write = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public <T> Flux<T> write(Flux<T> rows) {
+        return write.transactional(rows);
+    }
+
+    public <T> Mono<T> write(Mono<T> value) {
+        return write.transactional(value);
+    }
+
+    /**
+     * Runs the statements in a transaction that is always rolled back, so
+     * that whatever they change is never committed.
+     */
+    public <T> Mono<T> rolledBack(Mono<T> value) {
+        return write.execute(status -> {
+            status.setRollbackOnly();
+            return value;
+        }).singleOrEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.mcp.dbs.sql.connection;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.r2dbc.spi.Connection;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sets the statement timeout of the connections before they execute a
+ * statement, so that the server cancels the statement when it runs too long
+ * ({@code statement_timeout} on Postgres, {@code max_execution_time} on
+ * MySQL...).
+ * <p>
+ * The timeout is a session setting, so it is only sent again when it differs
+ * from the one last set on the physical connection, which has none at first.
+ * {@link Duration#ZERO} resets it.
+ */
+@Slf4j
+class StatementTimeouts {
+
+    private final Map<Connection, Duration> applied = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile boolean supported = true;
+
+    Mono<Void> apply(Connection connection, Connection physical, Duration timeout) {
+        if (!supported || timeout.equals(applied.getOrDefault(physical, Duration.ZERO))) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> Mono.from(connection.setStatementTimeout(timeout)))
+                .doOnSuccess(done -> applied.put(physical, timeout))
+                .onErrorResume(UnsupportedOperationException.class, e -> {
+                    log.warn("The R2DBC driver does not support statement timeouts: {}", e.getMessage());
+                    supported = false;
+                    return Mono.empty();
+                });
+    }
+}
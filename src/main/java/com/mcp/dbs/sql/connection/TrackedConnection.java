@@ -0,0 +1,220 @@
+package com.mcp.dbs.sql.connection;
+
+import java.time.Duration;
+
+import org.reactivestreams.Publisher;
+
+import com.mcp.dbs.admission.StatementTimeout;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.publisher.Flux;
+
+/**
+ * Pooled connection reporting the parameterized statements it executes to
+ * the {@link PreparedStatementTracker}, and applying the
+ * {@link StatementTimeout} of the Reactor context before executing them.
+ */
+class TrackedConnection implements Connection, Wrapped<Connection> {
+
+    private final Connection delegate;
+    private final Connection physical;
+    private final PreparedStatementTracker tracker;
+    private final StatementTimeouts timeouts;
+
+    TrackedConnection(Connection delegate, PreparedStatementTracker tracker, StatementTimeouts timeouts) {
+        this.delegate = delegate;
+        this.physical = physical(delegate);
+        this.tracker = tracker;
+        this.timeouts = timeouts;
+    }
+
+    @Override
+    public Statement createStatement(String sql) {
+        return new TrackedStatement(delegate.createStatement(sql), sql);
+    }
+
+    @Override
+    public Publisher<Void> beginTransaction() {
+        return delegate.beginTransaction();
+    }
+
+    @Override
+    public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+        return delegate.beginTransaction(definition);
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return delegate.close();
+    }
+
+    @Override
+    public Publisher<Void> commitTransaction() {
+        return delegate.commitTransaction();
+    }
+
+    @Override
+    public Batch createBatch() {
+        return delegate.createBatch();
+    }
+
+    @Override
+    public Publisher<Void> createSavepoint(String name) {
+        return delegate.createSavepoint(name);
+    }
+
+    @Override
+    public boolean isAutoCommit() {
+        return delegate.isAutoCommit();
+    }
+
+    @Override
+    public ConnectionMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public IsolationLevel getTransactionIsolationLevel() {
+        return delegate.getTransactionIsolationLevel();
+    }
+
+    @Override
+    public Publisher<Void> releaseSavepoint(String name) {
+        return delegate.releaseSavepoint(name);
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransaction() {
+        return delegate.rollbackTransaction();
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+        return delegate.rollbackTransactionToSavepoint(name);
+    }
+
+    @Override
+    public Publisher<Void> setAutoCommit(boolean autoCommit) {
+        return delegate.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+        return delegate.setLockWaitTimeout(timeout);
+    }
+
+    @Override
+    public Publisher<Void> setStatementTimeout(Duration timeout) {
+        return delegate.setStatementTimeout(timeout);
+    }
+
+    @Override
+    public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+        return delegate.setTransactionIsolationLevel(isolationLevel);
+    }
+
+    @Override
+    public Publisher<Boolean> validate(ValidationDepth depth) {
+        return delegate.validate(depth);
+    }
+
+    @Override
+    public Connection unwrap() {
+        return delegate;
+    }
+
+    /**
+     * The connection of the driver, shared by the pooled connections handed
+     * out for it.
+     */
+    private static Connection physical(Connection connection) {
+        while (connection instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof Connection target) {
+            connection = target;
+        }
+        return connection;
+    }
+
+    private class TrackedStatement implements Statement, Wrapped<Statement> {
+
+        private final Statement statement;
+        private final String sql;
+        private boolean bound;
+
+        TrackedStatement(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Statement add() {
+            statement.add();
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            bound = true;
+            statement.bind(index, value);
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            bound = true;
+            statement.bind(name, value);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            bound = true;
+            statement.bindNull(index, type);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            bound = true;
+            statement.bindNull(name, type);
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            if (bound) {
+                tracker.executed(physical, sql);
+            }
+            return Flux.deferContextual(context -> {
+                Flux<Result> results = Flux.defer(() -> Flux.<Result>from(statement.execute()));
+                // statements run outside of a tool reset the timeout a tool left
+                Duration timeout = StatementTimeout.of(context).orElse(Duration.ZERO);
+                return timeouts.apply(delegate, physical, timeout).thenMany(results);
+            });
+        }
+
+        @Override
+        public Statement fetchSize(int rows) {
+            statement.fetchSize(rows);
+            return this;
+        }
+
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            statement.returnGeneratedValues(columns);
+            return this;
+        }
+
+        @Override
+        public Statement unwrap() {
+            return statement;
+        }
+    }
+}
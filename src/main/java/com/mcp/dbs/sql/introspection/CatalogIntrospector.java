@@ -0,0 +1,267 @@
+package com.mcp.dbs.sql.introspection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.dbs.converter.ReactorConverter;
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.pojo.QueryProfile;
+import com.mcp.dbs.pojo.SchemaObject;
+import com.mcp.dbs.sql.connection.ReplicaRouter;
+import com.mcp.dbs.sql.pojo.MySqlSchema;
+import com.mcp.dbs.sql.utils.QueryMapperHelper;
+import com.mcp.dbs.utils.NamePattern;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the tables of the configured schemas from the native catalog of the
+ * database.
+ * <p>
+ * Columns, keys and foreign keys are fetched by separate queries running
+ * concurrently, each sorted by table, and assembled into the schema in one
+ * pass. When several schemas are configured the table names are qualified
+ * with their schema.
+ * <p>
+ * The same queries can be restricted to a list of tables, so that describing
+ * a few tables of a large catalog only reads their rows.
+ * <p>
+ * The estimated plans of queries are read with the {@code EXPLAIN} of the
+ * database in JSON, for the cost guard, and the measured ones with its
+ * {@code EXPLAIN ANALYZE}, for the profiling tool.
+ */
+public abstract class CatalogIntrospector {
+
+    protected final List<String> schemas;
+
+    protected CatalogIntrospector(List<String> schemas) {
+        this.schemas = schemas;
+    }
+
+    /**
+     * The introspector of the database product reported by the driver
+     * metadata.
+     *
+     * @param schemas the schemas to read, the current one when empty
+     */
+    public static CatalogIntrospector forProduct(String product, List<String> schemas) {
+        String name = product.toLowerCase(Locale.ROOT);
+        if (name.contains("postgres")) {
+            return new PostgresIntrospector(schemas);
+        }
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return new MySqlIntrospector(schemas);
+        }
+        throw new IllegalStateException("Schema introspection is not supported for " + product);
+    }
+
+    public Mono<MySqlSchema> introspect(ReplicaRouter router) {
+        return read(router, null);
+    }
+
+    /**
+     * The named tables; the names are qualified with their schema when
+     * several schemas are configured.
+     */
+    public Flux<MySqlSchema.MySqlTable> describe(ReplicaRouter router, List<String> tables) {
+        if (tables.isEmpty()) {
+            return Flux.empty();
+        }
+        return read(router, tables).flatMapIterable(MySqlSchema::getTables);
+    }
+
+    /**
+     * The tables whose name matches the pattern, with their estimated row
+     * count.
+     *
+     * @param pattern a {@link NamePattern}, or {@code null} for all the tables
+     * @return at most {@code limit} tables
+     */
+    public Flux<SchemaObject> list(ReplicaRouter router, String pattern, int offset, int limit) {
+        String like = pattern == null || pattern.isBlank() ? null : NamePattern.toLike(pattern.trim());
+        return router.read(client -> tables(client, like, offset, limit));
+    }
+
+    private Mono<MySqlSchema> read(ReplicaRouter router, List<String> tables) {
+        return Mono.zip(router.read(client -> columns(client, tables)).collectList(),
+                router.read(client -> keys(client, tables)).collectList(),
+                router.read(client -> foreignKeys(client, tables)).collectList())
+                .map(catalog -> assemble(catalog.getT1(), catalog.getT2(), catalog.getT3(), isQualified()));
+    }
+
+    protected boolean isQualified() {
+        return schemas.size() > 1;
+    }
+
+    public Mono<String> fingerprint(ReplicaRouter router) {
+        return router.readOne(this::queryFingerprint);
+    }
+
+    /**
+     * The estimated plan of a query, which is not run.
+     */
+    public Mono<QueryPlan> explain(ReplicaRouter router, String query, Map<String, Object> parameters) {
+        return router.read(client -> QueryMapperHelper.bind(client.sql(explainStatement(query)), parameters)
+                .map(row -> row.get(0, String.class))
+                .all())
+                .collect(Collectors.joining())
+                .map(json -> plan(json(json)));
+    }
+
+    /**
+     * Runs the query and returns its plan with the measures of each step.
+     *
+     * @param client     the client to run the query with, in a transaction
+     *                   that is rolled back when the query writes
+     * @param rolledBack whether the query runs in such a transaction
+     */
+    public Mono<QueryProfile> profile(DatabaseClient client, String query, Map<String, Object> parameters,
+            boolean rolledBack) {
+        return QueryMapperHelper.bind(client.sql(profileStatement(query)), parameters)
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collect(Collectors.joining("\n"))
+                .map(output -> profile(output, rolledBack));
+    }
+
+    protected static JsonNode json(String json) {
+        try {
+            return ReactorConverter.OBJECT_MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected query plan: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Sorted by schema and name.
+     *
+     * @param like a {@code LIKE} pattern of the names, or {@code null}
+     */
+    protected abstract Flux<SchemaObject> tables(DatabaseClient client, String like, int offset, int limit);
+
+    /**
+     * Columns of the tables (all of them when {@code null}), sorted by schema,
+     * table and position.
+     */
+    protected abstract Flux<Column> columns(DatabaseClient client, List<String> tables);
+
+    /**
+     * Columns of the primary keys and unique constraints.
+     */
+    protected abstract Flux<Key> keys(DatabaseClient client, List<String> tables);
+
+    protected abstract Flux<ForeignKey> foreignKeys(DatabaseClient client, List<String> tables);
+
+    /**
+     * A value that changes whenever the introspected schema changes.
+     */
+    protected abstract Mono<String> queryFingerprint(DatabaseClient client);
+
+    /**
+     * The statement returning the plan of the query as JSON.
+     */
+    protected abstract String explainStatement(String query);
+
+    protected abstract QueryPlan plan(JsonNode explained);
+
+    /**
+     * The statement running the query and returning its measured plan.
+     */
+    protected abstract String profileStatement(String query);
+
+    protected abstract QueryProfile profile(String output, boolean rolledBack);
+
+    /**
+     * Builds the schema from the catalog rows: the columns come grouped by
+     * table, so tables are created as they appear and the keys are attached
+     * through a lookup by name.
+     */
+    public static MySqlSchema assemble(List<Column> columns, List<Key> keys, List<ForeignKey> foreignKeys,
+            boolean qualified) {
+        List<MySqlSchema.MySqlTable> tables = new ArrayList<>();
+        Map<String, MySqlSchema.MySqlTable> byName = new HashMap<>();
+
+        MySqlSchema.MySqlTable table = null;
+        for (Column column : columns) {
+            String name = name(column.schema(), column.table(), qualified);
+            if (table == null || !table.getName().equals(name)) {
+                table = new MySqlSchema.MySqlTable(name, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+                tables.add(table);
+                byName.put(name, table);
+            }
+            table.getColumns().add(new MySqlSchema.MySqlTable.MySqlColumn(column.name(), column.type(),
+                    column.nullable(), column.defaultValue()));
+        }
+
+        for (Key key : keys) {
+            MySqlSchema.MySqlTable owner = byName.get(name(key.schema(), key.table(), qualified));
+            if (owner != null) {
+                owner.getConstraints().add(new MySqlSchema.MySqlTable.MySqlConstraint(key.column(), key.type(),
+                        key.name()));
+            }
+        }
+
+        for (ForeignKey foreignKey : foreignKeys) {
+            MySqlSchema.MySqlTable owner = byName.get(name(foreignKey.schema(), foreignKey.table(), qualified));
+            if (owner != null) {
+                owner.getForeignKeys().add(new MySqlSchema.MySqlTable.MySqlForeignKey(foreignKey.column(),
+                        name(foreignKey.foreignSchema(), foreignKey.foreignTable(), qualified),
+                        foreignKey.foreignColumn()));
+            }
+        }
+
+        return new MySqlSchema(tables);
+    }
+
+    private static String name(String schema, String table, boolean qualified) {
+        return qualified ? schema + "." + table : table;
+    }
+
+    /**
+     * What the cost guard needs, gathered while walking a plan.
+     */
+    protected static final class PlanSummary {
+
+        private double rows;
+        private final Set<String> fullScans = new LinkedHashSet<>();
+        private boolean cartesian;
+
+        void rows(double estimate) {
+            rows = Math.max(rows, estimate);
+        }
+
+        void fullScan(String table) {
+            fullScans.add(table);
+        }
+
+        void cartesian() {
+            cartesian = true;
+        }
+
+        QueryPlan toPlan(double cost) {
+            return new QueryPlan(cost, rows, List.copyOf(fullScans), cartesian, List.of());
+        }
+    }
+
+    public record Column(String schema, String table, String name, String type, boolean nullable,
+            String defaultValue) {
+    }
+
+    public record Key(String schema, String table, String column, String type, String name) {
+    }
+
+    public record ForeignKey(String schema, String table, String column, String foreignSchema, String foreignTable,
+            String foreignColumn) {
+    }
+}
@@ -0,0 +1,277 @@
+package com.mcp.dbs.sql.introspection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+import com.mcp.dbs.pojo.SchemaObject;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the schema of MySQL and MariaDB from {@code information_schema}, one
+ * view per query and always filtered on {@code table_schema}: MySQL serves
+ * these views from its data dictionary tables, and MariaDB only has to open
+ * the table definitions of the requested schemas.
+ */
+class MySqlIntrospector extends CatalogIntrospector {
+
+    private static final String TABLES_QUERY = """
+            SELECT table_schema, table_name, table_type,
+                   CASE WHEN table_type = 'BASE TABLE' THEN CAST(table_rows AS SIGNED) END AS row_estimate
+            FROM information_schema.tables
+            WHERE %s
+            ORDER BY table_schema, table_name
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final String COLUMNS_QUERY = """
+            SELECT table_schema, table_name, column_name, column_type AS data_type, is_nullable, column_default
+            FROM information_schema.columns
+            WHERE %s
+            ORDER BY table_schema, table_name, ordinal_position
+            """;
+
+    private static final String KEYS_QUERY = """
+            SELECT kcu.table_schema, kcu.table_name, kcu.column_name, tc.constraint_type, kcu.constraint_name
+            FROM information_schema.key_column_usage kcu
+            JOIN information_schema.table_constraints tc ON tc.constraint_schema = kcu.constraint_schema
+                AND tc.table_name = kcu.table_name AND tc.constraint_name = kcu.constraint_name
+            WHERE tc.constraint_type IN ('PRIMARY KEY', 'UNIQUE') AND %s
+            """;
+
+    private static final String FOREIGN_KEYS_QUERY = """
+            SELECT table_schema, table_name, column_name, referenced_table_schema AS foreign_schema,
+                   referenced_table_name AS foreign_table, referenced_column_name AS foreign_column
+            FROM information_schema.key_column_usage
+            WHERE referenced_table_name IS NOT NULL AND %s
+            """;
+
+    /*
+     * An order-independent checksum: GROUP_CONCAT would be truncated at
+     * group_concat_max_len on large schemas
+     */
+    private static final String FINGERPRINT_QUERY = """
+            SELECT CONCAT(COUNT(*), ':', COALESCE(SUM(CRC32(CONCAT_WS(':', table_schema, table_name, column_name,
+                       ordinal_position, column_type, is_nullable, COALESCE(column_default, '')))), 0), ':',
+                   (SELECT COUNT(*) FROM information_schema.table_constraints WHERE %1$s)) AS fingerprint
+            FROM information_schema.columns
+            WHERE %1$s
+            """;
+
+    /*
+     * -> Table scan on t  (cost=0.35 rows=1) (actual time=0.02..0.03 rows=1 loops=1)
+     */
+    private static final Pattern PROFILE_LINE = Pattern.compile(
+            "^( *)-> (.+?)\\s+(?:\\(cost=[^ ]+ rows=([0-9.e+]+)\\)\\s*)?"
+                    + "(?:\\(actual time=([0-9.e+]+)\\.\\.([0-9.e+]+) rows=([0-9.e+]+) loops=([0-9]+)\\)"
+                    + "|\\(never executed\\))?\\s*$");
+
+    MySqlIntrospector(List<String> schemas) {
+        super(schemas);
+    }
+
+    @Override
+    protected Flux<SchemaObject> tables(DatabaseClient client, String like, int offset, int limit) {
+        return query(client, TABLES_QUERY, "", null, like)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new SchemaObject(
+                        isQualified() ? row.get("table_schema", String.class) + "." + row.get("table_name", String.class)
+                                : row.get("table_name", String.class),
+                        row.get("table_type", String.class), row.get("row_estimate", Long.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<Column> columns(DatabaseClient client, List<String> tables) {
+        return query(client, COLUMNS_QUERY, "", tables, null)
+                .map(row -> new Column(row.get("table_schema", String.class), row.get("table_name", String.class),
+                        row.get("column_name", String.class), row.get("data_type", String.class),
+                        "YES".equalsIgnoreCase(row.get("is_nullable", String.class)),
+                        row.get("column_default", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<Key> keys(DatabaseClient client, List<String> tables) {
+        return query(client, KEYS_QUERY, "kcu.", tables, null)
+                .map(row -> new Key(row.get("table_schema", String.class), row.get("table_name", String.class),
+                        row.get("column_name", String.class), row.get("constraint_type", String.class),
+                        row.get("constraint_name", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<ForeignKey> foreignKeys(DatabaseClient client, List<String> tables) {
+        return query(client, FOREIGN_KEYS_QUERY, "", tables, null)
+                .map(row -> new ForeignKey(row.get("table_schema", String.class),
+                        row.get("table_name", String.class), row.get("column_name", String.class),
+                        row.get("foreign_schema", String.class), row.get("foreign_table", String.class),
+                        row.get("foreign_column", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Mono<String> queryFingerprint(DatabaseClient client) {
+        return query(client, FINGERPRINT_QUERY, "", null, null)
+                .map(row -> row.get("fingerprint", String.class))
+                .one();
+    }
+
+    @Override
+    protected String explainStatement(String query) {
+        return "EXPLAIN FORMAT=JSON " + query;
+    }
+
+    /**
+     * MariaDB reports no cost, which leaves the cost threshold unchecked.
+     */
+    @Override
+    protected QueryPlan plan(JsonNode explained) {
+        JsonNode block = explained.path("query_block");
+        PlanSummary summary = new PlanSummary();
+        walk(block, summary);
+        return summary.toPlan(block.path("cost_info").path("query_cost").asDouble(Double.NaN));
+    }
+
+    @Override
+    protected String profileStatement(String query) {
+        return "EXPLAIN ANALYZE " + query;
+    }
+
+    /**
+     * Parses the tree format of {@code EXPLAIN ANALYZE} (MySQL 8.0.18+), one
+     * operator per line indented by its depth. Estimated rows, actual rows
+     * and times are reported per loop, the time being the time to the last
+     * row; the node totals multiply them by the number of loops. MariaDB answers
+     * {@code ANALYZE} statements instead, which are not supported.
+     */
+    @Override
+    protected QueryProfile profile(String output, boolean rolledBack) {
+        Deque<ProfileLine> parents = new ArrayDeque<>();
+        ProfileLine root = null;
+        for (String text : output.split("\n")) {
+            Matcher matcher = PROFILE_LINE.matcher(text);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            ProfileLine line = new ProfileLine(matcher.group(1).length(), matcher.toMatchResult(), new ArrayList<>());
+            while (!parents.isEmpty() && parents.peek().depth() >= line.depth()) {
+                parents.pop();
+            }
+            if (!parents.isEmpty()) {
+                parents.peek().children().add(line);
+            } else if (root == null) {
+                root = line;
+            } else {
+                break;
+            }
+            parents.push(line);
+        }
+
+        if (root == null) {
+            throw new IllegalStateException("The server did not return an EXPLAIN ANALYZE tree: " + output);
+        }
+        PlanNode plan = root.toPlanNode();
+        return QueryProfile.of(plan, plan.getTimeMs(), rolledBack);
+    }
+
+    private record ProfileLine(int depth, MatchResult match, List<ProfileLine> children) {
+
+        PlanNode toPlanNode() {
+            String step = match.group(2);
+            int on = step.indexOf(" on ");
+            int colon = step.indexOf(": ");
+            int split = on < 0 ? colon : colon < 0 ? on : Math.min(on, colon);
+            String operator = split < 0 ? step : step.substring(0, split);
+            String details = split < 0 ? null : step.substring(split + (split == colon ? 2 : 4));
+
+            // never executed steps have no measures
+            Long loops = match.group(7) == null ? null : Long.valueOf(match.group(7));
+            Double estimated = match.group(3) == null ? null
+                    : Double.parseDouble(match.group(3)) * (loops == null ? 1 : loops);
+            Double time = loops == null ? null : Double.parseDouble(match.group(5)) * loops;
+            Long rows = loops == null ? null : Math.round(Double.parseDouble(match.group(6)) * loops);
+            return new PlanNode(operator, details, estimated, rows, loops, time, null, null,
+                    children.stream().map(ProfileLine::toPlanNode).toList());
+        }
+    }
+
+    /**
+     * Tables read with the {@code ALL} access type are full scans; a table
+     * joined through the join buffer without a condition (MySQL), or a
+     * block nested loop join without one (MariaDB), is a cartesian product.
+     */
+    private static void walk(JsonNode node, PlanSummary summary) {
+        if (node.isArray()) {
+            node.forEach(child -> walk(child, summary));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+
+        if (node.has("table_name") && node.has("access_type")) {
+            summary.rows(node.path("rows_examined_per_scan").asDouble());
+            summary.rows(node.path("rows_produced_per_join").asDouble());
+            summary.rows(node.path("rows").asDouble());
+            if ("ALL".equals(node.path("access_type").asText())) {
+                summary.fullScan(node.path("table_name").asText());
+            }
+            if (node.has("using_join_buffer") && !node.has("attached_condition")) {
+                summary.cartesian();
+            }
+        }
+        JsonNode blockJoin = node.path("block-nl-join");
+        if (blockJoin.isObject() && !blockJoin.has("attached_condition")) {
+            summary.cartesian();
+        }
+        node.forEach(child -> walk(child, summary));
+    }
+
+    /**
+     * The query restricted to the configured schemas, or to the current
+     * database, and optionally to some tables or to a name pattern.
+     *
+     * @param prefix the alias of the view holding the table names
+     */
+    private DatabaseClient.GenericExecuteSpec query(DatabaseClient client, String query, String prefix,
+            List<String> tables, String like) {
+        String schema = prefix + "table_schema";
+        String table = prefix + "table_name";
+        String name = isQualified() ? "CONCAT(" + schema + ", '.', " + table + ")" : table;
+        StringBuilder filter = new StringBuilder(schema)
+                .append(schemas.isEmpty() ? " = DATABASE()" : " IN (:schemas)");
+        if (tables != null) {
+            filter.append(" AND ").append(name).append(" IN (:tables)");
+        }
+        if (like != null) {
+            filter.append(" AND ").append(name).append(" LIKE :pattern");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(String.format(query, filter));
+        if (!schemas.isEmpty()) {
+            spec = spec.bind("schemas", schemas);
+        }
+        if (tables != null) {
+            spec = spec.bind("tables", tables);
+        }
+        if (like != null) {
+            spec = spec.bind("pattern", like);
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,243 @@
+package com.mcp.dbs.sql.introspection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+import com.mcp.dbs.pojo.SchemaObject;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the schema from {@code pg_catalog}, which avoids the privilege checks
+ * and the many joins behind the {@code information_schema} views.
+ */
+class PostgresIntrospector extends CatalogIntrospector {
+
+    private static final List<String> PROFILE_DETAILS = List.of(
+            "Relation Name", "Index Name", "Hash Cond", "Index Cond", "Join Filter", "Filter");
+
+    private static final String TABLES_QUERY = """
+            SELECT n.nspname AS table_schema, c.relname AS table_name,
+                   CASE c.relkind WHEN 'v' THEN 'VIEW' WHEN 'm' THEN 'MATERIALIZED VIEW'
+                       WHEN 'f' THEN 'FOREIGN TABLE' ELSE 'TABLE' END AS table_type,
+                   CASE WHEN c.relkind IN ('r', 'p', 'm') THEN greatest(c.reltuples, 0)::bigint END AS row_estimate
+            FROM pg_catalog.pg_class c
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relkind IN ('r', 'p', 'v', 'm', 'f') AND %s
+            ORDER BY n.nspname, c.relname
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final String COLUMNS_QUERY = """
+            SELECT n.nspname AS table_schema, c.relname AS table_name, a.attname AS column_name,
+                   format_type(a.atttypid, a.atttypmod) AS data_type, NOT a.attnotnull AS nullable,
+                   pg_get_expr(d.adbin, d.adrelid) AS column_default
+            FROM pg_catalog.pg_attribute a
+            JOIN pg_catalog.pg_class c ON c.oid = a.attrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            LEFT JOIN pg_catalog.pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum
+            WHERE c.relkind IN ('r', 'p', 'v', 'm', 'f') AND a.attnum > 0 AND NOT a.attisdropped AND %s
+            ORDER BY n.nspname, c.relname, a.attnum
+            """;
+
+    private static final String KEYS_QUERY = """
+            SELECT n.nspname AS table_schema, c.relname AS table_name, a.attname AS column_name,
+                   CASE con.contype WHEN 'p' THEN 'PRIMARY KEY' ELSE 'UNIQUE' END AS constraint_type,
+                   con.conname AS constraint_name
+            FROM pg_catalog.pg_constraint con
+            JOIN pg_catalog.pg_class c ON c.oid = con.conrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            CROSS JOIN LATERAL unnest(con.conkey) AS k(attnum)
+            JOIN pg_catalog.pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum
+            WHERE con.contype IN ('p', 'u') AND %s
+            """;
+
+    private static final String FOREIGN_KEYS_QUERY = """
+            SELECT n.nspname AS table_schema, c.relname AS table_name, a.attname AS column_name,
+                   fn.nspname AS foreign_schema, fc.relname AS foreign_table, fa.attname AS foreign_column
+            FROM pg_catalog.pg_constraint con
+            JOIN pg_catalog.pg_class c ON c.oid = con.conrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            JOIN pg_catalog.pg_class fc ON fc.oid = con.confrelid
+            JOIN pg_catalog.pg_namespace fn ON fn.oid = fc.relnamespace
+            CROSS JOIN LATERAL unnest(con.conkey, con.confkey) AS k(attnum, foreign_attnum)
+            JOIN pg_catalog.pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum
+            JOIN pg_catalog.pg_attribute fa ON fa.attrelid = con.confrelid AND fa.attnum = k.foreign_attnum
+            WHERE con.contype = 'f' AND %s
+            """;
+
+    private static final String FINGERPRINT_QUERY = """
+            SELECT coalesce(md5(string_agg(n.nspname || '.' || c.relname || '.' || a.attname || ':' || a.atttypid
+                       || ':' || a.atttypmod || ':' || a.attnotnull || ':' || a.atthasdef, ','
+                       ORDER BY n.nspname, c.relname, a.attnum)), '')
+                   || ':' || (SELECT count(*) FROM pg_catalog.pg_constraint con
+                              JOIN pg_catalog.pg_namespace n ON n.oid = con.connamespace WHERE %s) AS fingerprint
+            FROM pg_catalog.pg_attribute a
+            JOIN pg_catalog.pg_class c ON c.oid = a.attrelid
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            WHERE c.relkind IN ('r', 'p', 'v', 'm', 'f') AND a.attnum > 0 AND NOT a.attisdropped AND %1$s
+            """;
+
+    PostgresIntrospector(List<String> schemas) {
+        super(schemas);
+    }
+
+    @Override
+    protected Flux<SchemaObject> tables(DatabaseClient client, String like, int offset, int limit) {
+        return query(client, TABLES_QUERY, null, like)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new SchemaObject(
+                        isQualified() ? row.get("table_schema", String.class) + "." + row.get("table_name", String.class)
+                                : row.get("table_name", String.class),
+                        row.get("table_type", String.class), row.get("row_estimate", Long.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<Column> columns(DatabaseClient client, List<String> tables) {
+        return query(client, COLUMNS_QUERY, tables, null)
+                .map(row -> new Column(row.get("table_schema", String.class), row.get("table_name", String.class),
+                        row.get("column_name", String.class), row.get("data_type", String.class),
+                        Boolean.TRUE.equals(row.get("nullable", Boolean.class)),
+                        row.get("column_default", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<Key> keys(DatabaseClient client, List<String> tables) {
+        return query(client, KEYS_QUERY, tables, null)
+                .map(row -> new Key(row.get("table_schema", String.class), row.get("table_name", String.class),
+                        row.get("column_name", String.class), row.get("constraint_type", String.class),
+                        row.get("constraint_name", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Flux<ForeignKey> foreignKeys(DatabaseClient client, List<String> tables) {
+        return query(client, FOREIGN_KEYS_QUERY, tables, null)
+                .map(row -> new ForeignKey(row.get("table_schema", String.class),
+                        row.get("table_name", String.class), row.get("column_name", String.class),
+                        row.get("foreign_schema", String.class), row.get("foreign_table", String.class),
+                        row.get("foreign_column", String.class)))
+                .all();
+    }
+
+    @Override
+    protected Mono<String> queryFingerprint(DatabaseClient client) {
+        return query(client, FINGERPRINT_QUERY, null, null)
+                .map(row -> row.get("fingerprint", String.class))
+                .one();
+    }
+
+    @Override
+    protected String explainStatement(String query) {
+        return "EXPLAIN (FORMAT JSON) " + query;
+    }
+
+    @Override
+    protected QueryPlan plan(JsonNode explained) {
+        JsonNode root = explained.path(0).path("Plan");
+        PlanSummary summary = new PlanSummary();
+        walk(root, summary);
+        return summary.toPlan(root.path("Total Cost").asDouble(Double.NaN));
+    }
+
+    @Override
+    protected String profileStatement(String query) {
+        return "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + query;
+    }
+
+    @Override
+    protected QueryProfile profile(String output, boolean rolledBack) {
+        JsonNode root = json(output).path(0);
+        JsonNode executionTime = root.path("Execution Time");
+        return QueryProfile.of(profiled(root.path("Plan")),
+                executionTime.isNumber() ? executionTime.asDouble() : null, rolledBack);
+    }
+
+    /**
+     * Estimated rows, actual rows and times are reported per loop; the node
+     * totals multiply them by the number of loops. Nodes that never ran have
+     * no loop and keep the estimate of one.
+     */
+    private static PlanNode profiled(JsonNode node) {
+        List<PlanNode> children = new ArrayList<>();
+        node.path("Plans").forEach(child -> children.add(profiled(child)));
+
+        long loops = node.path("Actual Loops").asLong(1);
+        JsonNode time = node.path("Actual Total Time");
+        StringJoiner details = new StringJoiner(" ");
+        for (String field : PROFILE_DETAILS) {
+            if (node.hasNonNull(field)) {
+                details.add(node.get(field).asText());
+            }
+        }
+        return new PlanNode(node.path("Node Type").asText(), details.length() == 0 ? null : details.toString(),
+                node.path("Plan Rows").asDouble() * Math.max(loops, 1), Math.round(node.path("Actual Rows").asDouble() * loops),
+                loops, time.isNumber() ? time.asDouble() * loops : null,
+                node.path("Shared Hit Blocks").asLong() + node.path("Shared Read Blocks").asLong(), null, children);
+    }
+
+    /**
+     * Sequential scans are full scans; a nested loop without a join filter
+     * over a sequential scan pairs every outer row with every inner one.
+     */
+    private static void walk(JsonNode node, PlanSummary summary) {
+        String type = node.path("Node Type").asText();
+        summary.rows(node.path("Plan Rows").asDouble());
+        if ("Seq Scan".equals(type)) {
+            summary.fullScan(node.path("Relation Name").asText());
+        }
+
+        JsonNode children = node.path("Plans");
+        if ("Nested Loop".equals(type) && !node.has("Join Filter") && children.size() == 2) {
+            JsonNode inner = children.get(1);
+            // Materialize and Memoize wrap the inner side
+            while (!inner.has("Relation Name") && inner.path("Plans").size() == 1) {
+                inner = inner.path("Plans").get(0);
+            }
+            if ("Seq Scan".equals(inner.path("Node Type").asText())) {
+                summary.cartesian();
+            }
+        }
+        children.forEach(child -> walk(child, summary));
+    }
+
+    /**
+     * The query restricted to the configured schemas, or to the schemas of
+     * the search path, and optionally to some tables or to a name pattern.
+     */
+    private DatabaseClient.GenericExecuteSpec query(DatabaseClient client, String query, List<String> tables,
+            String like) {
+        String name = isQualified() ? "n.nspname || '.' || c.relname" : "c.relname";
+        StringBuilder filter = new StringBuilder(
+                schemas.isEmpty() ? "n.nspname = ANY(current_schemas(false))" : "n.nspname = ANY(:schemas)");
+        if (tables != null) {
+            filter.append(" AND ").append(name).append(" = ANY(:tables)");
+        }
+        if (like != null) {
+            filter.append(" AND ").append(name).append(" ILIKE :pattern");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(String.format(query, filter));
+        if (!schemas.isEmpty()) {
+            spec = spec.bind("schemas", schemas.toArray(String[]::new));
+        }
+        if (tables != null) {
+            spec = spec.bind("tables", tables.toArray(String[]::new));
+        }
+        if (like != null) {
+            spec = spec.bind("pattern", like);
+        }
+        return spec;
+    }
+}
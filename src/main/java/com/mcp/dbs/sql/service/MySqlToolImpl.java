@@ -1,25 +1,67 @@
 package com.mcp.dbs.sql.service;
 
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.reactivestreams.Publisher;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
 import org.springframework.stereotype.Service;
 
 import com.mcp.dbs.DBTool;
+import com.mcp.dbs.budget.ResultBudget;
+import com.mcp.dbs.budget.ResultBudgets;
+import com.mcp.dbs.cache.QueryResultCache;
+import com.mcp.dbs.cache.SchemaCache;
+import com.mcp.dbs.cache.SchemaObjectCache;
+import com.mcp.dbs.config.BatchConfig;
 import com.mcp.dbs.config.ClientConfig;
+import com.mcp.dbs.config.ExportConfig;
+import com.mcp.dbs.config.SchemaListConfig;
+import com.mcp.dbs.converter.ColumnarResult;
 import com.mcp.dbs.converter.ReactorConverter;
+import com.mcp.dbs.converter.ResultFormat;
+import com.mcp.dbs.cursor.CursorRegistry;
+import com.mcp.dbs.export.ExportFormat;
+import com.mcp.dbs.export.ResultExporter;
+import com.mcp.dbs.guard.CostGuard;
+import com.mcp.dbs.metrics.ToolInvocation;
+import com.mcp.dbs.metrics.ToolMetrics;
+import com.mcp.dbs.pojo.BatchQueryResult;
+import com.mcp.dbs.pojo.BatchWriteResult;
+import com.mcp.dbs.pojo.CommitMode;
+import com.mcp.dbs.pojo.ExportResult;
+import com.mcp.dbs.pojo.QueryPage;
+import com.mcp.dbs.pojo.QueryProfile;
+import com.mcp.dbs.pojo.QueryStatisticsReport;
+import com.mcp.dbs.pojo.SchemaListing;
+import com.mcp.dbs.query.QueryNormalizer;
+import com.mcp.dbs.query.StatementClassification;
+import com.mcp.dbs.query.StatementClassifier;
+import com.mcp.dbs.query.StatementKind;
+import com.mcp.dbs.sql.connection.ReplicaRouter;
+import com.mcp.dbs.sql.connection.SqlTransactions;
+import com.mcp.dbs.sql.introspection.CatalogIntrospector;
 import com.mcp.dbs.sql.pojo.MySqlSchema;
+import com.mcp.dbs.sql.utils.BatchStatement;
+import com.mcp.dbs.sql.utils.MySqlConstants;
 import com.mcp.dbs.sql.utils.QueryMapperHelper;
+import com.mcp.dbs.stats.QueryStatistics;
+import com.mcp.dbs.stats.StatisticsOrder;
+import com.mcp.dbs.utils.ToolContextHelper;
 
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,14 +74,63 @@ import reactor.core.publisher.Mono;
 @ConditionalOnProperty(name = "spring.r2dbc.url")
 public class MySqlToolImpl implements DBTool {
 
-    private static final String GET_SCHEMA_QUERY = "SELECT cols.table_name, cols.column_name, cols.data_type, cols.is_nullable, cols.column_default, tc.constraint_type, kcu.constraint_name, ccu.table_name AS foreign_table, ccu.column_name AS foreign_column FROM information_schema.columns cols LEFT JOIN information_schema.key_column_usage kcu ON cols.table_name = kcu.table_name AND cols.column_name = kcu.column_name LEFT JOIN information_schema.table_constraints tc ON tc.constraint_name = kcu.constraint_name AND tc.table_name = cols.table_name LEFT JOIN information_schema.constraint_column_usage ccu ON ccu.constraint_name = tc.constraint_name WHERE cols.table_schema = 'public' ORDER BY cols.table_name, cols.ordinal_position";
-
     @NonNull
     private final ClientConfig clientConfig;
 
+    /**
+     * Primary database, for writes.
+     */
     @NonNull
     private final DatabaseClient db;
 
+    /**
+     * Read replicas, for reads; the primary when there are none.
+     */
+    @NonNull
+    private final ReplicaRouter replicaRouter;
+
+    @NonNull
+    private final SchemaCache<MySqlSchema> schemaCache;
+
+    @NonNull
+    private final SchemaObjectCache<MySqlSchema.MySqlTable> tableCache;
+
+    @NonNull
+    private final CatalogIntrospector catalogIntrospector;
+
+    @NonNull
+    private final SchemaListConfig schemaListConfig;
+
+    @NonNull
+    private final CursorRegistry cursorRegistry;
+
+    @NonNull
+    private final QueryResultCache resultCache;
+
+    @NonNull
+    private final ToolMetrics toolMetrics;
+
+    @NonNull
+    private final BatchConfig batchConfig;
+
+    @NonNull
+    private final SqlTransactions transactions;
+
+    @NonNull
+    private final ResultBudgets resultBudgets;
+
+    @NonNull
+    private final CostGuard costGuard;
+
+    @NonNull
+    private final ExportConfig exportConfig;
+
+    @NonNull
+    private final ResultExporter resultExporter;
+
+    @NonNull
+    private final QueryStatistics queryStatistics;
+
     @Override
     public List<ToolCallback> getTools() {
         log.debug("Loading MySql Tools...");
@@ -48,109 +139,464 @@ public class MySqlToolImpl implements DBTool {
 
         if (!clientConfig.isReadMode()) {
             log.debug("Read mode is disabled, filtering out read tools");
-            tools.removeIf(tool -> tool.getToolDefinition().name().equalsIgnoreCase("Execute mysql read query"));
+            tools.removeIf(tool -> MySqlConstants.READ_TOOLS.contains(tool.getToolDefinition().name()));
+        }
+
+        if (!exportConfig.isEnabled()) {
+            log.debug("Export is disabled, filtering out the export tool");
+            tools.removeIf(tool -> MySqlConstants.EXPORT_TOOL.equals(tool.getToolDefinition().name()));
+        }
+
+        if (!queryStatistics.isEnabled()) {
+            log.debug("Query statistics are disabled, filtering out the statistics tool");
+            tools.removeIf(tool -> MySqlConstants.STATISTICS_TOOL.equals(tool.getToolDefinition().name()));
         }
 
         if (!clientConfig.isWriteMode()) {
             log.debug("Write mode is disabled, filtering out write tools");
-            tools.removeIf(tool -> tool.getToolDefinition().name().equalsIgnoreCase("Execute mysql write query"));
+            tools.removeIf(tool -> MySqlConstants.WRITE_TOOLS.contains(tool.getToolDefinition().name()));
         }
 
         log.info("Loaded {} MySql tools", tools.size());
         return tools;
     }
 
-    @Tool(name = "Get MySQL DB schema", description = """
+    @Tool(name = MySqlConstants.SCHEMA_TOOL, description = """
             Get the structure of the MySQL database, including tables, foreing keys and constraints.
             Returns a list of table names and pther info such as columns  foreign keys and other constraints.
             """, resultConverter = ReactorConverter.class)
     private Mono<MySqlSchema> getSchemaStructure() {
         log.info("Fetching MySQL schema structure...");
 
-        return db.sql(GET_SCHEMA_QUERY)
-                .map(row -> {
-                    String table = row.get("table_name", String.class);
-                    String column = row.get("column_name", String.class);
-                    String type = row.get("data_type", String.class);
-                    boolean nullable = "YES".equalsIgnoreCase(row.get("is_nullable", String.class));
-                    String defaultValue = row.get("column_default", String.class);
-
-                    String constraintType = row.get("constraint_type", String.class);
-                    String constraintName = row.get("constraint_name", String.class);
-                    String foreignTable = row.get("foreign_table", String.class);
-                    String foreignColumn = row.get("foreign_column", String.class);
-
-                    return new QueryMapperHelper.RowData(table, column, type, nullable, defaultValue, constraintType,
-                            constraintName, foreignTable, foreignColumn);
-                })
-                .all()
-                .collectList()
-                .map(QueryMapperHelper::mapToSchema);
+        return toolMetrics.mono(MySqlConstants.SCHEMA_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> schemaCache.get(loadSchemaStructure(), getSchemaFingerprint()));
+    }
+
+    @Tool(name = MySqlConstants.LIST_TABLES_TOOL, description = """
+            Lists the tables and views of the MySQL database with their estimated number of rows, one page at a time.
+            Use it to find the relevant tables of a large database, then "Describe mysql tables" to get their columns, foreign keys and constraints.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<SchemaListing> listTables(
+            @ToolParam(description = "A pattern the table names must match: * matches any characters, ? a single character, case-insensitive", required = false) String pattern,
+            @ToolParam(description = "The number of tables to skip", required = false) Integer offset,
+            @ToolParam(description = "The maximum number of tables to return", required = false) Integer limit) {
+        log.info("Listing tables matching: {}", pattern);
+        int skip = offset == null ? 0 : Math.max(0, offset);
+        int size = schemaListConfig.pageSize(limit);
+
+        return toolMetrics.mono(MySqlConstants.LIST_TABLES_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> catalogIntrospector.list(replicaRouter, pattern, skip, size + 1)
+                        .collectList()
+                        .map(tables -> SchemaListing.of(tables, skip, size))
+                        .doOnNext(listing -> invocation.addRows(listing.getObjects().size())));
+    }
+
+    @Tool(name = MySqlConstants.DESCRIBE_TABLES_TOOL, description = """
+            Get the structure of some tables of the MySQL database: their columns, foreign keys and constraints.
+            Tables that do not exist are left out of the result.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<List<MySqlSchema.MySqlTable>> describeTables(
+            @ToolParam(description = "The names of the tables, as returned by \"List mysql tables\"") List<String> tables) {
+        log.info("Describing tables: {}", tables);
+
+        return toolMetrics.mono(MySqlConstants.DESCRIBE_TABLES_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> tableCache.get(tables, names -> catalogIntrospector.describe(replicaRouter, names),
+                        MySqlSchema.MySqlTable::getName)
+                        .doOnNext(described -> invocation.addRows(described.size())));
     }
 
-    @Tool(name = "Execute mysql read query", description = "Executes a read query on the MySQL database and returns the result as a map.", resultConverter = ReactorConverter.class)
-    private Flux<Map<String, Object>> execReadQuery(
-            @ToolParam(description = "The SQL query to execute") String query) {
+    private Mono<MySqlSchema> loadSchemaStructure() {
+        return catalogIntrospector.introspect(replicaRouter);
+    }
+
+    private Mono<String> getSchemaFingerprint() {
+        return catalogIntrospector.fingerprint(replicaRouter);
+    }
+
+    @Tool(name = MySqlConstants.READ_TOOL, description = "Executes a read query on the MySQL database and returns the result as a map.", resultConverter = ReactorConverter.class)
+    private Publisher<?> execReadQuery(
+            @ToolParam(description = "The SQL query to execute") String query,
+            @ToolParam(description = "The result format: 'rows' (default) returns one map per row, 'columnar' returns the column header once followed by one value array per row", required = false) String format,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as :name in the query", required = false) Map<String, Object> parameters) {
         log.info("Executing read query: {}", query);
         if (!clientConfig.isReadMode()) {
             throw new IllegalStateException("Read mode is not enabled in the configuration.");
         }
-        if (isWriteQuery(query)) {
+
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.");
+        }
+
+        ResultFormat resultFormat = ResultFormat.of(format);
+        if (resultFormat == ResultFormat.GRAPH) {
+            throw new IllegalArgumentException("The graph result format is only supported by Neo4j queries.");
+        }
+
+        String limited = resultBudgets.pushDown(MySqlConstants.READ_TOOL, query, classification);
+        if (resultFormat == ResultFormat.COLUMNAR) {
+            AtomicReference<List<ColumnarResult.Column>> header = new AtomicReference<>();
+            Flux<Object[]> rows = toolMetrics.flux(MySqlConstants.READ_TOOL, MySqlConstants.DATASOURCE, invocation -> {
+                invocation.executes(QueryNormalizer.SQL, query);
+                return guard(limited, classification, parameters)
+                        .thenMany(resultBudgets.limit(MySqlConstants.READ_TOOL, replicaRouter.read(
+                                client -> QueryMapperHelper.bind(client.sql(limited), parameters)
+                                        .map(invocation.timed((Row row, RowMetadata meta) -> {
+                                            if (header.get() == null) {
+                                                header.set(QueryMapperHelper.columns(meta));
+                                            }
+                                            return QueryMapperHelper.rowToArray(row, meta);
+                                        }))
+                                        .all())));
+            });
+            return Mono.just(new ColumnarResult(header::get, rows));
+        }
+
+        return toolMetrics.flux(MySqlConstants.READ_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> guard(limited, classification, parameters)
+                        .thenMany(resultBudgets.limit(MySqlConstants.READ_TOOL, resultCache.get(
+                                MySqlConstants.DATASOURCE, QueryNormalizer.SQL, limited, parameters, classification.tables(),
+                                () -> {
+                                    invocation.executes(QueryNormalizer.SQL, query);
+                                    return replicaRouter.read(client -> QueryMapperHelper.bind(client.sql(limited), parameters)
+                                            .map(invocation.timed(QueryMapperHelper::rowToMap))
+                                            .all());
+                                }))));
+    }
+
+    @Tool(name = MySqlConstants.PAGED_READ_TOOL, description = """
+            Executes a read query on the MySQL database and returns only the first page of the result.
+            When more rows are available the page contains a cursor: pass it to "Fetch mysql query page" to get the next page without executing the query again.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryPage> execPagedReadQuery(
+            @ToolParam(description = "The SQL query to execute") String query,
+            @ToolParam(description = "The number of rows per page", required = false) Integer pageSize,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as :name in the query", required = false) Map<String, Object> parameters,
+            ToolContext toolContext) {
+        log.info("Executing paged read query: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.");
+        }
+
+        return toolMetrics.mono(MySqlConstants.PAGED_READ_TOOL, MySqlConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.SQL, query);
+            Flux<Map<String, Object>> rows = replicaRouter.read(client -> QueryMapperHelper.bind(client.sql(query), parameters)
+                    .filter(statement -> statement.fetchSize(cursorRegistry.getFetchSize()))
+                    .map(invocation.timed(QueryMapperHelper::rowToMap))
+                    .all());
+            return guard(query, classification, parameters)
+                    .then(cursorRegistry.open(ToolContextHelper.sessionId(toolContext), MySqlConstants.DATASOURCE, rows,
+                            pageSize))
+                    .doOnNext(page -> invocation.addRows(page.getRows().size()));
+        });
+    }
+
+    @Tool(name = MySqlConstants.FETCH_PAGE_TOOL, description = "Returns the next page of a query started with \"Execute mysql paged read query\".", resultConverter = ReactorConverter.class)
+    private Mono<QueryPage> fetchQueryPage(
+            @ToolParam(description = "The cursor returned with the previous page") String cursor,
+            @ToolParam(description = "The number of rows per page", required = false) Integer pageSize,
+            ToolContext toolContext) {
+        log.info("Fetching next page of cursor: {}", cursor);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+
+        return toolMetrics.mono(MySqlConstants.FETCH_PAGE_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> cursorRegistry.next(ToolContextHelper.sessionId(toolContext), MySqlConstants.DATASOURCE,
+                        cursor, pageSize)
+                        .doOnNext(page -> invocation.addRows(page.getRows().size())));
+    }
+
+    @Tool(name = MySqlConstants.BATCH_READ_TOOL, description = """
+            Executes several independent read queries on the MySQL database in one call and returns the result of each of them, in order.
+            A failing query does not stop the others: its result contains the error instead of the rows.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<List<BatchQueryResult>> execBatchReadQuery(
+            @ToolParam(description = "The SQL queries to execute") List<String> queries,
+            @ToolParam(description = "The values of the named parameters of each query, in the order of the queries, referenced as :name in the queries", required = false) List<Map<String, Object>> parameters) {
+        log.info("Executing batch of {} read queries", queries.size());
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        if (queries.size() > batchConfig.getMaxQueries()) {
+            throw new IllegalArgumentException(
+                    "A batch cannot contain more than " + batchConfig.getMaxQueries() + " queries.");
+        }
+        if (parameters != null && parameters.size() != queries.size()) {
+            throw new IllegalArgumentException("The batch has " + queries.size() + " queries but "
+                    + parameters.size() + " parameter sets.");
+        }
+
+        return toolMetrics.mono(MySqlConstants.BATCH_READ_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> Flux.range(0, queries.size())
+                        .flatMapSequential(index -> batchRead(invocation, index, queries.get(index),
+                                parameters == null ? null : parameters.get(index)), batchConfig.getParallelism())
+                        .doOnNext(result -> invocation.addRows(result.getRows() == null ? 0 : result.getRows().size()))
+                        .collectList());
+    }
+
+    private Mono<BatchQueryResult> batchRead(ToolInvocation invocation, int index, String query,
+            Map<String, Object> parameters) {
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.isWrite()) {
+            return Mono.just(BatchQueryResult.failure(index, query, new IllegalArgumentException(
+                    "The provided query is a write query, but this method only supports read queries.")));
+        }
+
+        String limited = resultBudgets.pushDown(MySqlConstants.BATCH_READ_TOOL, query, classification);
+        ResultBudget budget = new ResultBudget();
+        return guard(limited, classification, parameters)
+                .thenMany(resultBudgets.limit(MySqlConstants.BATCH_READ_TOOL, budget, resultCache.get(
+                        MySqlConstants.DATASOURCE, QueryNormalizer.SQL, limited, parameters, classification.tables(),
+                        () -> invocation.executes(QueryNormalizer.SQL, query, replicaRouter.read(
+                                client -> QueryMapperHelper.bind(client.sql(limited), parameters)
+                                        .map(invocation.timed(QueryMapperHelper::rowToMap))
+                                        .all())))))
+                .collectList()
+                .map(rows -> BatchQueryResult.success(index, query, rows, budget.getReason()))
+                .onErrorResume(e -> Mono.just(BatchQueryResult.failure(index, query, e)));
+    }
+
+    /**
+     * Checks the plan of a read query with the cost guard before it runs.
+     * Only queries that can be explained are checked.
+     */
+    private Mono<Void> guard(String query, StatementClassification classification, Map<String, Object> parameters) {
+        if (!"SELECT".equals(classification.leadingKeyword()) && !"WITH".equals(classification.leadingKeyword())) {
+            return Mono.empty();
+        }
+        return costGuard.check(MySqlConstants.DATASOURCE, QueryNormalizer.SQL, query, parameters,
+                () -> catalogIntrospector.explain(replicaRouter, query, parameters));
+    }
+
+    @Tool(name = MySqlConstants.EXPORT_TOOL, description = """
+            Executes a read query on the MySQL database and streams all of its result to a file of the export directory of the server, instead of returning it.
+            Returns the path of the file, its number of rows and size in bytes, and a preview of the first rows. Use it when the full result is needed for further processing.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<ExportResult> exportQuery(
+            @ToolParam(description = "The SQL query to execute") String query,
+            @ToolParam(description = "The file format: 'ndjson' (default) writes one JSON object per line, 'csv' writes a header line followed by one line per row", required = false) String format,
+            @ToolParam(description = "Whether to compress the file with gzip", required = false) Boolean compress,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as :name in the query", required = false) Map<String, Object> parameters) {
+        log.info("Exporting query result: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        if (!exportConfig.isEnabled()) {
+            throw new IllegalStateException("Export is not enabled in the configuration.");
+        }
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.isWrite()) {
             throw new IllegalArgumentException(
                     "The provided query is a write query, but this method only supports read queries.");
         }
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return toolMetrics.mono(MySqlConstants.EXPORT_TOOL, MySqlConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.SQL, query);
+            Flux<Map<String, Object>> rows = replicaRouter.read(client -> QueryMapperHelper.bind(client.sql(query), parameters)
+                    .filter(statement -> statement.fetchSize(cursorRegistry.getFetchSize()))
+                    .map(invocation.timed(QueryMapperHelper::rowToMap))
+                    .all());
+            return guard(query, classification, parameters)
+                    .then(resultExporter.export(MySqlConstants.DATASOURCE, rows, exportFormat,
+                            Boolean.TRUE.equals(compress)))
+                    .doOnNext(export -> invocation.addRows(export.getRows()));
+        });
+    }
+
+    @Tool(name = MySqlConstants.PROFILE_TOOL, description = """
+            Executes a query on the MySQL database with EXPLAIN ANALYZE and returns its execution plan as a tree: the operator of each step with its estimated and actual rows, its time and, when the database reports them, the buffers read.
+            The hottest steps, the ones taking the largest share of the time, are listed first. The rows of the query are not returned.
+            The query runs on the primary in a transaction that is always rolled back. Queries that write can only be profiled when write mode is enabled: the rollback does not undo the writes to non-transactional tables (MyISAM, MEMORY) nor sequence and AUTO_INCREMENT advances.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryProfile> profileQuery(
+            @ToolParam(description = "The SQL query to profile") String query,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as :name in the query", required = false) Map<String, Object> parameters) {
+        log.info("Profiling query: {}", query);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.statements() != 1) {
+            throw new IllegalArgumentException("Only a single statement can be profiled.");
+        }
+        // schema changes, procedures and server commands may take effect outside of the transaction
+        if (classification.has(StatementKind.DDL) || classification.has(StatementKind.PROCEDURE)
+                || classification.has(StatementKind.OTHER) || classification.autoCommit()) {
+            throw new IllegalArgumentException(
+                    "Schema changes, procedure calls, locking reads and server commands cannot be profiled.");
+        }
+        if (classification.isWrite() && !clientConfig.isWriteMode()) {
+            throw new IllegalStateException("Write mode is not enabled in the configuration, queries that write cannot be profiled.");
+        }
+
+        return toolMetrics.mono(MySqlConstants.PROFILE_TOOL, MySqlConstants.DATASOURCE,
+                // reads too: the functions they call can write
+                invocation -> transactions.rolledBack(catalogIntrospector.profile(db, query, parameters, true)));
+    }
+
+    @Tool(name = MySqlConstants.STATISTICS_TOOL, description = """
+            Returns the execution statistics of the queries run on the MySQL database by this server, grouped by fingerprint: queries differing only in their literals, which are replaced with ?, share the same statistics.
+            For each of them: the number of calls, errors and rows, and the total, mean, minimum and maximum time. The latest queries slower than the slow query threshold can be included.
+            Use it to find the queries worth optimizing, then "Profile mysql query" to see where their time goes.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<QueryStatisticsReport> getQueryStatistics(
+            @ToolParam(description = "The order of the queries, largest first: 'total_time' (default), 'mean_time', 'max_time', 'calls', 'rows' or 'errors'", required = false) String order,
+            @ToolParam(description = "The maximum number of queries to return, 20 by default", required = false) Integer limit,
+            @ToolParam(description = "Whether to include the latest slow queries, true by default", required = false) Boolean slowQueries) {
+        log.info("Fetching query statistics ordered by: {}", order);
+        if (!clientConfig.isReadMode()) {
+            throw new IllegalStateException("Read mode is not enabled in the configuration.");
+        }
+        StatisticsOrder statisticsOrder = StatisticsOrder.of(order);
 
-        return db.sql(query)
-                .map((row, meta) -> QueryMapperHelper.rowToMap(row, meta))
-                .all();
+        return toolMetrics.mono(MySqlConstants.STATISTICS_TOOL, MySqlConstants.DATASOURCE,
+                invocation -> Mono.fromSupplier(() -> queryStatistics.report(MySqlConstants.DATASOURCE,
+                        statisticsOrder, limit == null ? 20 : limit, !Boolean.FALSE.equals(slowQueries)))
+                        .doOnNext(report -> invocation.addRows(report.getStatements().size())));
     }
 
-    @Tool(name = "Execute mysql write query", description = "Executes a write query on the MySQL database and returns the result as a map.", resultConverter = ReactorConverter.class)
+    @Tool(name = MySqlConstants.WRITE_TOOL, description = "Executes a write query on the MySQL database and returns the result as a map.", resultConverter = ReactorConverter.class)
     private Flux<Map<String, Object>> execWriteQuery(
-            @ToolParam(description = "The SQL query to execute") String query) {
+            @ToolParam(description = "The SQL query to execute") String query,
+            @ToolParam(description = "The values of the named parameters of the query, referenced as :name in the query", required = false) Map<String, Object> parameters) {
         log.info("Executing write query: {}", query);
         if (!clientConfig.isWriteMode()) {
             throw new IllegalStateException("Write mode is not enabled in the configuration.");
         }
-        if (isReadQuery(query) && !clientConfig.isReadMode()) {
+
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.isRead() && !clientConfig.isReadMode()) {
             throw new IllegalStateException("Read mode is not enabled in the configuration.");
         }
 
-        String lowered = query.trim().toLowerCase();
-        boolean isInsert = lowered.startsWith("insert");
-        boolean isUpdate = lowered.startsWith("update");
-        boolean isDelete = lowered.startsWith("delete");
-        boolean isReturningCandidate = (isInsert || isUpdate || isDelete);
-
-        if (isReturningCandidate && !lowered.contains("returning")) {
+        if (classification.isReturningCandidate()) {
+            query = query.trim();
             if (query.endsWith(";")) {
                 query = query.substring(0, query.length() - 1).trim();
             }
-            query += " RETURNING *";
+            // on its own line so that a trailing line comment cannot swallow it
+            query += "\nRETURNING *";
         }
 
-        return db.sql(query).map((row, meta) -> {
-            Map<String, Object> map = new LinkedHashMap<>();
-            meta.getColumnMetadatas().forEach(col -> {
-                String name = col.getName();
-                map.put(name, row.get(name));
-            });
-            return map;
+        // procedures and unknown statements may change any table, or the schema
+        boolean unknown = classification.has(StatementKind.PROCEDURE) || classification.has(StatementKind.OTHER);
+        boolean isDdl = classification.has(StatementKind.DDL) || unknown;
+        Set<String> writtenTables = unknown ? Set.of() : classification.tables();
+
+        String statement = query;
+        return toolMetrics.flux(MySqlConstants.WRITE_TOOL, MySqlConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.SQL, statement);
+            return QueryMapperHelper.bind(db.sql(statement), parameters)
+                    .map(invocation.timed(QueryMapperHelper::rowToMap))
+                    .all();
         })
-                .all()
-                .switchIfEmpty(Flux.just(Map.of("message", "DDL executed successfully")));
+                .switchIfEmpty(Flux.just(Map.of("message", "DDL executed successfully")))
+                .doFinally(signal -> {
+                    resultCache.invalidate(MySqlConstants.DATASOURCE, writtenTables);
+                    if (isDdl) {
+                        schemaCache.invalidate();
+                        tableCache.invalidate();
+                    }
+                });
     }
 
-    private boolean isWriteQuery(String mysqlQuery) {
-        if (mysqlQuery == null)
-            return false;
+    @Tool(name = MySqlConstants.BATCH_WRITE_TOOL, description = """
+            Executes a write statement on the MySQL database once for each set of parameters, in transactions, and returns the number of affected rows.
+            The statement refers to the parameters by name, for example: INSERT INTO person (name, age) VALUES (:name, :age).
+            The parameter sets are executed in chunks; with commit mode 'all' (default) the whole batch is rolled back if any of them fails,
+            with commit mode 'chunk' each chunk is committed on its own and the errors of the failed chunks are reported.
+            """, resultConverter = ReactorConverter.class)
+    private Mono<BatchWriteResult> execBatchWriteQuery(
+            @ToolParam(description = "The SQL statement to execute, with named parameters") String query,
+            @ToolParam(description = "The parameter sets, one map of parameter name to value per execution") List<Map<String, Object>> parameters,
+            @ToolParam(description = "The commit mode: 'all' (default) or 'chunk'", required = false) String commitMode) {
+        log.info("Executing batch write query with {} parameter sets: {}", parameters.size(), query);
+        if (!clientConfig.isWriteMode()) {
+            throw new IllegalStateException("Write mode is not enabled in the configuration.");
+        }
+        if (parameters.size() > batchConfig.getMaxParameterSets()) {
+            throw new IllegalArgumentException(
+                    "A batch cannot contain more than " + batchConfig.getMaxParameterSets() + " parameter sets.");
+        }
+
+        StatementClassification classification = StatementClassifier.SQL.classify(query);
+        if (classification.statements() > 1) {
+            throw new IllegalArgumentException("A batch write executes a single statement.");
+        }
+        if (!classification.isWrite()) {
+            throw new IllegalArgumentException(
+                    "The provided query is a read query, but this method only supports write queries.");
+        }
 
-        String regex = "(?i)\\b(INSERT|UPDATE|DELETE|CREATE)\\b";
-        return mysqlQuery.matches("(?s).*" + regex + ".*");
+        CommitMode mode = CommitMode.of(commitMode);
+        int chunkSize = batchConfig.getWriteChunkSize();
+        int chunks = (parameters.size() + chunkSize - 1) / chunkSize;
+        boolean unknown = classification.has(StatementKind.PROCEDURE) || classification.has(StatementKind.OTHER);
+        Set<String> writtenTables = unknown ? Set.of() : classification.tables();
+
+        BatchStatement statement = batchStatement(query);
+
+        return toolMetrics.mono(MySqlConstants.BATCH_WRITE_TOOL, MySqlConstants.DATASOURCE, invocation -> {
+            invocation.executes(QueryNormalizer.SQL, query);
+            Flux<List<Map<String, Object>>> chunked = Flux.fromIterable(parameters).buffer(chunkSize);
+            Mono<BatchWriteResult> result;
+            if (mode == CommitMode.ALL) {
+                result = transactions.write(chunked.concatMap(chunk -> writeChunk(statement, query, chunk))
+                        .reduce(0L, Long::sum))
+                        .map(affected -> BatchWriteResult.committed(parameters.size(), chunks, affected, Map.of()))
+                        .onErrorResume(e -> Mono.just(BatchWriteResult.rolledBack(parameters.size(), chunks, e)));
+            } else {
+                result = chunked.index()
+                        .concatMap(chunk -> transactions.write(writeChunk(statement, query, chunk.getT2()))
+                                .map(affected -> BatchWriteResult.Chunk.committed(chunk.getT1().intValue(), affected, Map.of()))
+                                .onErrorResume(e -> Mono.just(BatchWriteResult.Chunk.failed(chunk.getT1().intValue(), e))))
+                        .collectList()
+                        .map(outcomes -> BatchWriteResult.of(mode, parameters.size(), outcomes));
+            }
+            return result.doOnNext(batch -> invocation.addRows(batch.getAffected()));
+        })
+                .doFinally(signal -> {
+                    resultCache.invalidate(MySqlConstants.DATASOURCE, writtenTables);
+                    if (classification.has(StatementKind.DDL) || unknown) {
+                        schemaCache.invalidate();
+                        tableCache.invalidate();
+                    }
+                });
     }
 
-    private boolean isReadQuery(String mysqlQuery) {
-        return !isWriteQuery(mysqlQuery);
+    /**
+     * Executes the statement for all the parameter sets of the chunk as a
+     * single statement with one binding per set, on the connection of the
+     * transaction. Statements whose parameters cannot be rewritten reliably,
+     * or bound to collections, are executed once per parameter set instead.
+     */
+    private Mono<Long> writeChunk(BatchStatement statement, String query, List<Map<String, Object>> chunk) {
+        if (statement == null || !BatchStatement.canBind(chunk)) {
+            return Flux.fromIterable(chunk)
+                    .concatMap(parameters -> QueryMapperHelper.bind(db.sql(query), parameters)
+                            .fetch()
+                            .rowsUpdated())
+                    .reduce(0L, Long::sum);
+        }
+        return db.inConnection(connection -> statement.execute(connection, chunk));
+    }
+
+    private BatchStatement batchStatement(String query) {
+        try {
+            return BatchStatement.of(query, BindMarkersFactoryResolver.resolve(db.getConnectionFactory()));
+        } catch (BindMarkersFactoryResolver.NoBindMarkersFactoryException e) {
+            log.debug("No bind markers for the connection factory, executing batch writes one by one");
+            return null;
+        }
     }
 
-}
\ No newline at end of file
+}
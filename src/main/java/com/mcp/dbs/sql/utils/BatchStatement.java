@@ -0,0 +1,150 @@
+package com.mcp.dbs.sql.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.r2dbc.core.binding.BindMarker;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.r2dbc.core.binding.BindTarget;
+
+import com.mcp.dbs.query.QueryDialect;
+import com.mcp.dbs.query.QueryLexer;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Statement with named parameters ({@code :name}) rewritten with the bind
+ * markers of the driver, so that it is executed once for many parameter
+ * sets: each set is a binding of a single R2DBC {@link Statement}, which the
+ * driver sends together instead of waiting for each execution in turn.
+ */
+public class BatchStatement {
+
+    private final String sql;
+    private final List<BindMarker> markers;
+    private final List<String> names;
+
+    private BatchStatement(String sql, List<BindMarker> markers, List<String> names) {
+        this.sql = sql;
+        this.markers = markers;
+        this.names = names;
+    }
+
+    /**
+     * @return the statement, or {@code null} when its parameters cannot be
+     *         told apart reliably: the lexer finds the text ambiguous
+     */
+    public static BatchStatement of(String query, BindMarkersFactory factory) {
+        QueryLexer lexer = new QueryLexer(query, QueryDialect.SQL);
+        BindMarkers bindMarkers = factory.create();
+        StringBuilder sql = new StringBuilder(query.length());
+        List<BindMarker> markers = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int copied = 0;
+        int colon = -1;
+        int previousColon = -1;
+
+        for (QueryLexer.Token token = lexer.next(); token != QueryLexer.Token.END; token = lexer.next()) {
+            if (token == QueryLexer.Token.WORD && colon >= 0 && colon + 1 == lexer.getStart()) {
+                BindMarker marker = bindMarkers.next(lexer.text());
+                sql.append(query, copied, colon).append(marker.getPlaceholder());
+                copied = lexer.getEnd();
+                markers.add(marker);
+                names.add(lexer.text());
+            }
+            // :name, but not the type of a ::cast
+            boolean isColon = token == QueryLexer.Token.SYMBOL && lexer.symbol() == ':';
+            boolean cast = previousColon == lexer.getStart()
+                    || lexer.getEnd() < query.length() && query.charAt(lexer.getEnd()) == ':';
+            colon = isColon && !cast ? lexer.getStart() : -1;
+            previousColon = isColon ? lexer.getEnd() : -1;
+        }
+
+        if (lexer.getAmbiguities() != 0) {
+            return null;
+        }
+        sql.append(query, copied, query.length());
+        return new BatchStatement(sql.toString(), List.copyOf(markers), List.copyOf(names));
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Whether the parameter sets can be bound as they are: collections are
+     * expanded into lists of markers by {@code DatabaseClient} only.
+     */
+    public static boolean canBind(List<Map<String, Object>> parameterSets) {
+        return parameterSets.stream()
+                .filter(Objects::nonNull)
+                .flatMap(parameters -> parameters.values().stream())
+                .noneMatch(value -> value instanceof Collection<?> || value instanceof Object[]);
+    }
+
+    /**
+     * Executes the statement on the connection with one binding per
+     * parameter set.
+     *
+     * @return the number of affected rows
+     */
+    public Mono<Long> execute(Connection connection, List<Map<String, Object>> parameterSets) {
+        return Mono.defer(() -> {
+            Statement statement = connection.createStatement(sql);
+            StatementTarget target = new StatementTarget(statement);
+            for (int set = 0; set < parameterSets.size(); set++) {
+                if (set > 0) {
+                    statement.add();
+                }
+                Map<String, Object> parameters = parameterSets.get(set);
+                for (int i = 0; i < markers.size(); i++) {
+                    String name = names.get(i);
+                    if (parameters == null || !parameters.containsKey(name)) {
+                        return Mono.error(new IllegalArgumentException(
+                                "Parameter set " + set + " has no value for parameter :" + name + "."));
+                    }
+                    Object value = parameters.get(name);
+                    if (value == null) {
+                        markers.get(i).bindNull(target, Object.class);
+                    } else {
+                        markers.get(i).bind(target, value);
+                    }
+                }
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(Result::getRowsUpdated)
+                    .reduce(0L, Long::sum);
+        });
+    }
+
+    private record StatementTarget(Statement statement) implements BindTarget {
+
+        @Override
+        public void bind(String identifier, Object value) {
+            statement.bind(identifier, value);
+        }
+
+        @Override
+        public void bind(int index, Object value) {
+            statement.bind(index, value);
+        }
+
+        @Override
+        public void bindNull(String identifier, Class<?> type) {
+            statement.bindNull(identifier, type);
+        }
+
+        @Override
+        public void bindNull(int index, Class<?> type) {
+            statement.bindNull(index, type);
+        }
+    }
+}
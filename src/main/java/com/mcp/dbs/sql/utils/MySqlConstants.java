@@ -1,12 +1,63 @@
 package com.mcp.dbs.sql.utils;
 
 import java.util.List;
+import java.util.Set;
 
 public class MySqlConstants {
-    public static final List<String> WRITE_OPERATORS = List.of(
-        "insert",
-        "update",
-        "delete",
-        "create"
+    public static final String DATASOURCE = "mysql";
+
+    public static final String SCHEMA_TOOL = "Get MySQL DB schema";
+    public static final String LIST_TABLES_TOOL = "List mysql tables";
+    public static final String DESCRIBE_TABLES_TOOL = "Describe mysql tables";
+    public static final String READ_TOOL = "Execute mysql read query";
+    public static final String WRITE_TOOL = "Execute mysql write query";
+    public static final String PAGED_READ_TOOL = "Execute mysql paged read query";
+    public static final String FETCH_PAGE_TOOL = "Fetch mysql query page";
+    public static final String BATCH_READ_TOOL = "Execute mysql batch read query";
+    public static final String BATCH_WRITE_TOOL = "Execute mysql batch write query";
+    public static final String PROFILE_TOOL = "Profile mysql query";
+    public static final String EXPORT_TOOL = "Export mysql query result";
+    public static final String STATISTICS_TOOL = "Get mysql query statistics";
+
+    public static final Set<String> READ_TOOLS = Set.of(READ_TOOL, PAGED_READ_TOOL, FETCH_PAGE_TOOL, BATCH_READ_TOOL,
+            PROFILE_TOOL, EXPORT_TOOL, STATISTICS_TOOL);
+    public static final Set<String> WRITE_TOOLS = Set.of(WRITE_TOOL, BATCH_WRITE_TOOL);
+    /** Tools whose statement keeps running after the call returns, to a file or through a cursor. */
+    public static final Set<String> STREAMING_TOOLS = Set.of(PAGED_READ_TOOL, FETCH_PAGE_TOOL, EXPORT_TOOL);
+
+    /*
+     * Keyword tables of the statement classifier. Reserved words are
+     * classified wherever they appear; the non-reserved ones can also be
+     * column names, so they only count at the start of a statement.
+     */
+    public static final List<String> READ_KEYWORDS = List.of(
+        "SELECT", "WITH", "SHOW", "EXPLAIN", "DESCRIBE", "VALUES"
+    );
+
+    public static final List<String> DML_KEYWORDS = List.of(
+        "INSERT", "UPDATE", "DELETE"
+    );
+
+    public static final List<String> DDL_KEYWORDS = List.of(
+        "CREATE", "ALTER", "DROP", "GRANT"
+    );
+
+    public static final List<String> LEADING_DML_KEYWORDS = List.of(
+        "MERGE", "REPLACE", "COPY", "LOAD"
+    );
+
+    public static final List<String> LEADING_DDL_KEYWORDS = List.of(
+        "TRUNCATE", "RENAME", "REVOKE", "COMMENT", "REINDEX", "CLUSTER", "VACUUM", "REFRESH", "IMPORT"
+    );
+
+    public static final List<String> PROCEDURE_KEYWORDS = List.of(
+        "CALL", "EXEC", "EXECUTE", "DO"
+    );
+
+    public static final List<String> CLAUSE_KEYWORDS = List.of(
+        "FROM", "JOIN", "INTO", "TABLE", "WHERE", "ON", "USING", "GROUP", "ORDER", "LIMIT", "HAVING", "UNION",
+        "EXCEPT", "INTERSECT", "WINDOW", "OFFSET", "FETCH", "FOR", "SET", "RETURNING", "LEFT", "RIGHT",
+        "INNER", "OUTER", "FULL", "CROSS", "NATURAL", "AS", "KEY", "IF", "NOT", "EXISTS", "ONLY",
+        "LATERAL", "ANALYZE", "VERBOSE", "LOCK"
     );
 }
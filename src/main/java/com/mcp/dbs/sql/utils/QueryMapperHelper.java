@@ -1,84 +1,57 @@
 package com.mcp.dbs.sql.utils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.ColumnMetadata;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 
-import com.mcp.dbs.sql.pojo.MySqlSchema;
+import com.mcp.dbs.converter.ColumnarResult;
 
 
 public class QueryMapperHelper {
 
-    public static MySqlSchema mapToSchema(List<RowData> rows) {
-        Map<String, List<RowData>> groupedByTable = rows.stream().collect(Collectors.groupingBy(r -> r.table));
-
-        List<MySqlSchema.MySqlTable> tables = new ArrayList<>();
-
-        for (var entry : groupedByTable.entrySet()) {
-            String tableName = entry.getKey();
-            List<RowData> tableRows = entry.getValue();
-
-            Map<String, MySqlSchema.MySqlTable.MySqlColumn> columns = new LinkedHashMap<>();
-            List<MySqlSchema.MySqlTable.MySqlConstraint> constraints = new ArrayList<>();
-            List<MySqlSchema.MySqlTable.MySqlForeignKey> foreignKeys = new ArrayList<>();
-            Set<String> constraintKeys = new HashSet<>();
-
-            for (RowData row : tableRows) {
-                columns.putIfAbsent(row.column, new MySqlSchema.MySqlTable.MySqlColumn(
-                        row.column, row.type, row.nullable, row.defaultValue
-                ));
-
-                if (row.constraintType != null) {
-                    if (row.constraintType.equals("FOREIGN KEY")) {
-                        foreignKeys.add(new MySqlSchema.MySqlTable.MySqlForeignKey(
-                                row.column, row.foreignTable, row.foreignColumn
-                        ));
-                    } else {
-                        String key = row.column + "|" + row.constraintType + "|" + row.constraintName;
-                        if (constraintKeys.add(key)) {
-                            constraints.add(new MySqlSchema.MySqlTable.MySqlConstraint(
-                                    row.column, row.constraintType, row.constraintName
-                            ));
-                        }
-                    }
-                }
-            }
-
-            tables.add(new MySqlSchema.MySqlTable(
-                    tableName,
-                    new ArrayList<>(columns.values()),
-                    foreignKeys,
-                    constraints));
+    /**
+     * Binds named parameters ({@code :name} in the statement); {@code null}
+     * values are bound without a type so that the server infers it.
+     */
+    public static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+            Map<String, Object> parameters) {
+        if (parameters == null) {
+            return spec;
         }
-
-        return new MySqlSchema(tables);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = parameter.getValue() == null
+                    ? spec.bindNull(parameter.getKey(), Object.class)
+                    : spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
     }
 
     public static Map<String, Object> rowToMap(Row row, RowMetadata meta) {
-        Map<String, Object> map = new HashMap<>();
-        meta.getColumnMetadatas().forEach(col -> {
-            String columnName = col.getName();
-            map.put(columnName, row.get(columnName));
-        });
+        List<? extends ColumnMetadata> columns = meta.getColumnMetadatas();
+        Map<String, Object> map = new LinkedHashMap<>((int) (columns.size() / 0.75f) + 1);
+        for (int i = 0; i < columns.size(); i++) {
+            map.put(columns.get(i).getName(), row.get(i));
+        }
         return map;
     }
 
-    public static record RowData(
-            String table,
-            String column,
-            String type,
-            boolean nullable,
-            String defaultValue,
-            String constraintType,
-            String constraintName,
-            String foreignTable,
-            String foreignColumn) {
+    public static Object[] rowToArray(Row row, RowMetadata meta) {
+        Object[] values = new Object[meta.getColumnMetadatas().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.get(i);
+        }
+        return values;
+    }
+
+    public static List<ColumnarResult.Column> columns(RowMetadata meta) {
+        return meta.getColumnMetadatas().stream()
+                .map(col -> new ColumnarResult.Column(col.getName(), col.getType().getName()))
+                .toList();
     }
 }
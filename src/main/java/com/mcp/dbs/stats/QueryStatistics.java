@@ -0,0 +1,273 @@
+package com.mcp.dbs.stats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.config.QueryStatisticsConfig;
+import com.mcp.dbs.metrics.ToolInvocation;
+import com.mcp.dbs.pojo.QueryStatisticsReport;
+import com.mcp.dbs.pojo.SlowQuery;
+import com.mcp.dbs.pojo.StatementStatistics;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Execution statistics of the queries run by the tools, aggregated by
+ * fingerprint in the manner of {@code pg_stat_statements}: queries differing
+ * only in their literals share an entry holding their number of calls,
+ * errors and rows and their total, minimum and maximum time.
+ * <p>
+ * Entries are updated with adders and accumulators, without locks. When
+ * there are more entries than the configured maximum, the least called
+ * ones, about 5% of the maximum, are evicted together. Executions slower
+ * than the threshold are also kept in a ring buffer of the latest ones.
+ */
+@Slf4j
+@Component
+public class QueryStatistics {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final QueryStatisticsConfig config;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder evicted = new LongAdder();
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+    private final AtomicLong slowQueryCount = new AtomicLong();
+    private volatile Instant since = Instant.now();
+
+    private final Counter evictions;
+    private final Counter slowExecutions;
+
+    public QueryStatistics(QueryStatisticsConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.slowQueries = new AtomicReferenceArray<>(Math.max(0, config.getSlowLogSize()));
+        this.evictions = Counter.builder("dbs.query.stats.evictions")
+                .description("Query fingerprints evicted from the statistics")
+                .register(registry);
+        this.slowExecutions = Counter.builder("dbs.query.slow")
+                .description("Query executions slower than the slow query threshold")
+                .register(registry);
+        Gauge.builder("dbs.query.stats.entries", entries, Map::size)
+                .description("Query fingerprints held in the statistics")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Records an execution of a query.
+     *
+     * @param outcome the outcome of the execution, as reported by
+     *                {@link ToolInvocation#getOutcome()}
+     */
+    public void record(String datasource, String tool, QueryNormalizer normalizer, String query, long nanos,
+            long rows, String outcome) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        String normalized = normalizer.normalize(query);
+        Key key = new Key(datasource, fingerprint(normalized));
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(key, k -> new Entry(truncate(normalized)));
+            if (entries.size() > config.getMaxEntries()) {
+                evict();
+            }
+        }
+        boolean failed = ToolInvocation.ERROR.equals(outcome);
+        entry.record(nanos, rows, failed);
+
+        if (nanos >= config.getSlowThreshold().toNanos()) {
+            slowExecutions.increment();
+            log.warn("Slow {} query ({} ms, {} rows, {}): {}", datasource, nanos / 1_000_000, rows, outcome,
+                    entry.query);
+            if (slowQueries.length() > 0) {
+                int slot = (int) (slowQueryCount.getAndIncrement() % slowQueries.length());
+                slowQueries.set(slot, new SlowQuery(Instant.now(), datasource, tool, key.hex(), entry.query,
+                        nanos / 1e6, rows, outcome));
+            }
+        }
+    }
+
+    /**
+     * Records the execution of a query run outside of the invocation
+     * timings, such as one query of a batch: its time is the time from
+     * subscription to termination, and its rows the elements emitted.
+     */
+    public <T> Flux<T> track(String datasource, String tool, QueryNormalizer normalizer, String query,
+            Flux<T> execution) {
+        if (!config.isEnabled()) {
+            return execution;
+        }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            LongAdder rows = new LongAdder();
+            return execution.doOnNext(row -> rows.increment())
+                    .doFinally(signal -> record(datasource, tool, normalizer, query, System.nanoTime() - start,
+                            rows.sum(), switch (signal) {
+                                case ON_ERROR -> ToolInvocation.ERROR;
+                                case CANCEL -> ToolInvocation.CANCELLED;
+                                default -> ToolInvocation.SUCCESS;
+                            }));
+        });
+    }
+
+    /**
+     * @param datasource the datasource of the queries, all of them when
+     *                   {@code null}
+     * @param limit      the maximum number of fingerprints returned
+     * @param slow       whether to include the slow queries, latest first
+     */
+    public QueryStatisticsReport report(String datasource, StatisticsOrder order, int limit, boolean slow) {
+        List<StatementStatistics> statements = entries.entrySet().stream()
+                .filter(e -> datasource == null || datasource.equals(e.getKey().datasource()))
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(order.comparator())
+                .limit(Math.max(0, limit))
+                .toList();
+
+        List<SlowQuery> slowest = new ArrayList<>();
+        if (slow) {
+            for (int i = 0; i < slowQueries.length(); i++) {
+                SlowQuery query = slowQueries.get(i);
+                if (query != null && (datasource == null || datasource.equals(query.getDatasource()))) {
+                    slowest.add(query);
+                }
+            }
+            slowest.sort(Comparator.comparing(SlowQuery::getTimestamp).reversed());
+        }
+        return new QueryStatisticsReport(since, entries.size(), evicted.sum(), statements, slowest);
+    }
+
+    public void reset() {
+        entries.clear();
+        for (int i = 0; i < slowQueries.length(); i++) {
+            slowQueries.set(i, null);
+        }
+        evicted.reset();
+        since = Instant.now();
+        log.info("Query statistics reset");
+    }
+
+    /**
+     * Evicts the least called entries, the least recently seen first among
+     * equals, so that new entries are not the first to go. One thread
+     * evicts at a time; the others go on recording meanwhile.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int excess = entries.size() - config.getMaxEntries();
+            if (excess <= 0) {
+                return;
+            }
+            // the counts keep changing: sort a snapshot of them
+            List<Usage> usages = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> usages.add(new Usage(key, entry, entry.calls.sum(), entry.lastSeen)));
+            usages.sort(Comparator.comparingLong(Usage::calls).thenComparingLong(Usage::lastSeen));
+
+            int count = Math.min(usages.size(), Math.max(excess, config.getMaxEntries() / 20));
+            int removed = 0;
+            for (Usage usage : usages.subList(0, count)) {
+                if (entries.remove(usage.key(), usage.entry())) {
+                    removed++;
+                }
+            }
+            evicted.add(removed);
+            evictions.increment(removed);
+            log.debug("Evicted {} query fingerprints from the statistics", removed);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private String truncate(String query) {
+        return query.length() <= config.getMaxQueryLength() ? query
+                : query.substring(0, Math.max(0, config.getMaxQueryLength())) + "...";
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the normalized query, stable across restarts.
+     */
+    private static long fingerprint(String normalized) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private record Key(String datasource, long fingerprint) {
+
+        String hex() {
+            return HexFormat.of().toHexDigits(fingerprint);
+        }
+    }
+
+    private record Usage(Key key, Entry entry, long calls, long lastSeen) {
+    }
+
+    private static class Entry {
+
+        private final String query;
+        private final Instant firstSeen = Instant.now();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        Entry(String query) {
+            this.query = query;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            rows.add(rowCount);
+            totalNanos.add(nanos);
+            minNanos.accumulate(nanos);
+            maxNanos.accumulate(nanos);
+            lastSeen = System.currentTimeMillis();
+        }
+
+        StatementStatistics snapshot(Key key) {
+            long count = calls.sum();
+            double total = totalNanos.sum() / 1e6;
+            long min = minNanos.get();
+            return new StatementStatistics(key.hex(), key.datasource(), query, count, errors.sum(), rows.sum(),
+                    total, count == 0 ? 0 : total / count, min == Long.MAX_VALUE ? 0 : min / 1e6,
+                    maxNanos.get() / 1e6, firstSeen, Instant.ofEpochMilli(lastSeen));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mcp.dbs.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.mcp.dbs.pojo.QueryStatisticsReport;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exposes the query statistics of all the datasources at
+ * {@code /actuator/querystats}, e.g.
+ * {@code /actuator/querystats?datasource=mysql&order=mean_time&limit=10}.
+ * They are reset through the separate {@link QueryStatisticsResetEndpoint}.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "querystats")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final QueryStatistics queryStatistics;
+
+    @ReadOperation
+    public QueryStatisticsReport statistics(@Nullable String datasource, @Nullable String order,
+            @Nullable Integer limit, @Nullable Boolean slow) {
+        return queryStatistics.report(datasource, StatisticsOrder.of(order), limit == null ? DEFAULT_LIMIT : limit,
+                !Boolean.FALSE.equals(slow));
+    }
+}
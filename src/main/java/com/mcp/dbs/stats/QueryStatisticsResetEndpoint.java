@@ -0,0 +1,26 @@
+package com.mcp.dbs.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resets the query statistics of all the datasources with a {@code DELETE}
+ * of {@code /actuator/querystatsreset}. The endpoint is kept apart from
+ * {@link QueryStatisticsEndpoint} so that it is not exposed over HTTP unless
+ * it is added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "querystatsreset")
+public class QueryStatisticsResetEndpoint {
+
+    private final QueryStatistics queryStatistics;
+
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
@@ -0,0 +1,39 @@
+package com.mcp.dbs.stats;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+import com.mcp.dbs.pojo.StatementStatistics;
+
+/**
+ * The orders in which the query statistics can be listed, largest first.
+ */
+public enum StatisticsOrder {
+    TOTAL_TIME(Comparator.comparingDouble(StatementStatistics::getTotalTimeMs)),
+    MEAN_TIME(Comparator.comparingDouble(StatementStatistics::getMeanTimeMs)),
+    MAX_TIME(Comparator.comparingDouble(StatementStatistics::getMaxTimeMs)),
+    CALLS(Comparator.comparingLong(StatementStatistics::getCalls)),
+    ROWS(Comparator.comparingLong(StatementStatistics::getRows)),
+    ERRORS(Comparator.comparingLong(StatementStatistics::getErrors));
+
+    private final Comparator<StatementStatistics> comparator;
+
+    StatisticsOrder(Comparator<StatementStatistics> comparator) {
+        this.comparator = comparator.reversed();
+    }
+
+    Comparator<StatementStatistics> comparator() {
+        return comparator;
+    }
+
+    public static StatisticsOrder of(String order) {
+        if (order == null || order.isBlank()) {
+            return TOTAL_TIME;
+        }
+        try {
+            return valueOf(order.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported statistics order: " + order);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mcp.dbs.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Name filters of the schema tools: {@code *} matches any sequence of
+ * characters and {@code ?} any single character, ignoring case.
+ */
+public class NamePattern {
+
+    /**
+     * The pattern as a SQL {@code LIKE} pattern, escaped with a backslash.
+     */
+    public static String toLike(String pattern) {
+        StringBuilder like = new StringBuilder(pattern.length());
+        for (char c : pattern.toCharArray()) {
+            switch (c) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', '\\' -> like.append('\\').append(c);
+                default -> like.append(c);
+            }
+        }
+        return like.toString();
+    }
+
+    /**
+     * The pattern as a case-insensitive regular expression matching whole
+     * names.
+     */
+    public static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder("(?i)");
+        StringBuilder literal = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.mcp.dbs.utils;
+
+import java.lang.reflect.Field;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpServerSession;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ToolContextHelper {
+
+    public static final String ANONYMOUS_CLIENT = "anonymous";
+
+    /*
+     * The SDK does not expose the session of an exchange: it is read from
+     * their fields, which are null when they cannot be accessed
+     */
+    private static final Field ASYNC_EXCHANGE = field(McpSyncServerExchange.class, "exchange");
+    private static final Field SESSION = field(McpAsyncServerExchange.class, "session");
+
+    /**
+     * Name of the MCP client issuing the tool call, as reported during
+     * initialization.
+     */
+    public static String clientId(ToolContext toolContext) {
+        McpSyncServerExchange exchange = exchange(toolContext);
+        if (exchange != null && exchange.getClientInfo() != null) {
+            return exchange.getClientInfo().name();
+        }
+        return ANONYMOUS_CLIENT;
+    }
+
+    /**
+     * Identifier of the MCP session issuing the tool call, which owns what
+     * the call leaves open, such as cursors: several clients can report the
+     * same name. Falls back to the client name when the session is unknown.
+     */
+    public static String sessionId(ToolContext toolContext) {
+        McpSyncServerExchange exchange = exchange(toolContext);
+        if (exchange != null && ASYNC_EXCHANGE != null && SESSION != null) {
+            try {
+                Object session = SESSION.get(ASYNC_EXCHANGE.get(exchange));
+                if (session instanceof McpServerSession serverSession) {
+                    return clientId(toolContext) + "/" + serverSession.getId();
+                }
+            } catch (IllegalAccessException e) {
+                log.debug("Cannot read the MCP session of the exchange: {}", e.getMessage());
+            }
+        }
+        return clientId(toolContext);
+    }
+
+    private static McpSyncServerExchange exchange(ToolContext toolContext) {
+        if (toolContext == null) {
+            return null;
+        }
+        return toolContext.getContext().get(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY)
+                instanceof McpSyncServerExchange exchange ? exchange : null;
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Cannot access {}.{}, cursors are owned by client name: {}", type.getSimpleName(), name,
+                    e.getMessage());
+            return null;
+        }
+    }
+}
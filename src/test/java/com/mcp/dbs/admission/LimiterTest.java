@@ -0,0 +1,142 @@
+package com.mcp.dbs.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class LimiterTest {
+
+    private final Counter rejected = new SimpleMeterRegistry().counter("rejected");
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        Limiter limiter = new Limiter("test", 1, 1, rejected);
+        limiter.admit(task("a", Sinks.empty())).subscribe();
+        limiter.admit(task("b", Sinks.empty())).subscribe();
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        limiter.admit(task("c", Sinks.empty())).subscribe(null, error::set);
+
+        assertInstanceOf(IllegalStateException.class, error.get());
+        assertEquals(1, rejected.count());
+        assertEquals(List.of("a"), started);
+        assertEquals(1, limiter.active());
+        assertEquals(1, limiter.queued());
+    }
+
+    @Test
+    void handsPermitsOverInOrder() {
+        Limiter limiter = new Limiter("test", 1, 10, rejected);
+        Sinks.Empty<Void> a = Sinks.empty();
+        Sinks.Empty<Void> b = Sinks.empty();
+        Sinks.Empty<Void> c = Sinks.empty();
+        limiter.admit(task("a", a)).subscribe();
+        limiter.admit(task("b", b)).subscribe();
+        limiter.admit(task("c", c)).subscribe();
+        assertEquals(List.of("a"), started);
+
+        a.tryEmitEmpty();
+        assertEquals(List.of("a", "b"), started);
+        b.tryEmitError(new IllegalStateException());
+        assertEquals(List.of("a", "b", "c"), started);
+        assertEquals(1, limiter.active());
+
+        c.tryEmitEmpty();
+        assertEquals(0, limiter.active());
+    }
+
+    @Test
+    void cancellingAQueuedTaskFreesItsPlace() {
+        Limiter limiter = new Limiter("test", 1, 1, rejected);
+        Sinks.Empty<Void> a = Sinks.empty();
+        limiter.admit(task("a", a)).subscribe();
+        Disposable b = limiter.admit(task("b", Sinks.empty())).subscribe();
+
+        b.dispose();
+        assertEquals(0, limiter.queued());
+        limiter.admit(task("c", Sinks.empty())).subscribe();
+        assertEquals(1, limiter.queued());
+
+        a.tryEmitEmpty();
+        assertEquals(List.of("a", "c"), started);
+        assertEquals(1, limiter.active());
+    }
+
+    @Test
+    void cancellingATaskAsItIsGrantedHandsThePermitOver() {
+        Limiter limiter = new Limiter("test", 1, 10, rejected);
+        Sinks.Empty<Void> a = Sinks.empty();
+        Sinks.Empty<Void> c = Sinks.empty();
+        AtomicReference<Disposable> b = new AtomicReference<>();
+        limiter.admit(task("a", a)).subscribe();
+        b.set(limiter.admit(Flux.<Void>never().doOnSubscribe(subscription -> b.get().dispose())).subscribe());
+        limiter.admit(task("c", c)).subscribe();
+
+        a.tryEmitEmpty();
+        assertTrue(b.get().isDisposed());
+        assertEquals(List.of("a", "c"), started);
+        assertEquals(1, limiter.active());
+
+        c.tryEmitEmpty();
+        assertEquals(0, limiter.active());
+    }
+
+    @Test
+    void retainedPermitsOutliveTheTask() {
+        Limiter limiter = new Limiter("test", 1, 10, rejected);
+        AtomicReference<Runnable> release = new AtomicReference<>();
+        limiter.admit(Flux.<Void>deferContextual(context -> {
+            release.set(AdmissionPermits.retain(context));
+            return Flux.empty();
+        })).subscribe();
+        limiter.admit(task("b", Sinks.empty())).subscribe();
+        assertEquals(1, limiter.active());
+        assertEquals(List.of(), started);
+
+        release.get().run();
+        release.get().run();
+        assertEquals(List.of("b"), started);
+        assertEquals(1, limiter.active());
+    }
+
+    @Test
+    void leaksNoPermits() {
+        Limiter limiter = new Limiter("test", 3, 100, rejected);
+        List<Sinks.Empty<Void>> sinks = new ArrayList<>();
+        List<Disposable> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Sinks.Empty<Void> sink = Sinks.empty();
+            sinks.add(sink);
+            subscriptions.add(limiter.admit(task(String.valueOf(i), sink)).subscribe(null, error -> {
+            }));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            switch (i % 3) {
+                case 0 -> sinks.get(i).tryEmitEmpty();
+                case 1 -> sinks.get(i).tryEmitError(new IllegalStateException());
+                default -> subscriptions.get(i).dispose();
+            }
+            assertTrue(limiter.active() <= 3);
+        }
+        assertEquals(0, limiter.active());
+        assertEquals(0, limiter.queued());
+    }
+
+    private Flux<Void> task(String name, Sinks.Empty<Void> done) {
+        return done.asMono().flux().doOnSubscribe(subscription -> started.add(name));
+    }
+}
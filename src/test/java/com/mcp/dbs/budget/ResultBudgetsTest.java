@@ -0,0 +1,138 @@
+package com.mcp.dbs.budget;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.mcp.dbs.config.ResultBudgetConfig;
+import com.mcp.dbs.query.StatementClassifier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class ResultBudgetsTest {
+
+    private static final String TOOL = "Execute mysql read query";
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ResultBudgetConfig config;
+    private ResultBudgets budgets;
+
+    @BeforeEach
+    void setUp() {
+        config = new ResultBudgetConfig(environment);
+        config.setEnabled(true);
+        config.setMaxRows(3);
+        config.setMaxBytes(0);
+        config.setLimitPushdown(true);
+        budgets = new ResultBudgets(config, registry);
+    }
+
+    @Test
+    void truncatesToTheRowBudget() {
+        ResultBudget budget = new ResultBudget(() -> 0);
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 10))
+                .contextWrite(Context.of(ResultBudget.class, budget)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        assertTrue(budget.isTruncated());
+        assertEquals(ResultBudget.ROWS, budget.getReason());
+        assertEquals(3, budget.getRows());
+        assertEquals(1, registry.get("dbs.tool.truncated").tag("reason", ResultBudget.ROWS).counter().count());
+    }
+
+    @Test
+    void completeResultsAreNotTruncated() {
+        ResultBudget budget = new ResultBudget(() -> 0);
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 3))
+                .contextWrite(Context.of(ResultBudget.class, budget)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        assertFalse(budget.isTruncated());
+    }
+
+    @Test
+    void truncatesToTheByteBudget() {
+        config.setMaxRows(0);
+        config.setMaxBytes(100);
+        AtomicLong written = new AtomicLong();
+        ResultBudget budget = new ResultBudget(written::get);
+        // each row is written once admitted, as by the converter
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 10))
+                .doOnNext(row -> written.addAndGet(40))
+                .contextWrite(Context.of(ResultBudget.class, budget)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+
+        assertEquals(ResultBudget.BYTES, budget.getReason());
+    }
+
+    @Test
+    void chargedBytesCountAgainstTheBudget() {
+        config.setMaxRows(0);
+        config.setMaxBytes(100);
+        ResultBudget budget = new ResultBudget(() -> 0);
+        budget.charge(100);
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 10))
+                .contextWrite(Context.of(ResultBudget.class, budget)))
+                .verifyComplete();
+
+        assertEquals(ResultBudget.BYTES, budget.getReason());
+    }
+
+    @Test
+    void toolsCanHaveTheirOwnBudget() {
+        environment.setProperty("client.result-budget.tool.execute-mysql-read-query.max-rows", "1");
+        ResultBudget budget = new ResultBudget(() -> 0);
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 10))
+                .contextWrite(Context.of(ResultBudget.class, budget)))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void resultsWithoutBudgetAreNotLimited() {
+        StepVerifier.create(budgets.limit(TOOL, Flux.range(1, 10)))
+                .expectNextCount(10)
+                .verifyComplete();
+    }
+
+    @Test
+    void batchQueriesHaveTheirOwnBudget() {
+        config.setMaxRows(0);
+        // {"id":1} and its separator
+        config.setMaxBytes(18);
+        Flux<Map<String, Object>> rows = Flux.range(1, 5).map(id -> Map.of("id", id));
+
+        ResultBudget first = new ResultBudget();
+        ResultBudget second = new ResultBudget();
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2)),
+                budgets.limit(TOOL, first, rows).collectList().block());
+        assertEquals(2, budgets.limit(TOOL, second, rows).count().block());
+        assertEquals(ResultBudget.BYTES, first.getReason());
+        assertEquals(ResultBudget.BYTES, second.getReason());
+    }
+
+    @Test
+    void pushesTheRowBudgetDown() {
+        String query = "SELECT * FROM t";
+        assertEquals("SELECT * FROM t LIMIT 4",
+                budgets.pushDown(TOOL, query, StatementClassifier.SQL.classify(query)));
+
+        config.setLimitPushdown(false);
+        assertEquals(query, budgets.pushDown(TOOL, query, StatementClassifier.SQL.classify(query)));
+    }
+}
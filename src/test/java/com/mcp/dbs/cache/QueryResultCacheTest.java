@@ -0,0 +1,123 @@
+package com.mcp.dbs.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.dbs.config.ResultCacheConfig;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class QueryResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private ResultCacheConfig config;
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new ResultCacheConfig();
+        config.setEnabled(true);
+        config.setTtl(Duration.ofMinutes(1));
+        config.setMaxEntries(100);
+        config.setMaxBytes(1 << 20);
+        config.setMaxRows(100);
+        cache = new QueryResultCache(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void keysIgnoreLayoutButKeepLiterals() {
+        assertEquals(List.of(row(1)), get("SELECT * FROM t WHERE name = 'a  b'", Set.of("t"), row(1)));
+        assertEquals(List.of(row(1)), get("SELECT *\n  FROM t /* cached */ WHERE name = 'a  b';", Set.of("t"), row(2)));
+        assertEquals(List.of(row(3)), get("SELECT * FROM t WHERE name = 'a b'", Set.of("t"), row(3)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void coalescesConcurrentLoads() {
+        Sinks.Many<Map<String, Object>> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<Map<String, Object>> leader = cache.get("mysql", QueryNormalizer.SQL, "SELECT 1", Set.of("t"), () -> {
+            loads.incrementAndGet();
+            return rows.asFlux();
+        });
+        Flux<Map<String, Object>> follower = cache.get("mysql", QueryNormalizer.SQL, "SELECT 1", Set.of("t"), () -> {
+            loads.incrementAndGet();
+            return Flux.just(row(2));
+        });
+
+        StepVerifier.create(leader)
+                .then(() -> StepVerifier.create(follower.collectList())
+                        .then(() -> {
+                            rows.tryEmitNext(row(1));
+                            rows.tryEmitComplete();
+                        })
+                        .expectNext(List.of(row(1)))
+                        .verifyComplete())
+                .expectNext(row(1))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void writesInvalidateTheWholeDatasource() {
+        get("SELECT * FROM t", Set.of("t"), row(1));
+        get("SELECT * FROM v", Set.of("v"), row(1));
+        cache.invalidate("neo4j", Set.of());
+        assertEquals(List.of(row(1)), get("SELECT * FROM t", Set.of("t"), row(2)));
+
+        cache.invalidate("mysql", Set.of("u"));
+        assertEquals(List.of(row(3)), get("SELECT * FROM t", Set.of("t"), row(3)));
+        assertEquals(List.of(row(4)), get("SELECT * FROM v", Set.of("v"), row(4)));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidatesTouchedTablesWhenScoped() {
+        config.setTableScoped(true);
+        get("SELECT * FROM t", Set.of("t"), row(1));
+        cache.invalidate("mysql", Set.of("u"));
+        assertEquals(List.of(row(1)), get("SELECT * FROM t", Set.of("t"), row(2)));
+
+        cache.invalidate("mysql", Set.of("t"));
+        assertEquals(List.of(row(3)), get("SELECT * FROM t", Set.of("t"), row(3)));
+
+        // an empty table set is unknown and matches every write
+        cache.invalidate("mysql", Set.of());
+        assertEquals(List.of(row(4)), get("SELECT * FROM t", Set.of("t"), row(4)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void dropsResultsLoadedAcrossAWrite() {
+        Flux<Map<String, Object>> rows = cache.get("mysql", QueryNormalizer.SQL, "SELECT * FROM t", Set.of("t"), () -> {
+            loads.incrementAndGet();
+            return Flux.just(row(1)).doOnComplete(() -> cache.invalidate("mysql", Set.of("t")));
+        });
+        StepVerifier.create(rows).expectNext(row(1)).verifyComplete();
+
+        assertEquals(List.of(row(2)), get("SELECT * FROM t", Set.of("t"), row(2)));
+        assertEquals(2, loads.get());
+    }
+
+    private List<Map<String, Object>> get(String query, Set<String> tables, Map<String, Object> row) {
+        return cache.get("mysql", QueryNormalizer.SQL, query, tables, () -> {
+            loads.incrementAndGet();
+            return Flux.just(row);
+        }).collectList().block();
+    }
+
+    private static Map<String, Object> row(int id) {
+        return Map.of("id", id);
+    }
+}
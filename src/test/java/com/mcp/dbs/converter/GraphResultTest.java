@@ -0,0 +1,92 @@
+package com.mcp.dbs.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.dbs.budget.ResultBudget;
+import com.mcp.dbs.budget.ResultBudgets;
+import com.mcp.dbs.config.ResultBudgetConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+class GraphResultTest {
+
+    private static final String TOOL = "Execute neo4j read query";
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @Test
+    void writesEachNodeOnce() throws IOException {
+        JsonNode result = write(new GraphResult(
+                () -> List.of(new ColumnarResult.Column("n", null)),
+                Flux.just(row(node("n1", "Ann")), row(node("n2", "Bob")), row(node("n1", "Ann")))), null);
+
+        assertEquals("[{\"name\":\"n\",\"type\":null}]", result.get("columns").toString());
+        assertEquals("[[{\"node\":\"n1\"}],[{\"node\":\"n2\"}],[{\"node\":\"n1\"}]]", result.get("rows").toString());
+        assertEquals(List.of("n1", "n2"), ids(result.get("nodes")));
+        // the properties of a node are read once
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void truncatedResultsOnlyListTheNodesOfTheirRows() throws IOException {
+        MockEnvironment environment = new MockEnvironment();
+        ResultBudgetConfig config = new ResultBudgetConfig(environment);
+        config.setEnabled(true);
+        String first = ReactorConverter.OBJECT_MAPPER.writeValueAsString(
+                new GraphResult.Node("n1", List.of("Person"), Map.of("name", "Zoë")));
+        // the size of the first node in UTF-8: its ë takes two bytes
+        config.setMaxBytes(first.length() + 2);
+        ResultBudgets budgets = new ResultBudgets(config, new SimpleMeterRegistry());
+        ResultBudget budget = new ResultBudget();
+
+        JsonNode result = write(new GraphResult(List::of,
+                budgets.limit(TOOL, Flux.just(row(node("n1", "Zoë")), row(node("n2", "Bob"))))), budget);
+
+        assertEquals(1, result.get("rows").size());
+        assertEquals(List.of("n1"), ids(result.get("nodes")));
+        assertTrue(budget.isTruncated());
+        assertEquals(ResultBudget.BYTES, budget.getReason());
+    }
+
+    private GraphResult.Row row(Map<String, Object> node) {
+        GraphResult.Row row = new GraphResult.Row(1);
+        String id = (String) node.get("id");
+        row.set(0, row.node(id, () -> {
+            reads.incrementAndGet();
+            return new GraphResult.Node(id, List.of("Person"), Map.of("name", node.get("name")));
+        }));
+        return row;
+    }
+
+    private static Map<String, Object> node(String id, String name) {
+        return Map.of("id", id, "name", name);
+    }
+
+    private static List<String> ids(JsonNode entities) {
+        return entities.findValuesAsText("id");
+    }
+
+    private static JsonNode write(GraphResult result, ResultBudget budget) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = ReactorConverter.OBJECT_MAPPER.createGenerator(out)) {
+            result.writeTo(generator)
+                    .contextWrite(budget == null ? Context.empty() : Context.of(ResultBudget.class, budget))
+                    .block();
+        }
+        return ReactorConverter.OBJECT_MAPPER.readTree(out.toString());
+    }
+}
@@ -0,0 +1,151 @@
+package com.mcp.dbs.cursor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mcp.dbs.admission.StatementTimeout;
+import com.mcp.dbs.config.CursorConfig;
+import com.mcp.dbs.pojo.QueryPage;
+
+import reactor.core.publisher.Flux;
+
+class CursorRegistryTest {
+
+    private CursorConfig config;
+    private CursorRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        config = new CursorConfig();
+        config.setPageSize(2);
+        config.setMaxPageSize(10);
+        config.setFetchSize(10);
+        config.setIdleTimeout(Duration.ofMinutes(1));
+        config.setMaxPerClient(2);
+        config.setMaxOpen(3);
+        registry = new CursorRegistry(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ReflectionTestUtils.getField(registry, "reaper") != null) {
+            ReflectionTestUtils.invokeMethod(registry, "destroy");
+        }
+    }
+
+    @Test
+    void pagesThroughAResult() {
+        QueryPage page = registry.open("s1", "mysql", rows(5), null).block();
+        assertEquals(List.of(row(1), row(2)), page.getRows());
+        assertTrue(page.isHasMore());
+
+        page = registry.next("s1", "mysql", page.getCursor(), 2).block();
+        assertEquals(List.of(row(3), row(4)), page.getRows());
+
+        String cursor = page.getCursor();
+        page = registry.next("s1", "mysql", cursor, 2).block();
+        assertEquals(List.of(row(5)), page.getRows());
+        assertFalse(page.isHasMore());
+        assertNull(page.getCursor());
+
+        assertThrows(IllegalArgumentException.class, () -> registry.next("s1", "mysql", cursor, 2).block());
+    }
+
+    @Test
+    void readsNoFurtherThanTheFetchSize() {
+        AtomicInteger produced = new AtomicInteger();
+        registry.open("s1", "mysql", rows(1000).doOnNext(row -> produced.incrementAndGet()), null).block();
+
+        assertTrue(produced.get() <= config.getFetchSize(), "produced " + produced.get());
+    }
+
+    @Test
+    void readsRowsWithTheContextOfTheToolCall() {
+        AtomicReference<Duration> timeout = new AtomicReference<>();
+        Flux<Map<String, Object>> source = Flux.deferContextual(context -> {
+            timeout.set(StatementTimeout.of(context).orElse(null));
+            return rows(5);
+        });
+
+        registry.open("s1", "mysql", source, null)
+                .contextWrite(StatementTimeout.with(Duration.ofMinutes(30)))
+                .block();
+
+        assertEquals(Duration.ofMinutes(30), timeout.get());
+    }
+
+    @Test
+    void cursorsBelongToTheirSessionAndDatasource() {
+        String cursor = registry.open("s1", "mysql", rows(5), null).block().getCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.next("s2", "mysql", cursor, 2).block());
+        assertThrows(IllegalArgumentException.class, () -> registry.next("s1", "neo4j", cursor, 2).block());
+        assertEquals(List.of(row(3), row(4)), registry.next("s1", "mysql", cursor, 2).block().getRows());
+    }
+
+    @Test
+    void limitsTheCursorsOfASession() {
+        registry.open("s1", "mysql", rows(5), null).block();
+        registry.open("s1", "mysql", rows(5), null).block();
+
+        assertThrows(IllegalStateException.class, () -> registry.open("s1", "mysql", rows(5), null).block());
+        registry.open("s2", "mysql", rows(5), null).block();
+    }
+
+    @Test
+    void limitsTheCursorsOfADatasource() {
+        registry.open("s1", "mysql", rows(5), null).block();
+        registry.open("s2", "mysql", rows(5), null).block();
+        registry.open("s3", "mysql", rows(5), null).block();
+
+        assertThrows(IllegalStateException.class, () -> registry.open("s4", "mysql", rows(5), null).block());
+        registry.open("s4", "neo4j", rows(5), null).block();
+    }
+
+    @Test
+    void exhaustedCursorsDoNotCount() {
+        String cursor = registry.open("s1", "mysql", rows(3), null).block().getCursor();
+        registry.open("s1", "mysql", rows(5), null).block();
+        assertFalse(registry.next("s1", "mysql", cursor, 2).block().isHasMore());
+
+        registry.open("s1", "mysql", rows(5), null).block();
+    }
+
+    @Test
+    void closesIdleCursors() throws InterruptedException {
+        config.setIdleTimeout(Duration.ofMillis(50));
+        ReflectionTestUtils.invokeMethod(registry, "init");
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        String cursor = registry.open("s1", "mysql", rows(5).doOnCancel(() -> cancelled.set(true)), null)
+                .block()
+                .getCursor();
+        Thread.sleep(300);
+
+        assertTrue(cancelled.get());
+        assertThrows(IllegalArgumentException.class, () -> registry.next("s1", "mysql", cursor, 2).block());
+    }
+
+    private static Flux<Map<String, Object>> rows(int count) {
+        return Flux.range(1, count).map(CursorRegistryTest::row);
+    }
+
+    private static Map<String, Object> row(int id) {
+        return Map.of("id", id);
+    }
+}
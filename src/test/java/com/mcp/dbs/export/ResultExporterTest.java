@@ -0,0 +1,126 @@
+package com.mcp.dbs.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mcp.dbs.config.ExportConfig;
+import com.mcp.dbs.pojo.ExportResult;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class ResultExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private ExportConfig config;
+    private ResultExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        config = new ExportConfig();
+        config.setDirectory(directory.toString());
+        config.setMaxRows(100);
+        config.setBufferSize(1024);
+        config.setPreviewRows(1);
+        exporter = new ResultExporter(config);
+    }
+
+    @Test
+    void quotesCsvFields() throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("plain", "a");
+        row.put("comma", "b,c");
+        row.put("quote", "say \"hi\"");
+        row.put("newline", "d\ne");
+        row.put("missing", null);
+        row.put("nested", List.of(1, 2));
+
+        ExportResult result = exporter.export("mysql", Flux.just(row), ExportFormat.CSV, false).block();
+
+        assertEquals("plain,comma,quote,newline,missing,nested\r\n"
+                + "a,\"b,c\",\"say \"\"hi\"\"\",\"d\ne\",,\"[1,2]\"\r\n",
+                Files.readString(Path.of(result.getPath())));
+        assertEquals(1, result.getRows());
+        assertEquals(Files.size(Path.of(result.getPath())), result.getBytes());
+    }
+
+    @Test
+    void compressesNdjson() throws IOException {
+        ExportResult result = exporter.export("neo4j", Flux.just(Map.of("id", 1), Map.of("id", 2)),
+                ExportFormat.NDJSON, true).block();
+
+        assertTrue(result.getPath().endsWith(".gz"));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Path.of(result.getPath())))) {
+            assertEquals("{\"id\":1}\n{\"id\":2}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of(Map.of("id", 1)), result.getPreview());
+    }
+
+    @Test
+    void stopsAtTheRowLimit() {
+        config.setMaxRows(3);
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        ExportResult result = exporter.export("mysql",
+                Flux.range(1, 1000).map(id -> Map.<String, Object>of("id", id)).doOnCancel(() -> cancelled.set(true)),
+                ExportFormat.CSV, false).block();
+
+        assertEquals(3, result.getRows());
+        assertTrue(result.isTruncated());
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    void discardsTheFileOnError() throws IOException {
+        Flux<Map<String, Object>> rows = Flux.concat(Flux.just(Map.of("id", 1)),
+                Flux.error(new IllegalStateException("boom")));
+
+        assertThrows(IllegalStateException.class,
+                () -> exporter.export("mysql", rows, ExportFormat.CSV, false).block());
+        assertEquals(0, files());
+    }
+
+    @Test
+    void discardsTheFileOnCancel() throws Exception {
+        Sinks.Many<Map<String, Object>> rows = Sinks.many().unicast().onBackpressureBuffer();
+        Disposable export = exporter.export("mysql", rows.asFlux(), ExportFormat.CSV, false).subscribe();
+        rows.tryEmitNext(Map.of("id", 1));
+        awaitFiles(1);
+
+        export.dispose();
+        awaitFiles(0);
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private void awaitFiles(long expected) throws Exception {
+        for (int i = 0; i < 100 && files() != expected; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, files());
+    }
+}
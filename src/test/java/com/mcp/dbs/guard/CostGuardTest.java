@@ -0,0 +1,140 @@
+package com.mcp.dbs.guard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.mcp.dbs.config.CostGuardConfig;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CostGuardTest {
+
+    private MockEnvironment environment;
+    private SimpleMeterRegistry registry;
+    private CostGuard guard;
+    private final AtomicInteger explained = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("client.cost-guard.mysql.enabled", "true")
+                .withProperty("client.cost-guard.mysql.max-cost", "1000")
+                .withProperty("client.cost-guard.mysql.max-rows", "10000");
+        CostGuardConfig config = new CostGuardConfig(environment);
+        config.setPlanCacheSize(100);
+        config.setPlanCacheTtl(Duration.ofMinutes(10));
+        registry = new SimpleMeterRegistry();
+        guard = new CostGuard(config, registry);
+    }
+
+    @Test
+    void passesCheapQueries() {
+        check("SELECT * FROM t WHERE id = 1", plan(10, 1)).block();
+        assertEquals(1, verdicts("pass"));
+    }
+
+    @Test
+    void rejectsQueriesOverAThreshold() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> check("SELECT * FROM t", plan(5000, 1)).block());
+        assertTrue(error.getMessage().contains("estimated cost 5000 exceeds 1000"), error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> check("SELECT * FROM u", plan(10, 50000)).block());
+        assertEquals(2, verdicts("reject"));
+    }
+
+    @Test
+    void warnsAboutOverThresholdQueriesWhenConfigured() {
+        environment.setProperty("client.cost-guard.mysql.over-threshold", "warn");
+        check("SELECT * FROM t", plan(5000, 1)).block();
+        assertEquals(1, verdicts("warn"));
+    }
+
+    @Test
+    void actsOnFullScansAndCartesianProducts() {
+        check("SELECT * FROM t", new QueryPlan(10, 1, List.of("t"), false, List.of())).block();
+        assertEquals(1, verdicts("warn"));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> check("SELECT * FROM t, u", new QueryPlan(10, 1, List.of(), true, List.of())).block());
+        assertTrue(error.getMessage().contains("cartesian product"), error.getMessage());
+    }
+
+    @Test
+    void rejectsPlansThatWrite() {
+        assertThrows(IllegalArgumentException.class,
+                () -> check("CALL p()", new QueryPlan(1, 1, List.of(), false, List.of("Create"))).block());
+    }
+
+    @Test
+    void skipsQueriesThatCannotBeExplained() {
+        guard.check("mysql", QueryNormalizer.SQL, "SELEC 1", Map.of(),
+                () -> Mono.error(new IllegalStateException("syntax error"))).block();
+        assertEquals(0, verdicts("pass") + verdicts("warn") + verdicts("reject"));
+    }
+
+    @Test
+    void reusesThePlansOfQueriesDifferingInTheirFilters() {
+        check("SELECT * FROM t WHERE id = 1", plan(10, 1)).block();
+        check("SELECT * FROM t WHERE id = 2", plan(10, 1)).block();
+        assertEquals(1, explained.get());
+    }
+
+    @Test
+    void explainsQueriesDifferingInTheirRowLimits() {
+        check("SELECT * FROM t LIMIT 10", plan(10, 10)).block();
+        assertThrows(IllegalArgumentException.class,
+                () -> check("SELECT * FROM t LIMIT 100000000", plan(10, 100000000)).block());
+        assertThrows(IllegalArgumentException.class,
+                () -> check("SELECT * FROM t WHERE id > 0", plan(10, 100000000)).block());
+        assertEquals(3, explained.get());
+    }
+
+    @Test
+    void explainsQueriesDifferingInTheirRowLimitParameters() {
+        guard.check("mysql", QueryNormalizer.SQL, "SELECT * FROM t LIMIT :n", Map.of("n", 10),
+                () -> explain(plan(10, 10))).block();
+        assertThrows(IllegalArgumentException.class, () -> guard.check("mysql", QueryNormalizer.SQL,
+                "SELECT * FROM t LIMIT :n", Map.of("n", 100000000), () -> explain(plan(10, 100000000))).block());
+        assertEquals(2, explained.get());
+    }
+
+    @Test
+    void checksNothingWhenDisabled() {
+        environment.setProperty("client.cost-guard.mysql.enabled", "false");
+        check("SELECT * FROM t", plan(5000, 1)).block();
+        assertEquals(0, explained.get());
+    }
+
+    private Mono<Void> check(String query, QueryPlan plan) {
+        return guard.check("mysql", QueryNormalizer.SQL, query, Map.of(), () -> explain(plan));
+    }
+
+    private Mono<QueryPlan> explain(QueryPlan plan) {
+        return Mono.fromCallable(() -> {
+            explained.incrementAndGet();
+            return plan;
+        });
+    }
+
+    private static QueryPlan plan(double cost, double rows) {
+        return new QueryPlan(cost, rows, List.of(), false, List.of());
+    }
+
+    private double verdicts(String verdict) {
+        return registry.find("dbs.guard.verdicts").tag("verdict", verdict).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
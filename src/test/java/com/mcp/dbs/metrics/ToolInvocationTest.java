@@ -0,0 +1,58 @@
+package com.mcp.dbs.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.dbs.admission.AdmissionController;
+import com.mcp.dbs.stats.QueryStatistics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ToolInvocationTest {
+
+    private ToolInvocation invocation;
+
+    @BeforeEach
+    void setUp() {
+        ToolMetrics metrics = new ToolMetrics(new SimpleMeterRegistry(), mock(AdmissionController.class),
+                mock(QueryStatistics.class));
+        invocation = new ToolInvocation(metrics, "Execute mysql read query", "mysql");
+    }
+
+    @Test
+    void countsRowsFromSeveralThreads() {
+        BiFunction<Integer, Integer, Integer> mapper = invocation.timed(ToolInvocationTest::slowSum);
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            mapper.apply(i, 1);
+            invocation.addRows(1);
+        });
+
+        assertEquals(10_000, invocation.getRows());
+        assertTrue(invocation.getMappingNanos() > 0);
+    }
+
+    @Test
+    void doesNotTimeMappingsOnceRecorded() {
+        BiFunction<Integer, Integer, Integer> mapper = invocation.timed(ToolInvocationTest::slowSum);
+        invocation.terminated(ToolInvocation.SUCCESS);
+
+        assertEquals(3, mapper.apply(1, 2));
+        assertEquals(0, invocation.getMappingNanos());
+    }
+
+    private static int slowSum(int first, int second) {
+        long begin = System.nanoTime();
+        while (System.nanoTime() == begin) {
+            Thread.onSpinWait();
+        }
+        return first + second;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mcp.dbs.neo4j.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+
+class Neo4jExplainerTest {
+
+    @Test
+    void ranksOperatorsByDatabaseHitsWithoutTimes() {
+        ProfiledPlan scan = plan("NodeByLabelScan@neo4j", "n:Person", 100, 10000, 10001, 0);
+        ProfiledPlan filter = plan("Filter@neo4j", "n.age > $min", 10, 3300, 20000, 0, scan);
+        ProfiledPlan produce = plan("ProduceResults@neo4j", "n", 10, 3300, 0, 0, filter);
+
+        QueryProfile profile = Neo4jExplainer.profile(summary(produce, 12, 30));
+
+        assertEquals(42, profile.getExecutionTimeMs(), 1e-9);
+        assertTrue(profile.isRolledBack());
+        PlanNode root = profile.getPlan();
+        assertEquals("ProduceResults", root.getOperator());
+        assertNull(root.getTimeMs());
+        PlanNode label = root.getChildren().get(0).getChildren().get(0);
+        assertEquals("NodeByLabelScan", label.getOperator());
+        assertEquals("n:Person", label.getDetails());
+        assertEquals(10000, label.getActualRows());
+        assertEquals(10001, label.getDbHits());
+        assertEquals(100, label.getEstimatedRows(), 1e-9);
+
+        assertEquals(List.of("Filter", "NodeByLabelScan"),
+                profile.getHotspots().stream().map(QueryProfile.Hotspot::operator).toList());
+        assertEquals(20000 / 30001d, profile.getHotspots().get(0).share(), 1e-9);
+    }
+
+    @Test
+    void ranksOperatorsByTheirOwnTime() {
+        ProfiledPlan scan = plan("NodeByLabelScan@neo4j", null, 100, 10000, 10001, 2_000_000);
+        ProfiledPlan sort = plan("Sort@neo4j", "n.name ASC", 100, 10000, 0, 18_000_000, scan);
+
+        QueryProfile profile = Neo4jExplainer.profile(summary(sort, -1, 5));
+
+        assertNull(profile.getExecutionTimeMs());
+        // operator times are their own: the node time includes the subtree
+        assertEquals(20, profile.getPlan().getTimeMs(), 1e-9);
+        assertEquals(18, profile.getPlan().getSelfTimeMs(), 1e-9);
+        assertEquals("Sort", profile.getHotspots().get(0).operator());
+        assertEquals(0.9, profile.getHotspots().get(0).share(), 1e-9);
+    }
+
+    private static ProfiledPlan plan(String operator, String details, double estimated, long records, long dbHits,
+            long nanos, ProfiledPlan... children) {
+        ProfiledPlan plan = mock(ProfiledPlan.class);
+        when(plan.operatorType()).thenReturn(operator);
+        Map<String, Value> arguments = details == null
+                ? Map.of("EstimatedRows", Values.value(estimated))
+                : Map.of("EstimatedRows", Values.value(estimated), "Details", Values.value(details));
+        when(plan.arguments()).thenReturn(arguments);
+        when(plan.records()).thenReturn(records);
+        when(plan.dbHits()).thenReturn(dbHits);
+        when(plan.time()).thenReturn(nanos);
+        doReturn(List.of(children)).when(plan).children();
+        return plan;
+    }
+
+    private static ResultSummary summary(ProfiledPlan plan, long available, long consumed) {
+        ResultSummary summary = mock(ResultSummary.class);
+        when(summary.profile()).thenReturn(plan);
+        when(summary.resultAvailableAfter(TimeUnit.MILLISECONDS)).thenReturn(available);
+        when(summary.resultConsumedAfter(TimeUnit.MILLISECONDS)).thenReturn(consumed);
+        return summary;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mcp.dbs.neo4j.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mcp.dbs.converter.GraphResult;
+import com.mcp.dbs.converter.ReactorConverter;
+
+import reactor.core.publisher.Flux;
+
+class GraphValuesTest {
+
+    private static final InternalNode ANN = new InternalNode(1, "n1", List.of("Person"),
+            Map.of("name", Values.value("Ann")));
+    private static final InternalNode BOB = new InternalNode(2, "n2", List.of("Person"),
+            Map.of("name", Values.value("Bob")));
+    private static final InternalRelationship KNOWS = new InternalRelationship(3, "r3", 1, "n1", 2, "n2", "KNOWS",
+            Map.of("since", Values.value(2020)));
+
+    @Test
+    void encodesPathsAsReferences() throws IOException {
+        JsonNode result = write(row(List.of("p"), new InternalPath(ANN, KNOWS, BOB).asValue()));
+
+        assertEquals("[[{\"path\":[\"n1\",\"r3\",\"n2\"]}]]", result.get("rows").toString());
+        assertEquals("[{\"id\":\"n1\",\"labels\":[\"Person\"],\"properties\":{\"name\":\"Ann\"}},"
+                + "{\"id\":\"n2\",\"labels\":[\"Person\"],\"properties\":{\"name\":\"Bob\"}}]",
+                result.get("nodes").toString());
+        assertEquals("[{\"id\":\"r3\",\"type\":\"KNOWS\",\"start\":\"n1\",\"end\":\"n2\","
+                + "\"properties\":{\"since\":2020}}]", result.get("relationships").toString());
+    }
+
+    @Test
+    void replacesEntitiesInsideListsAndMaps() throws IOException {
+        JsonNode result = write(row(List.of("people", "knows"),
+                Values.value(List.of(ANN.asValue(), BOB.asValue(), ANN.asValue())),
+                Values.value(Map.of("r", KNOWS.asValue()))));
+
+        assertEquals("[[[{\"node\":\"n1\"},{\"node\":\"n2\"},{\"node\":\"n1\"}],{\"r\":{\"relationship\":\"r3\"}}]]",
+                result.get("rows").toString());
+        assertEquals(2, result.get("nodes").size());
+        assertEquals(1, result.get("relationships").size());
+    }
+
+    private static GraphResult.Row row(List<String> keys, Value... values) {
+        return GraphValues.toRow(InternalTypeSystem.TYPE_SYSTEM, new InternalRecord(keys, values));
+    }
+
+    private static JsonNode write(GraphResult.Row row) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = ReactorConverter.OBJECT_MAPPER.createGenerator(out)) {
+            new GraphResult(List::of, Flux.just(row)).writeTo(generator).block();
+        }
+        return ReactorConverter.OBJECT_MAPPER.readTree(out.toString());
+    }
+}
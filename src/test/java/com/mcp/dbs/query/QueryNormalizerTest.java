@@ -0,0 +1,71 @@
+package com.mcp.dbs.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class QueryNormalizerTest {
+
+    @Test
+    void masksLiterals() {
+        assertEquals("SELECT * FROM t WHERE id = ? AND name = ?",
+                QueryNormalizer.SQL.normalize("SELECT *\n  FROM t -- by id\n WHERE id = 42 AND name = 'x'"));
+        assertEquals("MATCH ( n : Person { name : ? } ) RETURN n LIMIT ?",
+                QueryNormalizer.CYPHER.normalize("MATCH (n:Person {name: \"Ann\"}) RETURN n LIMIT 10"));
+    }
+
+    @Test
+    void queriesDifferingInLiteralsShareTheirShape() {
+        assertEquals(QueryNormalizer.SQL.normalize("SELECT * FROM t WHERE id IN (1, 2) AND name = 'a'"),
+                QueryNormalizer.SQL.normalize("SELECT * FROM t WHERE id IN (3, 4) AND name = 'b'"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT 'a\\' , 'secret'",
+            "SELECT 'a\\', 'secret' FROM t",
+            "SELECT $$secret$$",
+            "SELECT $tag$secret$tag$ FROM t",
+            "SELECT 1 /* outer /* inner */ 'secret' */",
+            "SELECT 1 --'secret'",
+    })
+    void masksLiteralsOfAmbiguousQueries(String query) {
+        String shape = QueryNormalizer.SQL.normalize(query);
+        assertFalse(shape.contains("secret"), shape);
+        assertEquals(shape, QueryNormalizer.SQL.normalize(query.replace("secret", "other")));
+    }
+
+    @Test
+    void compactKeepsLiteralsVerbatim() {
+        assertEquals("SELECT * FROM t WHERE name = 'a  b'",
+                QueryNormalizer.SQL.compact("SELECT *\n  FROM t /* names */ WHERE name = 'a  b' ;"));
+    }
+
+    @Test
+    void planShapeKeepsTheLiteralsBoundingTheRows() {
+        assertEquals("SELECT * FROM t WHERE id = ? AND total > 100 LIMIT 10 , 20",
+                QueryNormalizer.SQL.planShape("SELECT * FROM t WHERE id = 1 AND total > 100 LIMIT 10, 20", null));
+        assertEquals("SELECT * FROM t WHERE d BETWEEN '2020-01-01' AND '2021-01-01' OFFSET 5 ROWS"
+                + " FETCH FIRST 50 ROWS ONLY",
+                QueryNormalizer.SQL.planShape("SELECT * FROM t WHERE d BETWEEN '2020-01-01' AND '2021-01-01'"
+                        + " OFFSET 5 ROWS FETCH FIRST 50 ROWS ONLY", Map.of()));
+        assertEquals("MATCH ( n ) WHERE n . age > = $min=18 RETURN n SKIP 0 LIMIT 5",
+                QueryNormalizer.CYPHER.planShape("MATCH (n) WHERE n.age >= $min RETURN n SKIP 0 LIMIT 5",
+                        Map.of("min", 18)));
+    }
+
+    @Test
+    void planShapeKeepsTheValuesOfBoundingParameters() {
+        String query = "SELECT * FROM t WHERE id = :id LIMIT :n";
+        assertEquals(QueryNormalizer.SQL.planShape(query, Map.of("id", 1, "n", 10)),
+                QueryNormalizer.SQL.planShape(query, Map.of("id", 2, "n", 10)));
+        assertNotEquals(QueryNormalizer.SQL.planShape(query, Map.of("id", 1, "n", 10)),
+                QueryNormalizer.SQL.planShape(query, Map.of("id", 1, "n", 100000000)));
+    }
+}
@@ -0,0 +1,157 @@
+package com.mcp.dbs.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class StatementClassifierTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM users",
+            "select 'insert' as x from t -- delete",
+            "SELECT * FROM t /* DROP TABLE t */",
+            "SELECT \"update\", t.delete FROM t",
+            "SELECT replace(name, 'a', 'b'), avg(load) FROM t",
+            "SELECT 1 AS update",
+            "(SELECT a FROM t) UNION (SELECT a FROM u)",
+            "SHOW TABLES",
+            "SELECT lock, share FROM t"
+    })
+    void sqlReads(String query) {
+        assertTrue(StatementClassifier.SQL.classify(query).isRead());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "INSERT INTO orders (id) VALUES (1)",
+            "WITH d AS (DELETE FROM t RETURNING *) SELECT * FROM d",
+            "SELECT * INTO backup FROM t",
+            "EXPLAIN ANALYZE DELETE FROM t",
+            "CALL refresh_stats()",
+            "TRUNCATE orders",
+            // hidden from one dialect's lexer but executed by the other
+            "SELECT 'C:\\' ; DROP TABLE t; --'",
+            "SELECT 'x\\'', 1; DROP TABLE t; SELECT '",
+            "SELECT 1 --1; DROP TABLE t",
+            "/* /* */ ' */ DROP TABLE t; -- '",
+            "SELECT 1 /*! ; DROP TABLE t */",
+            // not known to be reads
+            "SET GLOBAL read_only = 0",
+            "LOCK TABLE t IN ACCESS EXCLUSIVE MODE",
+            "KILL 12",
+            "OPTIMIZE TABLE t",
+            "FLUSH PRIVILEGES",
+            "INSTALL PLUGIN x SONAME 'y'",
+            "RESET ALL",
+            "DISCARD ALL",
+            "PREPARE p AS SELECT 1",
+            "SELECT * FROM t; BEGIN",
+            "SELECT * FROM t FOR UPDATE",
+            "SELECT * FROM t FOR NO KEY UPDATE",
+            "SELECT * FROM t FOR SHARE",
+            "SELECT * FROM t LOCK IN SHARE MODE"
+    })
+    void sqlWrites(String query) {
+        assertTrue(StatementClassifier.SQL.classify(query).isWrite());
+    }
+
+    @Test
+    void sqlReturningAndTables() {
+        StatementClassification insert = StatementClassifier.SQL.classify("INSERT INTO orders (id) VALUES (1);");
+        assertTrue(insert.isReturningCandidate());
+        assertEquals(Set.of("orders"), insert.tables());
+
+        assertFalse(StatementClassifier.SQL.classify("insert into t values (1) returning id").isReturningCandidate());
+        assertFalse(StatementClassifier.SQL.classify("UPDATE t SET a = 1; DELETE FROM u").isReturningCandidate());
+
+        StatementClassification drop = StatementClassifier.SQL.classify("DROP TABLE IF EXISTS public.users");
+        assertTrue(drop.has(StatementKind.DDL));
+        assertEquals(Set.of("users"), drop.tables());
+
+        assertEquals(Set.of("a", "b", "c"),
+                StatementClassifier.SQL.classify("SELECT * FROM a x, b AS y JOIN c ON c.id = x.id").tables());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "MATCH (n {name: 'CREATE'}) RETURN n.set",
+            "MATCH (n:Delete) RETURN {merge: n.x} AS m",
+            "// CREATE\nMATCH (a)--(b) RETURN a",
+            "CALL db.labels()",
+            "CALL { MATCH (n) RETURN n } RETURN n",
+            "CALL db.schema.nodeTypeProperties() YIELD nodeType RETURN nodeType",
+            "SHOW INDEXES",
+            "CALL db.labels"
+    })
+    void cypherReads(String query) {
+        assertTrue(StatementClassifier.CYPHER.classify(query).isRead());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "CREATE (n:Person)",
+            "MATCH (n) DETACH DELETE n",
+            "MERGE (n:A {id: 1}) ON CREATE SET n.x = 1",
+            "CALL apoc.create.node(['A'], {})",
+            "CREATE INDEX idx FOR (n:Person) ON (n.name)",
+            "CALL dbms.killQuery('x')",
+            "CALL apoc.schema.assert({},{})",
+            "CALL apoc.trigger.install('neo4j', 't', 'RETURN 1', {})",
+            "CALL gds.pageRank.mutate('g', {mutateProperty: 'rank'})",
+            "CALL apoc.do.when(true, 'CREATE (n)', '', {})",
+            "STOP DATABASE neo4j",
+            "TERMINATE TRANSACTIONS 'x'",
+            "SHOW TRANSACTIONS YIELD transactionId TERMINATE TRANSACTIONS transactionId"
+    })
+    void cypherWrites(String query) {
+        assertTrue(StatementClassifier.CYPHER.classify(query).isWrite());
+    }
+
+    @Test
+    void unknownStatements() {
+        assertTrue(StatementClassifier.SQL.classify("KILL 12").has(StatementKind.OTHER));
+        assertTrue(StatementClassifier.SQL.classify("SELECT * FROM t FOR UPDATE").has(StatementKind.OTHER));
+        assertFalse(StatementClassifier.SQL.classify("INSERT INTO t VALUES (1)").has(StatementKind.OTHER));
+        assertEquals("SELECT", StatementClassifier.SQL.classify("((SELECT 1))").leadingKeyword());
+        assertTrue(StatementClassifier.CYPHER.classify("STOP DATABASE neo4j").has(StatementKind.OTHER));
+    }
+
+    @Test
+    void cypherSchemaCommands() {
+        assertTrue(StatementClassifier.CYPHER.classify("CREATE CONSTRAINT FOR (n:A) REQUIRE n.id IS UNIQUE")
+                .has(StatementKind.DDL));
+        assertFalse(StatementClassifier.CYPHER.classify("CREATE (n:Index)").has(StatementKind.DDL));
+    }
+
+    @Test
+    void limitPushdown() {
+        assertEquals("SELECT * FROM t WHERE a = 'x;' LIMIT 11",
+                limited(StatementClassifier.SQL, "SELECT * FROM t WHERE a = 'x;'; -- all of them"));
+        assertEquals("WITH c AS (SELECT * FROM t LIMIT 5) SELECT * FROM c ORDER BY 1 LIMIT 11",
+                limited(StatementClassifier.SQL, "WITH c AS (SELECT * FROM t LIMIT 5) SELECT * FROM c ORDER BY 1"));
+        assertEquals("MATCH (n) RETURN n ORDER BY n.name SKIP 10 LIMIT 11",
+                limited(StatementClassifier.CYPHER, "MATCH (n) RETURN n ORDER BY n.name SKIP 10"));
+
+        for (String query : new String[] { "SELECT * FROM t LIMIT 5", "SELECT * FROM t FOR UPDATE",
+                "SELECT 1; SELECT 2", "SHOW TABLES" }) {
+            assertEquals(query, limited(StatementClassifier.SQL, query));
+        }
+        assertEquals("MATCH (n) WITH n RETURN n.name AS name, n.tag IN ['a'] AS tagged LIMIT 11",
+                limited(StatementClassifier.CYPHER, "MATCH (n) WITH n RETURN n.name AS name, n.tag IN ['a'] AS tagged"));
+        for (String query : new String[] { "MATCH (n) RETURN n LIMIT 5", "MATCH (n) RETURN n UNION MATCH (m) RETURN m",
+                "CALL db.labels()", "MATCH (n) RETURN n.name AS name WITH name RETURN name LIMIT 1" }) {
+            assertEquals(query, limited(StatementClassifier.CYPHER, query));
+        }
+    }
+
+    private static String limited(StatementClassifier classifier, String query) {
+        return classifier.classify(query).withLimit(query, 11);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mcp.dbs.sql.introspection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+
+class MySqlIntrospectorTest {
+
+    private final MySqlIntrospector introspector = new MySqlIntrospector(List.of());
+
+    @Test
+    void readsTheCostRowsAndFullScansOfAPlan() {
+        QueryPlan plan = plan("""
+                {
+                  "query_block": {
+                    "select_id": 1,
+                    "cost_info": { "query_cost": "1254.75" },
+                    "nested_loop": [
+                      {
+                        "table": {
+                          "table_name": "o",
+                          "access_type": "ALL",
+                          "rows_examined_per_scan": 9860,
+                          "rows_produced_per_join": 3286,
+                          "filtered": "33.33",
+                          "attached_condition": "(`shop`.`o`.`total` > 100)"
+                        }
+                      },
+                      {
+                        "table": {
+                          "table_name": "c",
+                          "access_type": "eq_ref",
+                          "possible_keys": ["PRIMARY"],
+                          "key": "PRIMARY",
+                          "rows_examined_per_scan": 1,
+                          "rows_produced_per_join": 3286,
+                          "filtered": "100.00"
+                        }
+                      }
+                    ]
+                  }
+                }
+                """);
+
+        assertEquals(1254.75, plan.cost(), 1e-9);
+        assertEquals(9860, plan.rows(), 1e-9);
+        assertEquals(List.of("o"), plan.fullScans());
+        assertFalse(plan.cartesian());
+    }
+
+    @Test
+    void joinBuffersWithoutAConditionAreCartesianProducts() {
+        QueryPlan plan = plan("""
+                {
+                  "query_block": {
+                    "select_id": 1,
+                    "cost_info": { "query_cost": "20152.50" },
+                    "nested_loop": [
+                      { "table": { "table_name": "a", "access_type": "ALL", "rows_examined_per_scan": 1000,
+                                   "rows_produced_per_join": 1000 } },
+                      { "table": { "table_name": "b", "access_type": "ALL", "rows_examined_per_scan": 200,
+                                   "rows_produced_per_join": 200000, "using_join_buffer": "hash join" } }
+                    ]
+                  }
+                }
+                """);
+
+        assertEquals(200000, plan.rows(), 1e-9);
+        assertEquals(List.of("a", "b"), plan.fullScans());
+        assertTrue(plan.cartesian());
+    }
+
+    @Test
+    void readsMariaDbPlans() {
+        QueryPlan plan = plan("""
+                {
+                  "query_block": {
+                    "select_id": 1,
+                    "table": { "table_name": "a", "access_type": "ALL", "rows": 100 },
+                    "block-nl-join": {
+                      "table": { "table_name": "b", "access_type": "ALL", "rows": 50 },
+                      "buffer_type": "flat",
+                      "buffer_size": "256Kb",
+                      "join_type": "BNL"
+                    }
+                  }
+                }
+                """);
+
+        assertTrue(Double.isNaN(plan.cost()));
+        assertEquals(100, plan.rows(), 1e-9);
+        assertEquals(List.of("a", "b"), plan.fullScans());
+        assertTrue(plan.cartesian());
+    }
+
+    @Test
+    void parsesExplainAnalyzeTrees() {
+        QueryProfile profile = introspector.profile("""
+                -> Nested loop inner join  (cost=1254.75 rows=3286) (actual time=0.112..24.310 rows=3300 loops=1)
+                    -> Filter: (o.total > 100)  (cost=1004.75 rows=3286) (actual time=0.085..9.870 rows=3300 loops=1)
+                        -> Table scan on o  (cost=1004.75 rows=9860) (actual time=0.080..7.950 rows=10000 loops=1)
+                    -> Single-row index lookup on c using PRIMARY (id=o.customer_id)  (cost=0.25 rows=1) (actual time=0.004..0.004 rows=1 loops=3300)
+                """, true);
+
+        PlanNode join = profile.getPlan();
+        assertEquals("Nested loop inner join", join.getOperator());
+        assertNull(join.getDetails());
+        assertEquals(24.31, profile.getExecutionTimeMs(), 1e-9);
+        assertTrue(profile.isRolledBack());
+
+        PlanNode filter = join.getChildren().get(0);
+        assertEquals("Filter", filter.getOperator());
+        assertEquals("(o.total > 100)", filter.getDetails());
+        PlanNode scan = filter.getChildren().get(0);
+        assertEquals("Table scan", scan.getOperator());
+        assertEquals("o", scan.getDetails());
+        assertEquals(10000, scan.getActualRows());
+
+        // measures are per loop
+        PlanNode lookup = join.getChildren().get(1);
+        assertEquals("Single-row index lookup", lookup.getOperator());
+        assertEquals("c using PRIMARY (id=o.customer_id)", lookup.getDetails());
+        assertEquals(3300, lookup.getLoops());
+        assertEquals(3300, lookup.getActualRows());
+        assertEquals(3300, lookup.getEstimatedRows(), 1e-9);
+        assertEquals(13.2, lookup.getTimeMs(), 1e-9);
+        assertEquals(13.2, lookup.getSelfTimeMs(), 1e-9);
+        assertEquals(1.92, filter.getSelfTimeMs(), 1e-9);
+        assertEquals(24.31 - 9.87 - 13.2, join.getSelfTimeMs(), 1e-9);
+
+        assertEquals(List.of(lookup.getId(), scan.getId()),
+                profile.getHotspots().stream().map(QueryProfile.Hotspot::id).toList());
+        assertEquals(13.2 / 24.31, profile.getHotspots().get(0).share(), 1e-9);
+    }
+
+    @Test
+    void stepsThatNeverRanHaveNoMeasures() {
+        QueryProfile profile = introspector.profile("""
+                -> Nested loop inner join  (cost=0.70 rows=1) (actual time=0.030..0.030 rows=0 loops=1)
+                    -> Filter: (a.x = 5)  (cost=0.35 rows=1) (actual time=0.028..0.028 rows=0 loops=1)
+                        -> Table scan on a  (cost=0.35 rows=1) (actual time=0.020..0.025 rows=1 loops=1)
+                    -> Index lookup on b using idx (y=a.y)  (cost=0.35 rows=1) (never executed)
+                """, false);
+
+        PlanNode lookup = profile.getPlan().getChildren().get(1);
+        assertEquals("Index lookup", lookup.getOperator());
+        assertEquals(1, lookup.getEstimatedRows(), 1e-9);
+        assertNull(lookup.getLoops());
+        assertNull(lookup.getActualRows());
+        assertNull(lookup.getTimeMs());
+        assertNull(lookup.getSelfTimeMs());
+        assertEquals(0.03 - 0.028, profile.getPlan().getSelfTimeMs(), 1e-9);
+    }
+
+    @Test
+    void rejectsOutputsThatAreNotATree() {
+        assertThrows(IllegalStateException.class,
+                () -> introspector.profile("id\tselect_type\ttable\n1\tSIMPLE\tt", false));
+    }
+
+    private QueryPlan plan(String json) {
+        return introspector.plan(CatalogIntrospector.json(json));
+    }
+}
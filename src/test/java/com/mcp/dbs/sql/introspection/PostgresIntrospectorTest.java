@@ -0,0 +1,253 @@
+package com.mcp.dbs.sql.introspection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mcp.dbs.guard.QueryPlan;
+import com.mcp.dbs.pojo.PlanNode;
+import com.mcp.dbs.pojo.QueryProfile;
+
+class PostgresIntrospectorTest {
+
+    private final PostgresIntrospector introspector = new PostgresIntrospector(List.of());
+
+    @Test
+    void readsTheCostRowsAndFullScansOfAPlan() {
+        QueryPlan plan = plan("""
+                [
+                  {
+                    "Plan": {
+                      "Node Type": "Hash Join",
+                      "Join Type": "Inner",
+                      "Startup Cost": 30.50,
+                      "Total Cost": 1832.15,
+                      "Plan Rows": 3286,
+                      "Hash Cond": "(o.customer_id = c.id)",
+                      "Plans": [
+                        {
+                          "Node Type": "Seq Scan",
+                          "Parent Relationship": "Outer",
+                          "Relation Name": "orders",
+                          "Alias": "o",
+                          "Total Cost": 1790.25,
+                          "Plan Rows": 9860,
+                          "Filter": "(total > 100)"
+                        },
+                        {
+                          "Node Type": "Hash",
+                          "Parent Relationship": "Inner",
+                          "Total Cost": 18.00,
+                          "Plan Rows": 1000,
+                          "Plans": [
+                            {
+                              "Node Type": "Index Scan",
+                              "Parent Relationship": "Outer",
+                              "Relation Name": "customers",
+                              "Index Name": "customers_pkey",
+                              "Total Cost": 18.00,
+                              "Plan Rows": 1000
+                            }
+                          ]
+                        }
+                      ]
+                    }
+                  }
+                ]
+                """);
+
+        assertEquals(1832.15, plan.cost(), 1e-9);
+        assertEquals(9860, plan.rows(), 1e-9);
+        assertEquals(List.of("orders"), plan.fullScans());
+        assertFalse(plan.cartesian());
+    }
+
+    @Test
+    void nestedLoopsWithoutAJoinFilterAreCartesianProducts() {
+        QueryPlan plan = plan("""
+                [
+                  {
+                    "Plan": {
+                      "Node Type": "Nested Loop",
+                      "Total Cost": 2517.60,
+                      "Plan Rows": 200000,
+                      "Plans": [
+                        { "Node Type": "Seq Scan", "Relation Name": "a", "Total Cost": 15.00, "Plan Rows": 1000 },
+                        {
+                          "Node Type": "Materialize",
+                          "Total Cost": 4.00,
+                          "Plan Rows": 200,
+                          "Plans": [
+                            { "Node Type": "Seq Scan", "Relation Name": "b", "Total Cost": 3.00, "Plan Rows": 200 }
+                          ]
+                        }
+                      ]
+                    }
+                  }
+                ]
+                """);
+
+        assertEquals(200000, plan.rows(), 1e-9);
+        assertEquals(List.of("a", "b"), plan.fullScans());
+        assertTrue(plan.cartesian());
+    }
+
+    @Test
+    void nestedLoopsWithAJoinFilterAreNot() {
+        QueryPlan plan = plan("""
+                [
+                  {
+                    "Plan": {
+                      "Node Type": "Nested Loop",
+                      "Total Cost": 2517.60,
+                      "Plan Rows": 500,
+                      "Join Filter": "(a.x < b.y)",
+                      "Plans": [
+                        { "Node Type": "Seq Scan", "Relation Name": "a", "Total Cost": 15.00, "Plan Rows": 1000 },
+                        { "Node Type": "Seq Scan", "Relation Name": "b", "Total Cost": 3.00, "Plan Rows": 200 }
+                      ]
+                    }
+                  }
+                ]
+                """);
+
+        assertFalse(plan.cartesian());
+    }
+
+    @Test
+    void parsesAnalyzedPlans() {
+        QueryProfile profile = introspector.profile("""
+                [
+                  {
+                    "Plan": {
+                      "Node Type": "Nested Loop",
+                      "Parallel Aware": false,
+                      "Join Type": "Inner",
+                      "Startup Cost": 0.29,
+                      "Total Cost": 1234.50,
+                      "Plan Rows": 3286,
+                      "Plan Width": 16,
+                      "Actual Startup Time": 0.030,
+                      "Actual Total Time": 24.310,
+                      "Actual Rows": 3300,
+                      "Actual Loops": 1,
+                      "Shared Hit Blocks": 6700,
+                      "Shared Read Blocks": 120,
+                      "Plans": [
+                        {
+                          "Node Type": "Seq Scan",
+                          "Parent Relationship": "Outer",
+                          "Relation Name": "orders",
+                          "Alias": "o",
+                          "Plan Rows": 3286,
+                          "Actual Startup Time": 0.010,
+                          "Actual Total Time": 7.950,
+                          "Actual Rows": 3300,
+                          "Actual Loops": 1,
+                          "Filter": "(total > 100)",
+                          "Rows Removed by Filter": 6700,
+                          "Shared Hit Blocks": 100,
+                          "Shared Read Blocks": 20
+                        },
+                        {
+                          "Node Type": "Index Scan",
+                          "Parent Relationship": "Inner",
+                          "Index Name": "customers_pkey",
+                          "Relation Name": "customers",
+                          "Alias": "c",
+                          "Plan Rows": 1,
+                          "Actual Startup Time": 0.003,
+                          "Actual Total Time": 0.004,
+                          "Actual Rows": 1,
+                          "Actual Loops": 3300,
+                          "Index Cond": "(id = o.customer_id)",
+                          "Shared Hit Blocks": 6600,
+                          "Shared Read Blocks": 100
+                        }
+                      ]
+                    },
+                    "Planning Time": 0.210,
+                    "Triggers": [],
+                    "Execution Time": 24.500
+                  }
+                ]
+                """, true);
+
+        assertEquals(24.5, profile.getExecutionTimeMs(), 1e-9);
+        PlanNode join = profile.getPlan();
+        assertEquals("Nested Loop", join.getOperator());
+        assertNull(join.getDetails());
+        assertEquals(6820, join.getBuffers());
+
+        PlanNode scan = join.getChildren().get(0);
+        assertEquals("orders (total > 100)", scan.getDetails());
+
+        // measures are per loop
+        PlanNode index = join.getChildren().get(1);
+        assertEquals("customers customers_pkey (id = o.customer_id)", index.getDetails());
+        assertEquals(3300, index.getLoops());
+        assertEquals(3300, index.getActualRows());
+        assertEquals(3300, index.getEstimatedRows(), 1e-9);
+        assertEquals(13.2, index.getTimeMs(), 1e-9);
+        assertEquals(24.31 - 7.95 - 13.2, join.getSelfTimeMs(), 1e-9);
+
+        assertEquals(List.of(index.getId(), scan.getId(), join.getId()),
+                profile.getHotspots().stream().map(QueryProfile.Hotspot::id).toList());
+    }
+
+    @Test
+    void nodesThatNeverRanTakeNoTime() {
+        QueryProfile profile = introspector.profile("""
+                [
+                  {
+                    "Plan": {
+                      "Node Type": "Hash Join",
+                      "Plan Rows": 10,
+                      "Actual Total Time": 0.050,
+                      "Actual Rows": 0,
+                      "Actual Loops": 1,
+                      "Hash Cond": "(b.a_id = a.id)",
+                      "Plans": [
+                        {
+                          "Node Type": "Seq Scan",
+                          "Relation Name": "b",
+                          "Plan Rows": 1000,
+                          "Actual Total Time": 0.000,
+                          "Actual Rows": 0,
+                          "Actual Loops": 0
+                        },
+                        {
+                          "Node Type": "Hash",
+                          "Plan Rows": 10,
+                          "Actual Total Time": 0.040,
+                          "Actual Rows": 0,
+                          "Actual Loops": 1,
+                          "Plans": [
+                            { "Node Type": "Seq Scan", "Relation Name": "a", "Plan Rows": 10,
+                              "Actual Total Time": 0.035, "Actual Rows": 0, "Actual Loops": 1, "Filter": "(x = 5)" }
+                          ]
+                        }
+                      ]
+                    },
+                    "Execution Time": 0.080
+                  }
+                ]
+                """, false);
+
+        PlanNode never = profile.getPlan().getChildren().get(0);
+        assertEquals(0, never.getLoops());
+        assertEquals(0, never.getActualRows());
+        assertEquals(0, never.getTimeMs(), 1e-9);
+        assertEquals(1000, never.getEstimatedRows(), 1e-9);
+        assertFalse(profile.isRolledBack());
+    }
+
+    private QueryPlan plan(String json) {
+        return introspector.plan(CatalogIntrospector.json(json));
+    }
+}
@@ -0,0 +1,95 @@
+package com.mcp.dbs.sql.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+
+class BatchStatementTest {
+
+    private static final BindMarkersFactory ANONYMOUS = BindMarkersFactory.anonymous("?");
+    private static final BindMarkersFactory INDEXED = BindMarkersFactory.indexed("$", 1);
+
+    @Test
+    void rewritesNamedParameters() {
+        String query = "INSERT INTO person (name, age) VALUES (:name, :age)";
+        assertEquals("INSERT INTO person (name, age) VALUES (?, ?)", BatchStatement.of(query, ANONYMOUS).getSql());
+        assertEquals("INSERT INTO person (name, age) VALUES ($1, $2)", BatchStatement.of(query, INDEXED).getSql());
+    }
+
+    @Test
+    void leavesLiteralsCommentsAndCastsAlone() {
+        String query = "UPDATE t SET a = ':a', b = :b::text /* :c */ WHERE id = :id";
+        assertEquals("UPDATE t SET a = ':a', b = $1::text /* :c */ WHERE id = $2",
+                BatchStatement.of(query, INDEXED).getSql());
+        assertEquals("SELECT a::int FROM t", BatchStatement.of("SELECT a::int FROM t", INDEXED).getSql());
+    }
+
+    @Test
+    void rejectsAmbiguousStatements() {
+        assertNull(BatchStatement.of("INSERT INTO t VALUES ('a\\', :b)", ANONYMOUS));
+    }
+
+    @Test
+    void bindsEachParameterSet() {
+        Statement statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        Result result = mock(Result.class);
+        when(connection.createStatement("INSERT INTO t VALUES (?, ?)")).thenReturn(statement);
+        when(statement.execute()).thenAnswer(invocation -> Flux.just(result, result));
+        when(result.getRowsUpdated()).thenAnswer(invocation -> Flux.just(1L));
+
+        Map<String, Object> second = new HashMap<>();
+        second.put("a", 2);
+        second.put("b", null);
+        long affected = BatchStatement.of("INSERT INTO t VALUES (:a, :b)", ANONYMOUS)
+                .execute(connection, List.of(Map.of("a", 1, "b", "x"), second))
+                .block();
+
+        assertEquals(2, affected);
+        InOrder order = inOrder(statement);
+        order.verify(statement).bind(0, 1);
+        order.verify(statement).bind(1, "x");
+        order.verify(statement).add();
+        order.verify(statement).bind(0, 2);
+        order.verify(statement).bindNull(1, Object.class);
+        order.verify(statement).execute();
+    }
+
+    @Test
+    void reportsMissingParameters() {
+        Statement statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement("INSERT INTO t VALUES (?, ?)")).thenReturn(statement);
+
+        BatchStatement batch = BatchStatement.of("INSERT INTO t VALUES (:a, :b)", ANONYMOUS);
+        assertThrows(IllegalArgumentException.class,
+                () -> batch.execute(connection, List.of(Map.of("a", 1))).block());
+        verify(statement, never()).execute();
+    }
+
+    @Test
+    void collectionsAreLeftToTheDatabaseClient() {
+        assertTrue(BatchStatement.canBind(List.of(Map.of("a", 1))));
+        assertFalse(BatchStatement.canBind(List.of(Map.of("a", 1), Map.of("a", List.of(1, 2)))));
+    }
+}
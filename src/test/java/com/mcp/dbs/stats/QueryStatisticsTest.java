@@ -0,0 +1,125 @@
+package com.mcp.dbs.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mcp.dbs.config.QueryStatisticsConfig;
+import com.mcp.dbs.metrics.ToolInvocation;
+import com.mcp.dbs.pojo.QueryStatisticsReport;
+import com.mcp.dbs.pojo.SlowQuery;
+import com.mcp.dbs.pojo.StatementStatistics;
+import com.mcp.dbs.query.QueryNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class QueryStatisticsTest {
+
+    private static final String TOOL = "Execute mysql read query";
+
+    private QueryStatisticsConfig config;
+    private QueryStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        config = new QueryStatisticsConfig();
+        config.setEnabled(true);
+        config.setMaxEntries(100);
+        config.setMaxQueryLength(2000);
+        config.setSlowThreshold(Duration.ofSeconds(1));
+        config.setSlowLogSize(2);
+        statistics = new QueryStatistics(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void aggregatesQueriesByShape() {
+        record("SELECT * FROM t WHERE id = 1", 1_000_000, 1, ToolInvocation.SUCCESS);
+        record("SELECT *  FROM t WHERE id = 2", 3_000_000, 0, ToolInvocation.SUCCESS);
+        record("SELECT * FROM t WHERE id = 'x'", 2_000_000, 0, ToolInvocation.ERROR);
+
+        List<StatementStatistics> statements = report().getStatements();
+        assertEquals(1, statements.size());
+        StatementStatistics statement = statements.get(0);
+        assertEquals("SELECT * FROM t WHERE id = ?", statement.getQuery());
+        assertEquals(3, statement.getCalls());
+        assertEquals(1, statement.getErrors());
+        assertEquals(1, statement.getRows());
+        assertEquals(6, statement.getTotalTimeMs(), 1e-9);
+        assertEquals(1, statement.getMinTimeMs(), 1e-9);
+        assertEquals(3, statement.getMaxTimeMs(), 1e-9);
+    }
+
+    @Test
+    void keepsNoLiteralOfAmbiguousQueries() {
+        record("SELECT 'a\\', 'secret1' FROM t", 1_000_000_000, 0, ToolInvocation.SUCCESS);
+        record("SELECT 'a\\', 'secret2' FROM t", 1_000_000_000, 0, ToolInvocation.SUCCESS);
+
+        QueryStatisticsReport report = report();
+        assertEquals(1, report.getFingerprints());
+        assertFalse(report.getStatements().get(0).getQuery().contains("secret"));
+        assertEquals(2, report.getSlowQueries().size());
+        assertTrue(report.getSlowQueries().stream().noneMatch(slow -> slow.getQuery().contains("secret")));
+    }
+
+    @Test
+    void keepsTheLatestSlowQueries() {
+        record("SELECT 1", 1_000_000_000, 1, ToolInvocation.SUCCESS);
+        record("SELECT a FROM t", 999_000_000, 1, ToolInvocation.SUCCESS);
+        record("SELECT b FROM t", 2_000_000_000, 1, ToolInvocation.SUCCESS);
+        record("SELECT c FROM t", 3_000_000_000L, 1, ToolInvocation.SUCCESS);
+
+        assertEquals(List.of("SELECT c FROM t", "SELECT b FROM t"),
+                report().getSlowQueries().stream().map(SlowQuery::getQuery).toList());
+    }
+
+    @Test
+    void evictsTheLeastCalledEntries() {
+        config.setMaxEntries(20);
+        for (int i = 0; i < 20; i++) {
+            record("SELECT c" + i + " FROM t", 1, 0, ToolInvocation.SUCCESS);
+            record("SELECT c" + i + " FROM t", 1, 0, ToolInvocation.SUCCESS);
+        }
+        record("SELECT new FROM t", 1, 0, ToolInvocation.SUCCESS);
+
+        QueryStatisticsReport report = report();
+        assertEquals(20, report.getFingerprints());
+        assertEquals(1, report.getEvicted());
+        assertTrue(report.getStatements().stream().allMatch(statement -> statement.getCalls() == 2));
+    }
+
+    @Test
+    void tracksExecutions() {
+        Flux.range(1, 3)
+                .transform(rows -> statistics.track("mysql", TOOL, QueryNormalizer.SQL, "SELECT 1", rows))
+                .blockLast();
+
+        StatementStatistics statement = report().getStatements().get(0);
+        assertEquals(1, statement.getCalls());
+        assertEquals(3, statement.getRows());
+    }
+
+    @Test
+    void resets() {
+        record("SELECT 1", 1_000_000_000, 1, ToolInvocation.SUCCESS);
+        statistics.reset();
+
+        QueryStatisticsReport report = report();
+        assertEquals(0, report.getFingerprints());
+        assertTrue(report.getSlowQueries().isEmpty());
+    }
+
+    private void record(String query, long nanos, long rows, String outcome) {
+        statistics.record("mysql", TOOL, QueryNormalizer.SQL, query, nanos, rows, outcome);
+    }
+
+    private QueryStatisticsReport report() {
+        return statistics.report("mysql", StatisticsOrder.CALLS, 100, true);
+    }
+}